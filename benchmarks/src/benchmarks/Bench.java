@@ -0,0 +1,45 @@
+package benchmarks;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.stream.Stream;
+
+/**
+ * Bench - Shared setup helpers for the benchmarks
+ */
+final class Bench {
+    private static PrintStream originalOut;
+
+    private Bench() {
+    }
+
+    /**
+     * Discards System.out, so the status lines printed by DatabaseManager do not flood the
+     * JMH output (and are not part of what is measured)
+     */
+    static synchronized void silenceStdout() {
+        if (originalOut == null) {
+            originalOut = System.out;
+            System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+        }
+    }
+
+    static synchronized void restoreStdout() {
+        if (originalOut != null) {
+            System.setOut(originalOut);
+            originalOut = null;
+        }
+    }
+
+    static void deleteRecursively(Path directory) throws IOException {
+        try (Stream<Path> paths = Files.walk(directory)) {
+            for (Path path : (Iterable<Path>) paths.sorted(Comparator.reverseOrder())::iterator) {
+                Files.deleteIfExists(path);
+            }
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package benchmarks;
+
+import data.DatabaseManager;
+import data.GameData;
+import model.CaseDifficulty;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * DatabaseWriteBenchmark - Each DatabaseManager write path against a temporary SQLite file
+ * Synchronous writes are measured until committed. Queued writes (the *Queued benchmarks)
+ * are measured as the caller sees them, which under sustained load includes waiting for
+ * room in the write-behind queue; the queue is drained after every iteration.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DatabaseWriteBenchmark {
+    private static final String CASE_NAME = "Benchmark Case";
+
+    private Path directory;
+    private DatabaseManager db;
+    private GameData gameData;
+    private byte[] snapshot;
+    private int playerId;
+    private int progressId;
+    private int playerCounter;
+    private int choiceCounter;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        Bench.silenceStdout();
+        directory = Files.createTempDirectory("db-bench");
+        db = new DatabaseManager("jdbc:sqlite:" + directory.resolve("bench.db"));
+        if (!db.isAvailable()) {
+            throw new IllegalStateException("SQLite database could not be opened in " + directory);
+        }
+        gameData = new GameData();
+        snapshot = new byte[64];
+        playerId = db.createPlayer("Benchmark Detective");
+        progressId = db.startCase(playerId, CASE_NAME, CaseDifficulty.MEDIUM);
+    }
+
+    @TearDown(Level.Iteration)
+    public void drainQueue() {
+        db.flushPendingWrites();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        db.close();
+        Bench.restoreStdout();
+        Bench.deleteRecursively(directory);
+    }
+
+    @Benchmark
+    public int createPlayer() {
+        return db.createPlayer("Detective " + playerCounter++);
+    }
+
+    @Benchmark
+    public void updatePlayerStats() {
+        db.updatePlayerStats(playerId, true);
+    }
+
+    @Benchmark
+    public int startCase() {
+        return db.startCase(playerId, CASE_NAME, CaseDifficulty.MEDIUM);
+    }
+
+    /** startCase followed by completeCase, which also maintains the leaderboard aggregates */
+    @Benchmark
+    public int startAndCompleteCase() {
+        int id = db.startCase(playerId, CASE_NAME, CaseDifficulty.MEDIUM);
+        db.completeCase(id, true, "Sarah Mitchell", 15);
+        return id;
+    }
+
+    @Benchmark
+    public void saveSuspect() {
+        db.saveSuspect("Sarah Mitchell", "Assistant Curator", "I left at 6 PM...", true, CASE_NAME);
+    }
+
+    /** The per-game call once the catalog is current (a fingerprint check) */
+    @Benchmark
+    public boolean syncSuspectCatalog() {
+        return db.syncSuspectCatalog(CASE_NAME, gameData.getSuspects());
+    }
+
+    @Benchmark
+    public void updateCaseProgressQueued() {
+        db.updateCaseProgress(progressId, 2, 4);
+    }
+
+    @Benchmark
+    public void recordPlayerChoiceQueued() {
+        db.recordPlayerChoice(progressId, playerId, "Marcus Cole", 2, ++choiceCounter);
+    }
+
+    @Benchmark
+    public void recordClueDiscoveredQueued() {
+        db.recordClueDiscovered(progressId, "MUDDY FOOTPRINTS");
+    }
+
+    /** One queued write followed by waiting for its commit */
+    @Benchmark
+    public void recordClueDiscoveredFlushed() {
+        db.recordClueDiscovered(progressId, "MUDDY FOOTPRINTS");
+        db.flushPendingWrites();
+    }
+
+    @Benchmark
+    public void saveSessionSnapshotQueued() {
+        db.saveSessionSnapshot(playerId, CASE_NAME, snapshot);
+    }
+
+    @Benchmark
+    public void deleteSessionSnapshotQueued() {
+        db.deleteSessionSnapshot(playerId, CASE_NAME);
+    }
+}
@@ -0,0 +1,43 @@
+package benchmarks;
+
+import data.CaseLibrary;
+import data.FileLoader;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * FileLoaderBenchmark - Parsing the text case files (the path taken when no case pack is current)
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class FileLoaderBenchmark {
+
+    @Benchmark
+    public List<FileLoader.ClueData> loadClues() {
+        return FileLoader.loadClues(CaseLibrary.shared().getDefaultCase().cluesFile);
+    }
+
+    @Benchmark
+    public List<FileLoader.SuspectData> loadSuspects() {
+        return FileLoader.loadSuspects(CaseLibrary.shared().getDefaultCase().suspectsFile);
+    }
+
+    @Benchmark
+    public String loadCrimeStory() {
+        return FileLoader.loadCrimeStory(CaseLibrary.shared().getDefaultCase().storyFile);
+    }
+}
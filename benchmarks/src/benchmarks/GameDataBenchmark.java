@@ -0,0 +1,63 @@
+package benchmarks;
+
+import data.CaseDefinition;
+import data.CaseLibrary;
+import data.GameData;
+import model.GameState;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * GameDataBenchmark - Getting a playable case: from the shared cache, from the case pack
+ * or the text files, and the per-session GameState on top of it
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class GameDataBenchmark {
+    private GameData gameData;
+
+    @Setup
+    public void setUp() {
+        // Writes data/case1.pack if it is missing or stale, so loadFromPack measures the pack path
+        CaseDefinition.load(CaseLibrary.shared().getDefaultCase());
+        gameData = new GameData();
+    }
+
+    /** What every new game does: a CaseCache hit */
+    @Benchmark
+    public GameData newGameData() {
+        return new GameData();
+    }
+
+    /** A cache miss with an up-to-date pack (fingerprint check plus pack read) */
+    @Benchmark
+    public CaseDefinition loadFromPack() {
+        return CaseDefinition.load(CaseLibrary.shared().getDefaultCase());
+    }
+
+    /** The same case parsed from its text files, as when there is no current pack (slow to warm up) */
+    @Benchmark
+    @Warmup(iterations = 10, time = 1)
+    public CaseDefinition loadFromText() {
+        return CaseDefinition.loadFromText(CaseLibrary.shared().getDefaultCase());
+    }
+
+    @Benchmark
+    public GameState newGameState() {
+        return gameData.newGameState();
+    }
+}
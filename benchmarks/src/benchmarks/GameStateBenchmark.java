@@ -0,0 +1,91 @@
+package benchmarks;
+
+import data.GameData;
+import model.Clue;
+import model.GameState;
+import model.Suspect;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * GameStateBenchmark - Clue and suspect membership checks and updates on a session's state
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class GameStateBenchmark {
+    private GameData gameData;
+    private List<Clue> clues;
+    private List<Suspect> suspects;
+    private GameState fullState;
+
+    @Setup
+    public void setUp() {
+        gameData = new GameData();
+        clues = gameData.getAllClues();
+        suspects = gameData.getSuspects();
+        fullState = gameData.newGameState();
+        for (Clue clue : clues) {
+            fullState.addClue(clue);
+        }
+        for (Suspect suspect : suspects) {
+            fullState.addQuestionedSuspect(suspect);
+        }
+    }
+
+    @Benchmark
+    public void hasClue(Blackhole bh) {
+        for (Clue clue : clues) {
+            bh.consume(fullState.hasClue(clue));
+        }
+    }
+
+    @Benchmark
+    public void hasQuestionedSuspect(Blackhole bh) {
+        for (Suspect suspect : suspects) {
+            bh.consume(fullState.hasQuestionedSuspect(suspect));
+        }
+    }
+
+    /** Re-adding known clues, as every repeat questioning does */
+    @Benchmark
+    public GameState addKnownClues() {
+        for (Clue clue : clues) {
+            fullState.addClue(clue);
+        }
+        return fullState;
+    }
+
+    /** A full investigation's worth of updates on a fresh state */
+    @Benchmark
+    public GameState playThrough() {
+        GameState state = gameData.newGameState();
+        for (Suspect suspect : suspects) {
+            state.addQuestionedSuspect(suspect);
+            for (Clue clue : suspect.getClues()) {
+                state.addClue(clue);
+            }
+        }
+        return state;
+    }
+
+    @Benchmark
+    public List<Clue> getClues() {
+        return fullState.getClues();
+    }
+}
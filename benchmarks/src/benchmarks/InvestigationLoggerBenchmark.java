@@ -0,0 +1,79 @@
+package benchmarks;
+
+import data.InvestigationLogger;
+import data.RotatingLogAppender;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * InvestigationLoggerBenchmark - Building the entries of one investigation, kept in memory
+ * (the default) or handed to a RotatingLogAppender writing to a temporary directory
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class InvestigationLoggerBenchmark {
+    private static final List<String> CLUES = List.of("TORN RED FABRIC", "MUDDY FOOTPRINTS", "KEY CARD");
+    private static final List<String> SUSPECTS = List.of("Dr. Eleanor Hayes", "Marcus Cole", "Sarah Mitchell");
+
+    private Path directory;
+    private RotatingLogAppender appender;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("logger-bench");
+        appender = new RotatingLogAppender(directory, "bench", RotatingLogAppender.DEFAULT_MAX_FILE_BYTES,
+            RotatingLogAppender.DEFAULT_MAX_FILE_AGE_MILLIS, false, RotatingLogAppender.DEFAULT_BUFFER_CAPACITY);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        appender.close();
+        Bench.deleteRecursively(directory);
+    }
+
+    @Benchmark
+    public String inMemory() {
+        InvestigationLogger logger = new InvestigationLogger("Benchmark Case");
+        investigate(logger);
+        return logger.getLog();
+    }
+
+    /** Time to hand the entries off; the disk writes happen on the appender's thread */
+    @Benchmark
+    public InvestigationLogger streaming() {
+        InvestigationLogger logger = new InvestigationLogger(appender, "bench", "Benchmark Case");
+        investigate(logger);
+        return logger;
+    }
+
+    private static void investigate(InvestigationLogger logger) {
+        logger.logGameStart();
+        for (int i = 0; i < SUSPECTS.size(); i++) {
+            logger.logSuspectQuestioned(SUSPECTS.get(i), "Suspect");
+            logger.logClueDiscovered(CLUES.get(i), "Found while questioning " + SUSPECTS.get(i));
+        }
+        logger.logCluesReviewed(CLUES.size());
+        logger.logAccusation(SUSPECTS.get(2), true);
+        logger.logCaseSummary(CLUES, SUSPECTS, true);
+    }
+}
@@ -0,0 +1,75 @@
+package benchmarks;
+
+import data.CaseSearchIndex;
+import data.GameData;
+import model.Clue;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * SearchBenchmark - Ranked evidence search on the shipped case and on a synthetic case of
+ * LARGE_CASE_CLUES clues written with the shipped case's vocabulary (so common words match
+ * most of its documents)
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SearchBenchmark {
+    private static final int LARGE_CASE_CLUES = 10_000;
+    private static final int WORDS_PER_CLUE = 60;
+
+    private CaseSearchIndex caseIndex;
+    private CaseSearchIndex largeIndex;
+
+    @Setup
+    public void setUp() {
+        GameData gameData = new GameData();
+        caseIndex = gameData.getSearchIndex();
+
+        List<String> vocabulary = new ArrayList<>();
+        gameData.getAllClues().forEach(clue -> vocabulary.addAll(CaseSearchIndex.tokenize(clue.getDescription())));
+        SplittableRandom random = new SplittableRandom(42);
+        List<Clue> clues = new ArrayList<>();
+        for (int i = 0; i < LARGE_CASE_CLUES; i++) {
+            StringBuilder description = new StringBuilder();
+            for (int w = 0; w < WORDS_PER_CLUE; w++) {
+                description.append(vocabulary.get(random.nextInt(vocabulary.size()))).append(' ');
+            }
+            clues.add(new Clue(i, "CLUE " + i, description.toString(), "Room " + random.nextInt(500)));
+        }
+        largeIndex = CaseSearchIndex.build("", clues, new ArrayList<>());
+    }
+
+    @Benchmark
+    public List<CaseSearchIndex.Hit> caseSearch() {
+        return caseIndex.search("muddy footprints security guard", 10, CaseSearchIndex.ALL);
+    }
+
+    /** Words found in most of the large case's documents: the worst case for postings length */
+    @Benchmark
+    public List<CaseSearchIndex.Hit> largeCaseCommonWords() {
+        return largeIndex.search("red fabric door", 10, CaseSearchIndex.ALL);
+    }
+
+    /** A room number, found in a few dozen documents */
+    @Benchmark
+    public List<CaseSearchIndex.Hit> largeCaseRareWord() {
+        return largeIndex.search("417", 10, CaseSearchIndex.ALL);
+    }
+}
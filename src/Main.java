@@ -1,11 +1,24 @@
 import game.GameController;
+import game.StartupPipeline;
+import gui.GameWindow;
+import gui.StartupSplash;
 
 public class Main {
     public static void main(String[] args) {
-        // Launch the game on the Event Dispatch Thread
+        // Load the driver, database and case in the background while Swing starts
+        StartupPipeline startup = StartupPipeline.start();
+
+        // Build the UI on the Event Dispatch Thread, behind a splash until loading finishes
         javax.swing.SwingUtilities.invokeLater(() -> {
-            GameController controller = new GameController();
-            controller.startGame();
+            StartupSplash splash = new StartupSplash();
+            splash.setVisible(true);
+            GameWindow window = startup.timed("window", GameWindow::new);
+
+            startup.whenReady(() -> {
+                splash.dispose();
+                GameController controller = new GameController(window, startup.getDatabase());
+                controller.startGame();
+            });
         });
     }
 }
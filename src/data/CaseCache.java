@@ -0,0 +1,118 @@
+package data;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * CaseCache - Process-wide cache of loaded CaseDefinitions
+ * Entries are keyed by case id and checked against the current file fingerprint, so an
+ * edited case is reloaded on next use. The least recently used cases are evicted once
+ * more than the configured number are loaded.
+ * Cases load outside the cache lock, so a slow load never holds up other cases; callers
+ * asking for a case that is already loading wait for that load instead of starting another.
+ */
+public class CaseCache {
+    public static final int DEFAULT_MAX_CASES = 16;
+
+    private static final CaseCache SHARED = new CaseCache(DEFAULT_MAX_CASES);
+
+    private final int maxCases;
+    private final Map<String, CaseDefinition> cases;
+    private final Map<String, CompletableFuture<CaseDefinition>> loading = new ConcurrentHashMap<>();
+    private final AtomicLong hits = new AtomicLong();
+    private long loads = 0;
+
+    public CaseCache(int maxCases) {
+        this.maxCases = maxCases;
+        this.cases = new LinkedHashMap<String, CaseDefinition>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CaseDefinition> eldest) {
+                return size() > CaseCache.this.maxCases;
+            }
+        };
+    }
+
+    /**
+     * The cache shared by every GameData in this JVM
+     */
+    public static CaseCache shared() {
+        return SHARED;
+    }
+
+    /**
+     * Returns the cached definition for a case, loading it on first use or after its files change
+     * Concurrent sessions asking for the same case share one load.
+     */
+    public CaseDefinition get(CaseSource source) {
+        CaseDefinition cached;
+        synchronized (this) {
+            cached = cases.get(source.caseId);
+        }
+        // Fingerprinted outside the lock, and only for a cached case: on a miss the pack
+        // check in CaseDefinition.load decides whether the files need reading
+        if (cached != null && cached.getSourceFingerprint() == source.fingerprint()) {
+            hits.incrementAndGet();
+            return cached;
+        }
+
+        CompletableFuture<CaseDefinition> load = new CompletableFuture<>();
+        CompletableFuture<CaseDefinition> inProgress = loading.putIfAbsent(source.caseId, load);
+        if (inProgress != null) {
+            return await(inProgress);
+        }
+
+        try {
+            CaseDefinition definition = CaseDefinition.load(source);
+            synchronized (this) {
+                cases.put(source.caseId, definition);
+                loads++;
+            }
+            load.complete(definition);
+            return definition;
+        } catch (RuntimeException | Error e) {
+            load.completeExceptionally(e);
+            throw e;
+        } finally {
+            // Only after the definition is cached, so no caller misses both
+            loading.remove(source.caseId, load);
+        }
+    }
+
+    private static CaseDefinition await(CompletableFuture<CaseDefinition> load) {
+        try {
+            return load.join();
+        } catch (CompletionException e) {
+            // Rethrow what the loading thread threw
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            if (e.getCause() instanceof Error) {
+                throw (Error) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Drops a case so the next get() reloads it
+     */
+    public synchronized void invalidate(String caseId) {
+        cases.remove(caseId);
+    }
+
+    public synchronized int size() {
+        return cases.size();
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public synchronized long getLoads() {
+        return loads;
+    }
+}
@@ -0,0 +1,243 @@
+package data;
+
+import model.CaseDifficulty;
+import model.Suspect;
+import model.Clue;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * CaseDefinition - The read-only content of one case: story, clues, suspects and culprit
+ * One definition is shared by every session playing the case (see CaseCache), so nothing
+ * here may be changed after loading; per-player progress belongs in GameState.
+ * Clue and suspect ids are their positions in getClues() and getSuspects(). The reveal
+ * rules are compiled into one ClueGate per difficulty when the case is loaded; the text is
+ * indexed for search (CaseSearchIndex) the first time anyone searches the case.
+ * A case with an up-to-date CasePack is built straight from the pack's records, with its
+ * clue phrases already resolved to ids.
+ */
+public class CaseDefinition {
+    private final String caseId;
+    private final String title;
+    private final long sourceFingerprint;
+    private final String crimeStory;
+    private final List<Clue> clues;
+    private final List<Suspect> suspects;
+    private final int[][] prerequisites;
+    private final String culpritName;
+    private final Map<CaseDifficulty, ClueGate> clueGates;
+    private volatile CaseSearchIndex searchIndex;
+
+    private CaseDefinition(CaseSource source, long sourceFingerprint, String crimeStory,
+                           List<Clue> clues, List<Suspect> suspects, int[][] prerequisites) {
+        this.caseId = source.caseId;
+        this.title = source.title;
+        this.sourceFingerprint = sourceFingerprint;
+        this.crimeStory = crimeStory;
+        this.clues = Collections.unmodifiableList(clues);
+        this.suspects = Collections.unmodifiableList(suspects);
+        this.prerequisites = prerequisites;
+
+        String culprit = null;
+        for (Suspect suspect : suspects) {
+            if (suspect.isGuilty()) {
+                culprit = suspect.getName();
+            }
+        }
+        if (culprit == null) {
+            System.err.println("Case " + caseId + " names no guilty party");
+        }
+        this.culpritName = culprit;
+
+        this.clueGates = new EnumMap<>(CaseDifficulty.class);
+        for (CaseDifficulty difficulty : CaseDifficulty.values()) {
+            clueGates.put(difficulty, ClueGate.compile(this.clues, this.suspects, prerequisites, difficulty));
+        }
+    }
+
+    /**
+     * Loads a case from its compiled pack when it is up to date, otherwise from the text files
+     * (and then compiles the pack for the next start)
+     */
+    public static CaseDefinition load(CaseSource source) {
+        CaseDefinition definition = loadFromPack(source);
+        if (definition == null) {
+            definition = loadFromText(source);
+            saveCasePack(source, definition);
+        }
+        return definition;
+    }
+
+    /**
+     * Parses the text files, ignoring any pack, and resolves the REVEALS and Requires phrases
+     * to clues
+     */
+    public static CaseDefinition loadFromText(CaseSource source) {
+        long fingerprint = source.fingerprint();
+        String story = FileLoader.loadCrimeStory(source.storyFile);
+        List<FileLoader.ClueData> clueDataList = FileLoader.loadClues(source.cluesFile);
+        List<FileLoader.SuspectData> suspectDataList = FileLoader.loadSuspects(source.suspectsFile);
+
+        List<Clue> clues = new ArrayList<>();
+        for (FileLoader.ClueData clueData : clueDataList) {
+            clues.add(new Clue(clues.size(), clueData.name, clueData.description, clueData.location));
+        }
+
+        // Wire suspects to the clues their REVEALS rules name
+        ClueAssigner assigner = new ClueAssigner(clues);
+        List<Suspect> suspects = new ArrayList<>();
+        for (FileLoader.SuspectData suspectData : suspectDataList) {
+            Suspect suspect = new Suspect(suspects.size(), suspectData.name, suspectData.role, suspectData.statement);
+            for (Clue clue : assigner.match(suspectData.name, suspectData.reveals)) {
+                suspect.setClue(clue);
+            }
+            suspect.setGuilty(suspectData.guilty);
+            suspects.add(suspect);
+        }
+
+        // Resolve each clue's Requires phrases to clue ids (a clue cannot require itself)
+        int[][] prerequisites = new int[clues.size()][];
+        for (int i = 0; i < clues.size(); i++) {
+            Clue clue = clues.get(i);
+            prerequisites[i] = assigner.match("clue " + clue.getName(), clueDataList.get(i).requires).stream()
+                .mapToInt(Clue::getId)
+                .filter(id -> id != clue.getId())
+                .toArray();
+        }
+        ClueGate.validate(source.caseId, clues, suspects, prerequisites);
+
+        return new CaseDefinition(source, fingerprint, story, clues, suspects, prerequisites);
+    }
+
+    /**
+     * Builds the case straight from its pack records, or returns null if the pack is
+     * missing, out of date or unreadable
+     */
+    private static CaseDefinition loadFromPack(CaseSource source) {
+        Path packPath = Paths.get(source.packFile);
+        if (!Files.exists(packPath)) {
+            return null;
+        }
+
+        String story;
+        List<Clue> clues;
+        List<Suspect> suspects;
+        int[][] prerequisites;
+        CasePack pack;
+        try {
+            pack = CasePack.open(packPath);
+            if (!pack.isCompiledFrom(source.storyFile, source.cluesFile, source.suspectsFile)) {
+                return null;
+            }
+
+            story = pack.getCrimeStory();
+            int clueCount = pack.getClueCount();
+            clues = new ArrayList<>(clueCount);
+            prerequisites = new int[clueCount][];
+            for (int i = 0; i < clueCount; i++) {
+                clues.add(new Clue(i, pack.getClueName(i), pack.getClueDescription(i), pack.getClueLocation(i)));
+                prerequisites[i] = pack.getCluePrerequisites(i);
+            }
+            int suspectCount = pack.getSuspectCount();
+            suspects = new ArrayList<>(suspectCount);
+            for (int i = 0; i < suspectCount; i++) {
+                Suspect suspect = new Suspect(i, pack.getSuspectName(i), pack.getSuspectRole(i),
+                                              pack.getSuspectStatement(i));
+                for (int clueId : pack.getSuspectRevealedClues(i)) {
+                    suspect.setClue(clues.get(clueId));
+                }
+                suspect.setGuilty(pack.isSuspectGuilty(i));
+                suspects.add(suspect);
+            }
+        } catch (IOException | RuntimeException e) {
+            // A corrupt pack is rebuilt from the text files
+            System.err.println("Ignoring unreadable case pack: " + e.getMessage());
+            return null;
+        }
+        return new CaseDefinition(source, pack.getSourceFingerprint(), story, clues, suspects, prerequisites);
+    }
+
+    /**
+     * Caches the loaded case as a case pack for the next start
+     */
+    private static void saveCasePack(CaseSource source, CaseDefinition definition) {
+        if (!Files.exists(Paths.get(source.storyFile))) {
+            return;
+        }
+
+        try {
+            CasePackCompiler.write(definition, source, Paths.get(source.packFile));
+        } catch (IOException e) {
+            System.err.println("Could not write case pack: " + e.getMessage());
+        }
+    }
+
+    public String getCaseId() {
+        return caseId;
+    }
+
+    /**
+     * The case's title, also its name in the database
+     */
+    public String getTitle() {
+        return title;
+    }
+
+    public long getSourceFingerprint() {
+        return sourceFingerprint;
+    }
+
+    public String getCrimeStory() {
+        return crimeStory;
+    }
+
+    public List<Clue> getClues() {
+        return clues;
+    }
+
+    public List<Suspect> getSuspects() {
+        return suspects;
+    }
+
+    public String getCulpritName() {
+        return culpritName;
+    }
+
+    /**
+     * For each clue id, the ids of the clues its Requires line names
+     */
+    int[][] getPrerequisites() {
+        return prerequisites;
+    }
+
+    /**
+     * The compiled reveal rules for a difficulty
+     */
+    public ClueGate getClueGate(CaseDifficulty difficulty) {
+        return clueGates.get(difficulty);
+    }
+
+    /**
+     * Full-text index over the story, clues and statements, built on first use
+     */
+    public CaseSearchIndex getSearchIndex() {
+        CaseSearchIndex index = searchIndex;
+        if (index == null) {
+            synchronized (this) {
+                index = searchIndex;
+                if (index == null) {
+                    index = CaseSearchIndex.build(crimeStory, clues, suspects);
+                    searchIndex = index;
+                }
+            }
+        }
+        return index;
+    }
+}
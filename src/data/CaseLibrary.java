@@ -0,0 +1,469 @@
+package data;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+
+/**
+ * CaseLibrary - The cases available on disk, known by their headers only
+ * The original case lives directly in data/ and is described by data/case.properties;
+ * every other case is a directory under data/cases/ holding its own case.properties next
+ * to its story, clues and suspects files. Opening the library reads the first two lines of
+ * the header index data/cases.index (the case count and the default case), whatever the
+ * number of cases; the full list is read when first asked for. The index is rebuilt from the
+ * case.properties files when a case directory is added, removed or renamed. Each entry also
+ * keeps the size and modification time of its case.properties, checked only when that case
+ * is looked up (find(), current() and the default case at open), so an edited header is
+ * re-read on its own and the index rewritten. Stories, clues and suspects are only read
+ * when a case is first played, through CaseCache.
+ *
+ * case.properties keys: id (default: the directory name), title (default: the id), and
+ * story, clues, suspects (default: story.txt, clues.txt, suspects.txt).
+ */
+public class CaseLibrary {
+    public static final String DATA_DIR = "data";
+    public static final String HEADER_FILE = "case.properties";
+    public static final String CASES_DIR = "cases";
+    public static final String INDEX_FILE = "cases.index";
+
+    static final String INDEX_MAGIC = "MYSTERY CASE INDEX 2";
+    private static final int INDEX_FIELDS = 9;
+
+    private static CaseLibrary shared;
+
+    private final Path dataDir;
+    private final Path indexFile;
+    private final long fingerprint;
+    private final int size;
+    private final CaseSource defaultCase;
+    // Filled in by the first getCases() or find() unless the library was just scanned
+    private List<IndexEntry> entries;
+    private Map<String, IndexEntry> cases;
+    private List<CaseSource> caseList;
+
+    private CaseLibrary(Path dataDir, Path indexFile, long fingerprint, int size, CaseSource defaultCase) {
+        this.dataDir = dataDir;
+        this.indexFile = indexFile;
+        this.fingerprint = fingerprint;
+        this.size = size;
+        this.defaultCase = defaultCase;
+    }
+
+    private CaseLibrary(Path dataDir, Path indexFile, long fingerprint, List<IndexEntry> entries) {
+        this(dataDir, indexFile, fingerprint, entries.size(), entries.isEmpty() ? null : entries.get(0).source);
+        setCases(entries);
+    }
+
+    /**
+     * The library of the data/ directory, opened on first use
+     */
+    public static synchronized CaseLibrary shared() {
+        if (shared == null) {
+            shared = open(Paths.get(DATA_DIR));
+        }
+        return shared;
+    }
+
+    /**
+     * Opens the library under dataDir, rebuilding its header index if it is missing or out
+     * of date. With an up-to-date index only its first two lines are read here (all of it if
+     * the default case's header was edited).
+     */
+    public static CaseLibrary open(Path dataDir) {
+        long fingerprint = fingerprint(dataDir);
+        Path indexFile = dataDir.resolve(INDEX_FILE);
+
+        CaseLibrary library = openIndex(dataDir, indexFile, fingerprint);
+        if (library == null) {
+            List<IndexEntry> entries = scan(dataDir);
+            writeIndex(indexFile, fingerprint, entries);
+            library = new CaseLibrary(dataDir, indexFile, fingerprint, entries);
+        }
+        return library;
+    }
+
+    /**
+     * Changes when an entry of data/cases/ is added, removed or renamed (which updates the
+     * directory's modification time) or data/case.properties appears or goes away; edits to
+     * the headers themselves are caught per entry (see IndexEntry.isCurrent)
+     */
+    static long fingerprint(Path dataDir) {
+        File cases = dataDir.resolve(CASES_DIR).toFile();
+        long hash = 1125899906842597L;
+        hash = 31 * hash + (Files.exists(dataDir.resolve(HEADER_FILE)) ? 1 : 0);
+        hash = 31 * hash + cases.length();
+        hash = 31 * hash + cases.lastModified();
+        return hash;
+    }
+
+    // ==================== LOOKUP ====================
+
+    /**
+     * Every case as indexed: the one in data/ first, then data/cases/ by id
+     * The first call reads the whole header index without checking the headers; use
+     * current() on the case picked from the list.
+     */
+    public synchronized List<CaseSource> getCases() {
+        if (caseList == null) {
+            List<IndexEntry> read = readIndex(indexFile, fingerprint);
+            if (read == null) {
+                // The index was replaced or removed since the library was opened
+                read = scan(dataDir);
+                writeIndex(indexFile, fingerprint, read);
+            }
+            setCases(read);
+        }
+        return caseList;
+    }
+
+    /**
+     * The case with this id, re-reading its header if it was edited since it was indexed;
+     * null if there is no such case (any more)
+     */
+    public synchronized CaseSource find(String caseId) {
+        getCases();
+        IndexEntry entry = cases.get(caseId);
+        CaseSource source = entry != null ? current(entry) : null;
+        return source != null && source.caseId.equals(caseId) ? source : null;
+    }
+
+    /**
+     * The up-to-date version of a case from getCases(), re-reading its header if it was
+     * edited since it was indexed (its id or title may have changed); null if it is gone
+     */
+    public synchronized CaseSource current(CaseSource source) {
+        getCases();
+        IndexEntry entry = cases.get(source.caseId);
+        return entry != null ? current(entry) : null;
+    }
+
+    /**
+     * The case played when none is chosen: the first one listed
+     */
+    public synchronized CaseSource getDefaultCase() {
+        CaseSource first = caseList == null ? defaultCase : caseList.isEmpty() ? null : caseList.get(0);
+        if (first == null) {
+            throw new IllegalStateException("No cases found in " + dataDir.toAbsolutePath());
+        }
+        return first;
+    }
+
+    public synchronized int size() {
+        return caseList != null ? caseList.size() : size;
+    }
+
+    public Path getDataDir() {
+        return dataDir;
+    }
+
+    private CaseSource current(IndexEntry entry) {
+        if (entry.isCurrent()) {
+            return entry.source;
+        }
+        IndexEntry fresh = reread(dataDir, entries, entries.indexOf(entry));
+        setCases(entries);
+        writeIndex(indexFile, fingerprint, entries);
+        return fresh != null ? fresh.source : null;
+    }
+
+    private void setCases(List<IndexEntry> indexed) {
+        entries = indexed;
+        cases = new LinkedHashMap<>();
+        List<CaseSource> sources = new ArrayList<>();
+        for (IndexEntry entry : indexed) {
+            cases.put(entry.source.caseId, entry);
+            sources.add(entry.source);
+        }
+        caseList = Collections.unmodifiableList(sources);
+    }
+
+    // ==================== INDEX ====================
+
+    /**
+     * Reads the index header line (fingerprint and case count) and the default case, or
+     * returns null if the index is missing, stale or unreadable. If the default case's
+     * header was edited, the whole index is read and that one case re-read.
+     */
+    private static CaseLibrary openIndex(Path dataDir, Path indexFile, long fingerprint) {
+        if (!Files.exists(indexFile)) {
+            return null;
+        }
+
+        String expected = INDEX_MAGIC + " " + fingerprint + " ";
+        IndexEntry defaultCase;
+        int count;
+        try (BufferedReader reader = Files.newBufferedReader(indexFile, StandardCharsets.UTF_8)) {
+            String header = reader.readLine();
+            if (header == null || !header.startsWith(expected)) {
+                return null;
+            }
+
+            count = Integer.parseInt(header.substring(expected.length()));
+            defaultCase = count > 0 ? parseEntry(reader.readLine()) : null;
+            if (count > 0 && defaultCase == null) {
+                return null;
+            }
+        } catch (IOException | NumberFormatException e) {
+            System.err.println("Ignoring unreadable case index: " + e.getMessage());
+            return null;
+        }
+
+        if (defaultCase == null || defaultCase.isCurrent()) {
+            return new CaseLibrary(dataDir, indexFile, fingerprint, count,
+                                   defaultCase != null ? defaultCase.source : null);
+        }
+        List<IndexEntry> entries = readIndex(indexFile, fingerprint);
+        if (entries == null || entries.isEmpty()) {
+            return null;
+        }
+        reread(dataDir, entries, 0);
+        writeIndex(indexFile, fingerprint, entries);
+        return new CaseLibrary(dataDir, indexFile, fingerprint, entries);
+    }
+
+    /**
+     * Reads every entry of the header index, without checking the headers, or returns null
+     * if it is missing, stale or unreadable
+     */
+    private static List<IndexEntry> readIndex(Path indexFile, long fingerprint) {
+        if (!Files.exists(indexFile)) {
+            return null;
+        }
+
+        List<IndexEntry> entries = new ArrayList<>();
+        try (BufferedReader reader = Files.newBufferedReader(indexFile, StandardCharsets.UTF_8)) {
+            String header = reader.readLine();
+            if (header == null || !header.startsWith(INDEX_MAGIC + " " + fingerprint + " ")) {
+                return null;
+            }
+
+            String line;
+            while ((line = reader.readLine()) != null) {
+                IndexEntry entry = parseEntry(line);
+                if (entry == null) {
+                    return null;
+                }
+                entries.add(entry);
+            }
+        } catch (IOException e) {
+            System.err.println("Ignoring unreadable case index: " + e.getMessage());
+            return null;
+        }
+        return entries;
+    }
+
+    private static IndexEntry parseEntry(String line) {
+        String[] fields = line != null ? line.split("\t", -1) : new String[0];
+        if (fields.length != INDEX_FIELDS) {
+            return null;
+        }
+        try {
+            return new IndexEntry(new CaseSource(fields[0], fields[1], fields[2], fields[3], fields[4], fields[5]),
+                                  fields[6], Long.parseLong(fields[7]), Long.parseLong(fields[8]));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Saves the header index for the next start; the library still works if this fails
+     */
+    private static void writeIndex(Path indexFile, long fingerprint, List<IndexEntry> entries) {
+        Path directory = indexFile.toAbsolutePath().getParent();
+        if (!Files.isDirectory(directory)) {
+            return;
+        }
+
+        try {
+            // Write to a temporary file first so a concurrent start never reads half an index
+            Path temp = Files.createTempFile(directory, "cases", ".index.tmp");
+            try {
+                try (BufferedWriter writer = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+                    writer.write(INDEX_MAGIC + " " + fingerprint + " " + entries.size());
+                    writer.newLine();
+                    for (IndexEntry entry : entries) {
+                        CaseSource source = entry.source;
+                        writer.write(String.join("\t", source.caseId, source.title, source.storyFile,
+                                                 source.cluesFile, source.suspectsFile, source.packFile,
+                                                 entry.headerFile, Long.toString(entry.headerSize),
+                                                 Long.toString(entry.headerModified)));
+                        writer.newLine();
+                    }
+                }
+                Files.move(temp, indexFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } finally {
+                Files.deleteIfExists(temp);
+            }
+        } catch (IOException e) {
+            System.err.println("Could not write case index: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Reads every case header under dataDir
+     */
+    private static List<IndexEntry> scan(Path dataDir) {
+        List<IndexEntry> entries = new ArrayList<>();
+
+        // The original case keeps its files (and its pack name) directly in data/
+        IndexEntry original = readHeader(dataDir, "case", null);
+        if (original != null) {
+            entries.add(original);
+        }
+
+        Path casesDir = dataDir.resolve(CASES_DIR);
+        if (Files.isDirectory(casesDir)) {
+            List<IndexEntry> found = new ArrayList<>();
+            try (DirectoryStream<Path> directories = Files.newDirectoryStream(casesDir, Files::isDirectory)) {
+                for (Path caseDir : directories) {
+                    IndexEntry entry = readHeader(caseDir, caseDir.getFileName().toString(), "case.pack");
+                    if (entry != null) {
+                        found.add(entry);
+                    }
+                }
+            } catch (IOException e) {
+                System.err.println("Error listing cases: " + e.getMessage());
+            }
+            found.sort(Comparator.comparing(entry -> entry.source.caseId));
+            entries.addAll(found);
+        }
+
+        // Ids must be unique; the first case listed keeps its id
+        Set<String> ids = new HashSet<>();
+        entries.removeIf(entry -> {
+            if (ids.add(entry.source.caseId)) return false;
+            System.err.println("Ignoring case " + caseDirOf(entry.source) + ": id " + entry.source.caseId
+                               + " is already used");
+            return true;
+        });
+        return entries;
+    }
+
+    /**
+     * Re-reads the header of entries[index] after it was edited, in place. The case is
+     * dropped if its header is gone or now uses the id of another case. Returns the fresh
+     * entry, or null if it was dropped.
+     */
+    private static IndexEntry reread(Path dataDir, List<IndexEntry> entries, int index) {
+        IndexEntry stale = entries.get(index);
+        Path caseDir = Paths.get(stale.headerFile).getParent();
+        IndexEntry fresh = isOriginal(dataDir, stale)
+            ? readHeader(caseDir, "case", null)
+            : readHeader(caseDir, caseDir.getFileName().toString(), "case.pack");
+
+        boolean renamed = fresh != null && !fresh.source.caseId.equals(stale.source.caseId);
+        if (renamed) {
+            for (IndexEntry other : entries) {
+                if (other != stale && other.source.caseId.equals(fresh.source.caseId)) {
+                    System.err.println("Ignoring case " + caseDir + ": id " + fresh.source.caseId
+                                       + " is already used");
+                    fresh = null;
+                    break;
+                }
+            }
+        }
+
+        if (fresh == null) {
+            entries.remove(index);
+            return null;
+        }
+        entries.set(index, fresh);
+        if (renamed) {
+            // Keep data/cases/ sorted by id after the original case
+            int first = isOriginal(dataDir, entries.get(0)) ? 1 : 0;
+            entries.subList(first, entries.size()).sort(Comparator.comparing(entry -> entry.source.caseId));
+        }
+        return fresh;
+    }
+
+    private static boolean isOriginal(Path dataDir, IndexEntry entry) {
+        return Paths.get(entry.headerFile).equals(dataDir.resolve(HEADER_FILE));
+    }
+
+    /**
+     * Reads caseDir/case.properties, or returns null if the directory has none
+     * @param packName pack file name in caseDir, or null for "<id>.pack"
+     */
+    private static IndexEntry readHeader(Path caseDir, String defaultId, String packName) {
+        Path headerFile = caseDir.resolve(HEADER_FILE);
+        if (!Files.exists(headerFile)) {
+            return null;
+        }
+
+        // Taken before reading, so an edit made while reading shows as a change next time
+        File file = headerFile.toFile();
+        long headerSize = file.length();
+        long headerModified = file.lastModified();
+
+        Properties header = new Properties();
+        try (Reader reader = Files.newBufferedReader(headerFile, StandardCharsets.UTF_8)) {
+            header.load(reader);
+        } catch (IOException e) {
+            System.err.println("Error reading case header " + headerFile + ": " + e.getMessage());
+            return null;
+        }
+
+        // Tabs and line breaks would break the index format
+        String id = clean(header.getProperty("id", defaultId));
+        String title = clean(header.getProperty("title", id));
+        CaseSource source = new CaseSource(id, title,
+            caseDir.resolve(header.getProperty("story", "story.txt").trim()).toString(),
+            caseDir.resolve(header.getProperty("clues", "clues.txt").trim()).toString(),
+            caseDir.resolve(header.getProperty("suspects", "suspects.txt").trim()).toString(),
+            caseDir.resolve(packName != null ? packName : id + ".pack").toString());
+        return new IndexEntry(source, headerFile.toString(), headerSize, headerModified);
+    }
+
+    private static String clean(String value) {
+        return value.replaceAll("\\s+", " ").trim();
+    }
+
+    private static String caseDirOf(CaseSource source) {
+        Path parent = Paths.get(source.storyFile).getParent();
+        return parent != null ? parent.toString() : source.caseId;
+    }
+
+    // ==================== INNER CLASS ====================
+
+    /**
+     * One line of the header index: a case and the state of the case.properties it came from
+     */
+    private static class IndexEntry {
+        final CaseSource source;
+        final String headerFile;
+        final long headerSize;
+        final long headerModified;
+
+        IndexEntry(CaseSource source, String headerFile, long headerSize, long headerModified) {
+            this.source = source;
+            this.headerFile = headerFile;
+            this.headerSize = headerSize;
+            this.headerModified = headerModified;
+        }
+
+        /**
+         * False once the case.properties has been edited (or removed) since it was indexed
+         */
+        boolean isCurrent() {
+            File file = new File(headerFile);
+            return file.length() == headerSize && file.lastModified() == headerModified;
+        }
+    }
+}
@@ -0,0 +1,377 @@
+package data;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.CRC32;
+
+/**
+ * CasePack - Read-only view over a compiled case file (see CasePackCompiler)
+ * The file is validated when opened; small packs are read into memory and larger ones
+ * memory-mapped, and strings are decoded only when asked for. The clues each suspect reveals and the clues each clue
+ * requires are stored as resolved clue ids, so a case loads without matching any phrases.
+ *
+ * Layout (big-endian):
+ *   int magic, int version, long sourceFingerprint,
+ *   3 x (long size, long modified, long checksum)  - story, clues and suspects files
+ *   int storyString, int clueCount, int suspectCount, int stringCount, int idCount,
+ *   stringCount x (int offset, int length)         - string table
+ *   clueCount x (int name, int description, int location, int firstRequired, int requiredCount)
+ *   suspectCount x (int name, int role, int statement, int guilty, int firstRevealed, int revealedCount)
+ *   idCount x int                                  - clue ids, referenced by the records
+ *   UTF-8 string bytes
+ */
+public class CasePack {
+    public static final int MAGIC = 0x4D43504B; // "MCPK"
+    // Since version 5 revealed clue ids are kept in REVEALS order rather than case file order
+    public static final int VERSION = 5;
+
+    static final int SOURCE_FILES = 3;
+    static final int HEADER_SIZE = 16 + SOURCE_FILES * 24 + 20;
+    static final int CLUE_FIELDS = 5;
+    static final int SUSPECT_FIELDS = 6;
+    // Below this a plain read is cheaper than setting up (and later unmapping) a mapping
+    static final long MAP_THRESHOLD = 64 * 1024;
+
+    // Content checksums by path, reused while a file keeps the same size and modification time
+    private static final Map<String, FileChecksum> CHECKSUMS = new ConcurrentHashMap<>();
+
+    private final ByteBuffer buffer;
+    private final long sourceFingerprint;
+    private final int storyString;
+    private final int clueCount;
+    private final int suspectCount;
+    private final int stringCount;
+    private final int idCount;
+    private final int clueTable;
+    private final int suspectTable;
+    private final int idTable;
+    private final int stringData;
+
+    private CasePack(ByteBuffer buffer) throws IOException {
+        this.buffer = buffer;
+        if (buffer.capacity() < HEADER_SIZE || buffer.getInt(0) != MAGIC) {
+            throw new IOException("Not a case pack");
+        }
+        if (buffer.getInt(4) != VERSION) {
+            throw new IOException("Unsupported case pack version " + buffer.getInt(4));
+        }
+
+        this.sourceFingerprint = buffer.getLong(8);
+        int counts = 16 + SOURCE_FILES * 24;
+        this.storyString = buffer.getInt(counts);
+        this.clueCount = buffer.getInt(counts + 4);
+        this.suspectCount = buffer.getInt(counts + 8);
+        this.stringCount = buffer.getInt(counts + 12);
+        this.idCount = buffer.getInt(counts + 16);
+        if (clueCount < 0 || suspectCount < 0 || stringCount < 0 || idCount < 0) {
+            throw new IOException("Corrupt case pack: negative record count");
+        }
+
+        // Computed in longs so huge counts in a corrupt header cannot overflow past the checks
+        long clueTableStart = HEADER_SIZE + stringCount * 8L;
+        long suspectTableStart = clueTableStart + clueCount * (CLUE_FIELDS * 4L);
+        long idTableStart = suspectTableStart + suspectCount * (SUSPECT_FIELDS * 4L);
+        long stringDataStart = idTableStart + idCount * 4L;
+        if (stringDataStart > buffer.capacity()) {
+            throw new IOException("Truncated case pack");
+        }
+        this.clueTable = (int) clueTableStart;
+        this.suspectTable = (int) suspectTableStart;
+        this.idTable = (int) idTableStart;
+        this.stringData = (int) stringDataStart;
+        validate();
+    }
+
+    /**
+     * Checks every string table entry, every string reference and every clue id in the
+     * records against the file, so the getters cannot read outside it
+     */
+    private void validate() throws IOException {
+        long stringBytes = buffer.capacity() - stringData;
+        for (int i = 0; i < stringCount; i++) {
+            long offset = buffer.getInt(HEADER_SIZE + i * 8);
+            long length = buffer.getInt(HEADER_SIZE + i * 8 + 4);
+            if (offset < 0 || length < 0 || offset + length > stringBytes) {
+                throw new IOException("Corrupt case pack: string " + i + " lies outside the file");
+            }
+        }
+        for (int i = 0; i < idCount; i++) {
+            int clueId = buffer.getInt(idTable + i * 4);
+            if (clueId < 0 || clueId >= clueCount) {
+                throw new IOException("Corrupt case pack: clue id " + clueId + " out of range");
+            }
+        }
+
+        checkString(storyString, "story");
+        for (int i = 0; i < clueCount; i++) {
+            for (int field = 0; field < 3; field++) {
+                checkString(clueField(i, field), "clue " + i);
+            }
+            checkIds(clueField(i, 3), clueField(i, 4), "clue " + i);
+        }
+        for (int i = 0; i < suspectCount; i++) {
+            for (int field = 0; field < 3; field++) {
+                checkString(suspectField(i, field), "suspect " + i);
+            }
+            checkIds(suspectField(i, 4), suspectField(i, 5), "suspect " + i);
+        }
+    }
+
+    private void checkString(int stringIndex, String owner) throws IOException {
+        if (stringIndex < 0 || stringIndex >= stringCount) {
+            throw new IOException("Corrupt case pack: " + owner + " refers to missing string " + stringIndex);
+        }
+    }
+
+    private void checkIds(int first, int count, String owner) throws IOException {
+        if (first < 0 || count < 0 || (long) first + count > idCount) {
+            throw new IOException("Corrupt case pack: " + owner + " refers to missing clue ids");
+        }
+    }
+
+    /**
+     * Opens a compiled case pack
+     * @throws IOException if the file is not a case pack or is truncated or corrupt
+     */
+    public static CasePack open(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE) {
+                throw new IOException("Case pack too large: " + size + " bytes");
+            }
+            if (size >= MAP_THRESHOLD) {
+                // The mapping stays valid after the channel is closed
+                return new CasePack(channel.map(FileChannel.MapMode.READ_ONLY, 0, size));
+            }
+
+            ByteBuffer buffer = ByteBuffer.allocate((int) size);
+            while (buffer.hasRemaining() && channel.read(buffer) >= 0) {
+                // keep reading until the buffer is full
+            }
+            if (buffer.hasRemaining()) {
+                throw new IOException("Truncated case pack");
+            }
+            return new CasePack(buffer);
+        }
+    }
+
+    /**
+     * Identifies the text files a pack was compiled from by a checksum of their contents, so
+     * copying, checking out or redeploying unchanged files keeps the pack (and the saved
+     * sessions of the case) valid. A missing file hashes like an empty one, so a pack only
+     * matches while the same files are missing as when it was compiled.
+     */
+    public static long fingerprint(String... sourcePaths) {
+        long hash = 1125899906842597L;
+        for (String sourcePath : sourcePaths) {
+            hash = 31 * hash + checksum(sourcePath);
+        }
+        return hash;
+    }
+
+    /**
+     * CRC32 and length of a file's contents, 0 if it is missing or unreadable. Files are
+     * only read again when their size or modification time changes.
+     */
+    static long checksum(String path) {
+        return checksumOf(path).value;
+    }
+
+    /**
+     * The checksum of a file with the size and modification time it was computed at
+     * (all 0 if the file is missing or unreadable)
+     */
+    static FileChecksum checksumOf(String path) {
+        BasicFileAttributes attributes = attributes(path);
+        if (attributes == null) {
+            return FileChecksum.MISSING;
+        }
+        long size = attributes.size();
+        long modified = attributes.lastModifiedTime().toMillis();
+
+        FileChecksum cached = CHECKSUMS.get(path);
+        if (cached != null && cached.size == size && cached.modified == modified) {
+            return cached;
+        }
+
+        CRC32 crc = new CRC32();
+        long length = 0;
+        try (InputStream in = Files.newInputStream(Paths.get(path))) {
+            byte[] chunk = new byte[8192];
+            int read;
+            while ((read = in.read(chunk)) > 0) {
+                crc.update(chunk, 0, read);
+                length += read;
+            }
+        } catch (IOException e) {
+            System.err.println("Could not read " + path + ": " + e.getMessage());
+            return FileChecksum.MISSING;
+        }
+
+        FileChecksum computed = new FileChecksum(size, modified, (length << 32) ^ crc.getValue());
+        CHECKSUMS.put(path, computed);
+        return computed;
+    }
+
+    /**
+     * Whether the pack was compiled from the files as they are now. The checksums stored in
+     * the pack are taken as the files' own while their size and modification time still
+     * match, so an unchanged case is checked without reading its text files; a file that
+     * was touched is read and compared by content.
+     */
+    public boolean isCompiledFrom(String storyPath, String cluesPath, String suspectsPath) {
+        String[] paths = { storyPath, cluesPath, suspectsPath };
+        long hash = 1125899906842597L;
+        for (int i = 0; i < SOURCE_FILES; i++) {
+            int stamp = 16 + i * 24;
+            long size = buffer.getLong(stamp);
+            long modified = buffer.getLong(stamp + 8);
+            long checksum;
+            BasicFileAttributes attributes = attributes(paths[i]);
+            if (attributes != null && attributes.size() == size
+                    && attributes.lastModifiedTime().toMillis() == modified) {
+                checksum = buffer.getLong(stamp + 16);
+                // Later fingerprint() calls (CaseCache checks) reuse it too
+                CHECKSUMS.put(paths[i], new FileChecksum(size, modified, checksum));
+            } else {
+                checksum = checksum(paths[i]);
+            }
+            hash = 31 * hash + checksum;
+        }
+        return hash == sourceFingerprint;
+    }
+
+    /**
+     * A file's size and modification time (one system call), or null if it is missing
+     */
+    private static BasicFileAttributes attributes(String path) {
+        try {
+            return Files.readAttributes(Paths.get(path), BasicFileAttributes.class);
+        } catch (IOException | InvalidPathException e) {
+            return null;
+        }
+    }
+
+    public long getSourceFingerprint() {
+        return sourceFingerprint;
+    }
+
+    public String getCrimeStory() {
+        return getString(storyString);
+    }
+
+    public int getClueCount() {
+        return clueCount;
+    }
+
+    public String getClueName(int index) {
+        return getString(clueField(index, 0));
+    }
+
+    public String getClueDescription(int index) {
+        return getString(clueField(index, 1));
+    }
+
+    public String getClueLocation(int index) {
+        return getString(clueField(index, 2));
+    }
+
+    /**
+     * Ids of the clues this clue's Requires line names
+     */
+    public int[] getCluePrerequisites(int index) {
+        return getIds(clueField(index, 3), clueField(index, 4));
+    }
+
+    public int getSuspectCount() {
+        return suspectCount;
+    }
+
+    public String getSuspectName(int index) {
+        return getString(suspectField(index, 0));
+    }
+
+    public String getSuspectRole(int index) {
+        return getString(suspectField(index, 1));
+    }
+
+    public String getSuspectStatement(int index) {
+        return getString(suspectField(index, 2));
+    }
+
+    public boolean isSuspectGuilty(int index) {
+        return suspectField(index, 3) != 0;
+    }
+
+    /**
+     * Ids of the clues the suspect's REVEALS lines name, in the order they are revealed
+     */
+    public int[] getSuspectRevealedClues(int index) {
+        return getIds(suspectField(index, 4), suspectField(index, 5));
+    }
+
+    // ==================== RAW ACCESS ====================
+
+    private int clueField(int index, int field) {
+        checkIndex(index, clueCount);
+        return buffer.getInt(clueTable + (index * CLUE_FIELDS + field) * 4);
+    }
+
+    private int suspectField(int index, int field) {
+        checkIndex(index, suspectCount);
+        return buffer.getInt(suspectTable + (index * SUSPECT_FIELDS + field) * 4);
+    }
+
+    private int[] getIds(int first, int count) {
+        int[] ids = new int[count];
+        for (int i = 0; i < count; i++) {
+            ids[i] = buffer.getInt(idTable + (first + i) * 4);
+        }
+        return ids;
+    }
+
+    private String getString(int stringIndex) {
+        checkIndex(stringIndex, stringCount);
+        int offset = buffer.getInt(HEADER_SIZE + stringIndex * 8);
+        int length = buffer.getInt(HEADER_SIZE + stringIndex * 8 + 4);
+
+        // A bulk copy and String's own decoder; far cheaper than a CharsetDecoder per string
+        byte[] utf8 = new byte[length];
+        buffer.get(stringData + offset, utf8);
+        return new String(utf8, StandardCharsets.UTF_8);
+    }
+
+    private static void checkIndex(int index, int size) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of range 0.." + (size - 1));
+        }
+    }
+
+    /**
+     * A file checksum and the file size and modification time it was computed at
+     */
+    static class FileChecksum {
+        static final FileChecksum MISSING = new FileChecksum(0, 0, 0);
+
+        final long size;
+        final long modified;
+        final long value;
+
+        FileChecksum(long size, long modified, long value) {
+            this.size = size;
+            this.modified = modified;
+            this.value = value;
+        }
+    }
+}
@@ -0,0 +1,162 @@
+package data;
+
+import model.Clue;
+import model.Suspect;
+import java.io.IOException;
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * CasePackCompiler - Compiles a case's text files into the binary CasePack format
+ * Identical strings are stored once in the string table. The clue phrases are resolved
+ * here, so the pack holds clue ids instead of REVEALS and Requires text.
+ *
+ * Usage: java data.CasePackCompiler [dataDir]   (compiles every case in the library)
+ */
+public class CasePackCompiler {
+
+    private final List<String> strings = new ArrayList<>();
+    private final Map<String, Integer> stringIndex = new HashMap<>();
+    private final List<Integer> ids = new ArrayList<>();
+
+    /**
+     * Parses a case's text files and writes its pack to outputPath
+     */
+    public static void compile(CaseSource source, Path outputPath) throws IOException {
+        write(CaseDefinition.loadFromText(source), source, outputPath);
+    }
+
+    /**
+     * Writes an already loaded case as a pack, stamped with the size, modification time and
+     * checksum of each of its text files
+     */
+    public static void write(CaseDefinition definition, CaseSource source, Path outputPath) throws IOException {
+        CasePack.FileChecksum[] sources = {
+            CasePack.checksumOf(source.storyFile),
+            CasePack.checksumOf(source.cluesFile),
+            CasePack.checksumOf(source.suspectsFile)
+        };
+        byte[] pack = new CasePackCompiler().build(definition, sources);
+
+        // Write to a temporary file first so readers never map a half-written pack
+        Path directory = outputPath.toAbsolutePath().getParent();
+        Path temp = Files.createTempFile(directory, "case", ".pack.tmp");
+        try {
+            Files.write(temp, pack);
+            Files.move(temp, outputPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    byte[] build(CaseDefinition definition, CasePack.FileChecksum[] sources) {
+        List<Clue> clues = definition.getClues();
+        List<Suspect> suspects = definition.getSuspects();
+        int[][] prerequisites = definition.getPrerequisites();
+
+        int storyString = intern(definition.getCrimeStory());
+        int[] clueFields = new int[clues.size() * CasePack.CLUE_FIELDS];
+        for (int i = 0; i < clues.size(); i++) {
+            Clue clue = clues.get(i);
+            int field = i * CasePack.CLUE_FIELDS;
+            clueFields[field] = intern(clue.getName());
+            clueFields[field + 1] = intern(clue.getDescription());
+            clueFields[field + 2] = intern(clue.getLocation());
+            clueFields[field + 3] = ids.size();
+            clueFields[field + 4] = prerequisites[i].length;
+            for (int required : prerequisites[i]) {
+                ids.add(required);
+            }
+        }
+        int[] suspectFields = new int[suspects.size() * CasePack.SUSPECT_FIELDS];
+        for (int i = 0; i < suspects.size(); i++) {
+            Suspect suspect = suspects.get(i);
+            int field = i * CasePack.SUSPECT_FIELDS;
+            suspectFields[field] = intern(suspect.getName());
+            suspectFields[field + 1] = intern(suspect.getRole());
+            suspectFields[field + 2] = intern(suspect.getStatement());
+            suspectFields[field + 3] = suspect.isGuilty() ? 1 : 0;
+            suspectFields[field + 4] = ids.size();
+            suspectFields[field + 5] = suspect.getClues().size();
+            for (Clue clue : suspect.getClues()) {
+                ids.add(clue.getId());
+            }
+        }
+
+        // Lay out the string data and remember where each string starts
+        ByteArrayOutputStream stringData = new ByteArrayOutputStream();
+        int[] offsets = new int[strings.size()];
+        int[] lengths = new int[strings.size()];
+        for (int i = 0; i < strings.size(); i++) {
+            byte[] utf8 = strings.get(i).getBytes(StandardCharsets.UTF_8);
+            offsets[i] = stringData.size();
+            lengths[i] = utf8.length;
+            stringData.write(utf8, 0, utf8.length);
+        }
+
+        int size = CasePack.HEADER_SIZE + strings.size() * 8 +
+                   (clueFields.length + suspectFields.length + ids.size()) * 4 + stringData.size();
+        ByteBuffer out = ByteBuffer.allocate(size);
+        out.putInt(CasePack.MAGIC);
+        out.putInt(CasePack.VERSION);
+        out.putLong(definition.getSourceFingerprint());
+        for (CasePack.FileChecksum source : sources) {
+            out.putLong(source.size);
+            out.putLong(source.modified);
+            out.putLong(source.value);
+        }
+        out.putInt(storyString);
+        out.putInt(clues.size());
+        out.putInt(suspects.size());
+        out.putInt(strings.size());
+        out.putInt(ids.size());
+        for (int i = 0; i < strings.size(); i++) {
+            out.putInt(offsets[i]);
+            out.putInt(lengths[i]);
+        }
+        for (int field : clueFields) {
+            out.putInt(field);
+        }
+        for (int field : suspectFields) {
+            out.putInt(field);
+        }
+        for (int id : ids) {
+            out.putInt(id);
+        }
+        out.put(stringData.toByteArray());
+        return out.array();
+    }
+
+    private int intern(String value) {
+        String text = value != null ? value : "";
+        Integer index = stringIndex.get(text);
+        if (index == null) {
+            index = strings.size();
+            strings.add(text);
+            stringIndex.put(text, index);
+        }
+        return index;
+    }
+
+    public static void main(String[] args) throws IOException {
+        CaseLibrary library = CaseLibrary.open(Paths.get(args.length > 0 ? args[0] : CaseLibrary.DATA_DIR));
+        for (CaseSource listed : library.getCases()) {
+            CaseSource source = library.current(listed);
+            if (source == null) {
+                continue;
+            }
+            Path output = Paths.get(source.packFile);
+            compile(source, output);
+            System.out.println("Compiled case pack: " + output + " (" + Files.size(output) + " bytes)");
+        }
+    }
+}
@@ -0,0 +1,375 @@
+package data;
+
+import model.Clue;
+import model.Suspect;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * CaseSearchIndex - In-memory full-text index over one case's story, clues and statements
+ * Built once per case (see CaseDefinition.getSearchIndex). Every story paragraph, clue (name, location and
+ * description) and suspect (name, role and statement) is one document. Text is split into
+ * lower-case letter and digit tokens, and each term maps to a postings list of document
+ * ids and term frequencies kept in int arrays, so a query only visits the documents that
+ * contain one of its terms. Matches are ranked with BM25.
+ */
+public class CaseSearchIndex {
+    /** BM25 term frequency saturation */
+    public static final float K1 = 1.2f;
+    /** BM25 document length normalisation */
+    public static final float B = 0.75f;
+
+    // Tokens shorter than this (single letters, the "s" of "it's") are not indexed
+    private static final int MIN_TOKEN_LENGTH = 2;
+
+    /**
+     * What a document is; its ref is the paragraph number, clue id or suspect id
+     */
+    public enum Kind {
+        STORY,
+        CLUE,
+        SUSPECT
+    }
+
+    /**
+     * Decides which documents a search may return
+     */
+    public interface Filter {
+        boolean accept(Kind kind, int ref);
+    }
+
+    public static final Filter ALL = (kind, ref) -> true;
+
+    private final Kind[] docKinds;
+    private final int[] docRefs;
+    // BM25 length normalisation of each document, K1 * (1 - B + B * length / average length)
+    private final float[] docNorms;
+    private final String[] storyParagraphs;
+    private final Map<String, Integer> termIds;
+    private final int[][] postingDocs;
+    private final int[][] postingFreqs;
+    private final float[] idf;
+
+    private CaseSearchIndex(Builder builder, String[] storyParagraphs) {
+        int docCount = builder.docCount;
+        this.docKinds = Arrays.copyOf(builder.docKinds, docCount);
+        this.docRefs = Arrays.copyOf(builder.docRefs, docCount);
+        int[] docLengths = Arrays.copyOf(builder.docLengths, docCount);
+        this.storyParagraphs = storyParagraphs;
+
+        long totalLength = 0;
+        for (int length : docLengths) {
+            totalLength += length;
+        }
+        float averageLength = docCount > 0 ? Math.max(1f, (float) totalLength / docCount) : 1f;
+        this.docNorms = new float[docCount];
+        for (int doc = 0; doc < docCount; doc++) {
+            docNorms[doc] = K1 * (1 - B + B * docLengths[doc] / averageLength);
+        }
+
+        int termCount = builder.postings.size();
+        this.termIds = new HashMap<>(termCount * 2);
+        this.postingDocs = new int[termCount][];
+        this.postingFreqs = new int[termCount][];
+        this.idf = new float[termCount];
+        for (Map.Entry<String, Postings> entry : builder.postings.entrySet()) {
+            int termId = termIds.size();
+            Postings postings = entry.getValue();
+            termIds.put(entry.getKey(), termId);
+            postingDocs[termId] = Arrays.copyOf(postings.docs, postings.size);
+            postingFreqs[termId] = Arrays.copyOf(postings.freqs, postings.size);
+            // BM25 idf, kept positive even for terms found in most documents
+            idf[termId] = (float) Math.log(1 + (docCount - postings.size + 0.5) / (postings.size + 0.5));
+        }
+    }
+
+    /**
+     * Indexes a case's story, clues and suspects; refs are positions in these lists, which
+     * are also the clue and suspect ids
+     */
+    public static CaseSearchIndex build(String story, List<Clue> clues, List<Suspect> suspects) {
+        Builder builder = new Builder();
+        String[] paragraphs = splitParagraphs(story);
+        for (int i = 0; i < paragraphs.length; i++) {
+            builder.add(Kind.STORY, i, paragraphs[i]);
+        }
+        for (int i = 0; i < clues.size(); i++) {
+            Clue clue = clues.get(i);
+            builder.add(Kind.CLUE, i, join(clue.getName(), clue.getLocation(), clue.getDescription()));
+        }
+        for (int i = 0; i < suspects.size(); i++) {
+            Suspect suspect = suspects.get(i);
+            builder.add(Kind.SUSPECT, i, join(suspect.getName(), suspect.getRole(), suspect.getStatement()));
+        }
+        return new CaseSearchIndex(builder, paragraphs);
+    }
+
+    // ==================== QUERIES ====================
+
+    /**
+     * The best matches for the query's words, best first; documents must contain at
+     * least one of them and pass the filter. Only the best limit documents are kept while
+     * ranking, in a small heap, so common words do not make the result list expensive.
+     */
+    public List<Hit> search(String query, int limit, Filter filter) {
+        int docCount = docKinds.length;
+        float[] scores = new float[docCount];
+        int[] matched = new int[docCount];
+        int matchedCount = 0;
+
+        for (String term : new LinkedHashSet<>(tokenize(query))) {
+            Integer termId = termIds.get(term);
+            if (termId == null) continue;
+
+            int[] docs = postingDocs[termId];
+            int[] freqs = postingFreqs[termId];
+            float weight = idf[termId];
+            for (int i = 0; i < docs.length; i++) {
+                int doc = docs[i];
+                float tf = freqs[i];
+                if (scores[doc] == 0) {
+                    matched[matchedCount++] = doc;
+                }
+                scores[doc] += weight * tf * (K1 + 1) / (tf + docNorms[doc]);
+            }
+        }
+
+        // Min-heap of the best documents so far, worst at the root
+        int[] best = new int[Math.max(0, Math.min(limit, matchedCount))];
+        int size = 0;
+        for (int i = 0; i < matchedCount; i++) {
+            int doc = matched[i];
+            if (size == best.length && !ranksAbove(doc, best[0], scores)) continue;
+            if (!filter.accept(docKinds[doc], docRefs[doc])) continue;
+
+            if (size < best.length) {
+                best[size] = doc;
+                siftUp(best, size++, scores);
+            } else {
+                best[0] = doc;
+                siftDown(best, size, scores);
+            }
+        }
+
+        Hit[] hits = new Hit[size];
+        while (size > 0) {
+            int doc = best[0];
+            hits[--size] = new Hit(docKinds[doc], docRefs[doc], scores[doc]);
+            best[0] = best[size];
+            siftDown(best, size, scores);
+        }
+        return new ArrayList<>(Arrays.asList(hits));
+    }
+
+    /**
+     * Higher score first; equal scores in document order (story, clues, suspects)
+     */
+    private static boolean ranksAbove(int doc, int other, float[] scores) {
+        return scores[doc] > scores[other] || (scores[doc] == scores[other] && doc < other);
+    }
+
+    private static void siftUp(int[] heap, int index, float[] scores) {
+        while (index > 0) {
+            int parent = (index - 1) >>> 1;
+            if (!ranksAbove(heap[parent], heap[index], scores)) break;
+            swap(heap, parent, index);
+            index = parent;
+        }
+    }
+
+    private static void siftDown(int[] heap, int size, float[] scores) {
+        int index = 0;
+        while (true) {
+            int child = 2 * index + 1;
+            if (child >= size) break;
+            if (child + 1 < size && ranksAbove(heap[child], heap[child + 1], scores)) {
+                child++;
+            }
+            if (!ranksAbove(heap[index], heap[child], scores)) break;
+            swap(heap, index, child);
+            index = child;
+        }
+    }
+
+    private static void swap(int[] heap, int a, int b) {
+        int tmp = heap[a];
+        heap[a] = heap[b];
+        heap[b] = tmp;
+    }
+
+    /**
+     * A story paragraph as indexed (STORY hits refer to these)
+     */
+    public String getStoryParagraph(int index) {
+        return storyParagraphs[index];
+    }
+
+    public int getDocumentCount() {
+        return docKinds.length;
+    }
+
+    public int getTermCount() {
+        return idf.length;
+    }
+
+    // ==================== TEXT ====================
+
+    /**
+     * Lower-case runs of letters and digits, at least MIN_TOKEN_LENGTH long
+     */
+    public static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null) return tokens;
+
+        StringBuilder token = new StringBuilder();
+        for (int i = 0; i <= text.length(); i++) {
+            char c = i < text.length() ? text.charAt(i) : ' ';
+            if (Character.isLetterOrDigit(c)) {
+                token.append(Character.toLowerCase(c));
+            } else if (token.length() > 0) {
+                if (token.length() >= MIN_TOKEN_LENGTH) {
+                    tokens.add(token.toString());
+                }
+                token.setLength(0);
+            }
+        }
+        return tokens;
+    }
+
+    /**
+     * Up to width characters of text around the first word of the query it contains
+     * (or from the start), trimmed to whole words and marked with "..." where cut
+     */
+    public static String excerpt(String text, String query, int width) {
+        String flat = text.replaceAll("\\s+", " ").trim();
+        if (flat.length() <= width) return flat;
+
+        String lower = flat.toLowerCase();
+        int first = -1;
+        for (String term : tokenize(query)) {
+            int at = lower.indexOf(term);
+            if (at >= 0 && (first < 0 || at < first)) {
+                first = at;
+            }
+        }
+
+        int start = Math.max(0, Math.min(first - width / 3, flat.length() - width));
+        if (start > 0) {
+            int space = flat.indexOf(' ', start);
+            start = space >= 0 && space < first ? space + 1 : start;
+        }
+        int end = Math.min(flat.length(), start + width);
+        if (end < flat.length()) {
+            int space = flat.lastIndexOf(' ', end);
+            end = space > start ? space : end;
+        }
+        return (start > 0 ? "..." : "") + flat.substring(start, end) + (end < flat.length() ? "..." : "");
+    }
+
+    private static String[] splitParagraphs(String story) {
+        List<String> paragraphs = new ArrayList<>();
+        if (story != null) {
+            for (String paragraph : story.split("\\n\\s*\\n")) {
+                if (!paragraph.trim().isEmpty()) {
+                    paragraphs.add(paragraph.trim());
+                }
+            }
+        }
+        return paragraphs.toArray(new String[0]);
+    }
+
+    private static String join(String... parts) {
+        StringBuilder text = new StringBuilder();
+        for (String part : parts) {
+            if (part != null) {
+                text.append(part).append('\n');
+            }
+        }
+        return text.toString();
+    }
+
+    // ==================== INNER CLASSES ====================
+
+    /**
+     * One ranked match
+     */
+    public static class Hit {
+        public final Kind kind;
+        public final int ref;
+        public final float score;
+
+        public Hit(Kind kind, int ref, float score) {
+            this.kind = kind;
+            this.ref = ref;
+            this.score = score;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%s %d (%.3f)", kind, ref, score);
+        }
+    }
+
+    /**
+     * Documents and growing postings lists, used only while the index is built
+     */
+    private static class Builder {
+        private final Map<String, Postings> postings = new HashMap<>();
+        private Kind[] docKinds = new Kind[16];
+        private int[] docRefs = new int[16];
+        private int[] docLengths = new int[16];
+        private int docCount = 0;
+
+        void add(Kind kind, int ref, String text) {
+            if (docCount == docKinds.length) {
+                docKinds = Arrays.copyOf(docKinds, docCount * 2);
+                docRefs = Arrays.copyOf(docRefs, docCount * 2);
+                docLengths = Arrays.copyOf(docLengths, docCount * 2);
+            }
+            int doc = docCount++;
+            docKinds[doc] = kind;
+            docRefs[doc] = ref;
+
+            List<String> tokens = tokenize(text);
+            docLengths[doc] = tokens.size();
+            for (String token : tokens) {
+                Postings termPostings = postings.get(token);
+                if (termPostings == null) {
+                    termPostings = new Postings();
+                    postings.put(token, termPostings);
+                }
+                termPostings.count(doc);
+            }
+        }
+    }
+
+    /**
+     * Postings of one term in increasing document order
+     */
+    private static class Postings {
+        int[] docs = new int[4];
+        int[] freqs = new int[4];
+        int size = 0;
+
+        /**
+         * One more occurrence in doc, which is the last document added so far
+         */
+        void count(int doc) {
+            if (size > 0 && docs[size - 1] == doc) {
+                freqs[size - 1]++;
+                return;
+            }
+            if (size == docs.length) {
+                docs = Arrays.copyOf(docs, size * 2);
+                freqs = Arrays.copyOf(freqs, size * 2);
+            }
+            docs[size] = doc;
+            freqs[size] = 1;
+            size++;
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package data;
+
+/**
+ * CaseSource - Header of one case: its id and title, and where its text files (and its
+ * compiled pack) live on disk. Headers are listed by CaseLibrary; the case itself is only
+ * read when CaseCache is first asked for it.
+ */
+public class CaseSource {
+    public final String caseId;
+    /** Shown to players and used as the case name in the database */
+    public final String title;
+    public final String storyFile;
+    public final String cluesFile;
+    public final String suspectsFile;
+    public final String packFile;
+
+    public CaseSource(String caseId, String title, String storyFile, String cluesFile, String suspectsFile,
+                      String packFile) {
+        this.caseId = caseId;
+        this.title = title;
+        this.storyFile = storyFile;
+        this.cluesFile = cluesFile;
+        this.suspectsFile = suspectsFile;
+        this.packFile = packFile;
+    }
+
+    /**
+     * Current fingerprint of the text files; changes whenever one of them is edited
+     */
+    public long fingerprint() {
+        return CasePack.fingerprint(storyFile, cluesFile, suspectsFile);
+    }
+
+    @Override
+    public String toString() {
+        return title;
+    }
+}
@@ -0,0 +1,83 @@
+package data;
+
+import model.Clue;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * ClueAssigner - Resolves clue phrases (a suspect's REVEALS, a clue's Requires) to clues
+ * through a token index
+ * The index maps each word of a clue name to the clues containing it and is built once
+ * per case, so wiring up a case costs time proportional to its clues plus its rules.
+ * A phrase matches every clue whose name contains all of the phrase's words.
+ */
+public class ClueAssigner {
+    private final List<Clue> clues;
+    private final Map<String, BitSet> index = new HashMap<>();
+
+    public ClueAssigner(List<Clue> clues) {
+        this.clues = clues;
+        for (int i = 0; i < clues.size(); i++) {
+            for (String token : tokenize(clues.get(i).getName())) {
+                index.computeIfAbsent(token, key -> new BitSet()).set(i);
+            }
+        }
+    }
+
+    /**
+     * Returns the clues matched by any of the phrases, in phrase order (the clues one phrase
+     * matches in case file order), each clue once
+     * owner names where the phrases come from, for the warning about unmatched phrases.
+     */
+    public List<Clue> match(String owner, List<String> phrases) {
+        BitSet matched = new BitSet();
+        List<Clue> result = new ArrayList<>();
+        for (String phrase : phrases) {
+            BitSet phraseMatches = matchPhrase(phrase);
+            if (phraseMatches.isEmpty()) {
+                System.err.println("Clue '" + phrase + "' named by " + owner + " matches no clue");
+            }
+            phraseMatches.andNot(matched);
+            for (int i = phraseMatches.nextSetBit(0); i >= 0; i = phraseMatches.nextSetBit(i + 1)) {
+                result.add(clues.get(i));
+            }
+            matched.or(phraseMatches);
+        }
+        return result;
+    }
+
+    private BitSet matchPhrase(String phrase) {
+        BitSet result = null;
+        for (String token : tokenize(phrase)) {
+            BitSet postings = index.get(token);
+            if (postings == null) {
+                return new BitSet();
+            }
+            if (result == null) {
+                result = (BitSet) postings.clone();
+            } else {
+                result.and(postings);
+            }
+        }
+        return result != null ? result : new BitSet();
+    }
+
+    /**
+     * Upper-cased words of a name, split on anything that is not a letter or digit
+     */
+    static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null) {
+            return tokens;
+        }
+        for (String word : text.toUpperCase().split("[^\\p{Alnum}]+")) {
+            if (!word.isEmpty()) {
+                tokens.add(word);
+            }
+        }
+        return tokens;
+    }
+}
@@ -0,0 +1,185 @@
+package data;
+
+import model.CaseDifficulty;
+import model.Clue;
+import model.GameState;
+import model.Suspect;
+import java.util.List;
+
+/**
+ * ClueGate - Decides which of a suspect's clues a questioning reveals, at one difficulty
+ * The rules are compiled once per case and difficulty into flat arrays: for each suspect
+ * its clue ids with the questionings each one needs, and for each clue a bit mask of the
+ * clues it requires. Checking a questioning is a few array reads and mask tests per clue
+ * of that suspect, however large the case is.
+ *
+ * A suspect's k-th clue (in the order their REVEALS lines name them, from 0) needs 1 + k * (level - 1) questionings,
+ * so EASY reveals everything at once and HARD makes the player come back twice per clue.
+ * Above EASY a clue also stays hidden until every clue on its "Requires:" line is found.
+ */
+public class ClueGate {
+    private final CaseDifficulty difficulty;
+    private final int[][] suspectClues;
+    private final int[][] questioningsNeeded;
+    private final long[][] requiredMasks;
+    private final int maxCluesPerSuspect;
+    private final int questioningsToExhaust;
+
+    private ClueGate(CaseDifficulty difficulty, int[][] suspectClues, int[][] questioningsNeeded,
+                     long[][] requiredMasks) {
+        this.difficulty = difficulty;
+        this.suspectClues = suspectClues;
+        this.questioningsNeeded = questioningsNeeded;
+        this.requiredMasks = requiredMasks;
+
+        int max = 0;
+        int total = 0;
+        for (int[] needed : questioningsNeeded) {
+            max = Math.max(max, needed.length);
+            total += needed.length > 0 ? needed[needed.length - 1] : 0;
+        }
+        this.maxCluesPerSuspect = max;
+        this.questioningsToExhaust = total;
+    }
+
+    /**
+     * Compiles the reveal rules of a case for one difficulty
+     * @param prerequisites for each clue id, the ids of the clues it requires
+     */
+    public static ClueGate compile(List<Clue> clues, List<Suspect> suspects, int[][] prerequisites,
+                                   CaseDifficulty difficulty) {
+        int level = difficulty.getLevel();
+        int[][] suspectClues = new int[suspects.size()][];
+        int[][] questioningsNeeded = new int[suspects.size()][];
+        for (Suspect suspect : suspects) {
+            List<Clue> revealed = suspect.getClues();
+            int[] ids = new int[revealed.size()];
+            int[] needed = new int[revealed.size()];
+            for (int k = 0; k < ids.length; k++) {
+                ids[k] = revealed.get(k).getId();
+                needed[k] = 1 + k * (level - 1);
+            }
+            suspectClues[suspect.getId()] = ids;
+            questioningsNeeded[suspect.getId()] = needed;
+        }
+
+        int words = (clues.size() + 63) >>> 6;
+        long[][] requiredMasks = new long[clues.size()][];
+        for (int clueId = 0; clueId < clues.size(); clueId++) {
+            long[] mask = new long[level > 1 ? words : 0];
+            if (level > 1) {
+                for (int required : prerequisites[clueId]) {
+                    mask[required >>> 6] |= 1L << required;
+                }
+            }
+            requiredMasks[clueId] = mask;
+        }
+        return new ClueGate(difficulty, suspectClues, questioningsNeeded, requiredMasks);
+    }
+
+    /**
+     * Writes the ids of the suspect's clues that are not found yet but would be revealed
+     * by their questionings-th questioning into reveal (which needs room for
+     * getMaxCluesPerSuspect ids, or may be null to only count them). Returns the count.
+     */
+    public int revealable(GameState state, int suspectId, int questionings, int[] reveal) {
+        int[] clueIds = suspectClues[suspectId];
+        int[] needed = questioningsNeeded[suspectId];
+        int count = 0;
+        for (int k = 0; k < clueIds.length; k++) {
+            int clueId = clueIds[k];
+            if (needed[k] <= questionings && !state.hasClueId(clueId) && state.hasAllClueIds(requiredMasks[clueId])) {
+                if (reveal != null) {
+                    reveal[count] = clueId;
+                }
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Number of the suspect's clues not found yet whose required clues are all found,
+     * i.e. the clues more questioning of this suspect alone will eventually reveal
+     */
+    public int pending(GameState state, int suspectId) {
+        int count = 0;
+        for (int clueId : suspectClues[suspectId]) {
+            if (!state.hasClueId(clueId) && state.hasAllClueIds(requiredMasks[clueId])) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Number of the suspect's clues not found yet, whatever blocks them
+     */
+    public int hidden(GameState state, int suspectId) {
+        int count = 0;
+        for (int clueId : suspectClues[suspectId]) {
+            if (!state.hasClueId(clueId)) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    public CaseDifficulty getDifficulty() {
+        return difficulty;
+    }
+
+    public int getMaxCluesPerSuspect() {
+        return maxCluesPerSuspect;
+    }
+
+    /**
+     * Questionings needed to get every clue out of every suspect, ignoring prerequisites
+     */
+    public int getQuestioningsToExhaust() {
+        return questioningsToExhaust;
+    }
+
+    // ==================== VALIDATION ====================
+
+    /**
+     * Warns about clues that can never be found once prerequisites are enforced: clues no
+     * suspect reveals, and clues whose requirements can never all be met (including cycles)
+     */
+    static void validate(String caseId, List<Clue> clues, List<Suspect> suspects, int[][] prerequisites) {
+        boolean[] revealedBySomeone = new boolean[clues.size()];
+        for (Suspect suspect : suspects) {
+            for (Clue clue : suspect.getClues()) {
+                revealedBySomeone[clue.getId()] = true;
+            }
+        }
+
+        // Grow the set of reachable clues until no more requirements can be met
+        boolean[] reachable = new boolean[clues.size()];
+        boolean grew = true;
+        while (grew) {
+            grew = false;
+            for (int clueId = 0; clueId < clues.size(); clueId++) {
+                if (reachable[clueId] || !revealedBySomeone[clueId]) continue;
+
+                boolean met = true;
+                for (int required : prerequisites[clueId]) {
+                    met &= reachable[required];
+                }
+                if (met) {
+                    reachable[clueId] = true;
+                    grew = true;
+                }
+            }
+        }
+
+        for (int clueId = 0; clueId < clues.size(); clueId++) {
+            if (!revealedBySomeone[clueId]) {
+                System.err.println("Case " + caseId + ": no suspect reveals clue " + clues.get(clueId).getName());
+            } else if (!reachable[clueId]) {
+                System.err.println("Case " + caseId + ": clue " + clues.get(clueId).getName()
+                                   + " can never be found above EASY (its requirements cannot all be met)");
+            }
+        }
+    }
+}
@@ -1,10 +1,289 @@
 package data;
 
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * DatabaseConnection - Pooled SQLite connection provider
+ * One serialized writer connection plus a fixed set of read-only reader connections.
+ * The database runs in WAL mode so readers never block on the writer.
+ * Each connection keeps its own cache of compiled statements.
+ * Waiting for and running work on the writer and readers is timed in the db.writer.* and
+ * db.reader.* histograms (a reader's work runs from acquireReader() to releaseReader(), so
+ * streamed reads are included); work that fails with an SQLException is counted in db.errors.
+ * DatabaseManager times each of its operations on top of this.
+ */
 public class DatabaseConnection {
 
-    public void connect() {
-        // Placeholder for database connection logic
-        
+    /**
+     * Work executed against a borrowed connection
+     */
+    public interface SqlWork<T> {
+        T run(Connection connection) throws SQLException;
+    }
+
+    private static final int BUSY_TIMEOUT_MS = 5000;
+    private static final long MMAP_SIZE_BYTES = 256L * 1024 * 1024;
+    private static final int STATEMENTS_PER_CONNECTION = 64;
+    // How long a read waits for a free reader before failing
+    private static final long DEFAULT_READER_TIMEOUT_MS = 10_000;
+    // How long close() waits for borrowed readers to come back
+    private static final long CLOSE_TIMEOUT_MS = 5000;
+
+    private static final LatencyHistogram WRITER_WAIT = Metrics.shared().histogram("db.writer.wait");
+    private static final LatencyHistogram WRITER_WORK = Metrics.shared().histogram("db.writer.work");
+    private static final LatencyHistogram READER_WAIT = Metrics.shared().histogram("db.reader.wait");
+    private static final LatencyHistogram READER_WORK = Metrics.shared().histogram("db.reader.work");
+    private static final Metrics.Counter ERRORS = Metrics.shared().counter("db.errors");
+
+    private final String url;
+    private final int readerCount;
+    private final ReentrantLock writerLock = new ReentrantLock();
+    private final List<Connection> allReaders = new ArrayList<>();
+    private final Map<Connection, StatementCache> statementCaches = new IdentityHashMap<>();
+    // When each reader was last handed out (System.nanoTime()), for db.reader.work
+    private final Map<Connection, AtomicLong> readerBorrowedAt = new IdentityHashMap<>();
+    private BlockingQueue<Connection> idleReaders;
+    private Connection writer;
+    private volatile boolean open = false;
+    private volatile long readerTimeoutMillis = DEFAULT_READER_TIMEOUT_MS;
+
+    public DatabaseConnection(String url, int readerCount) {
+        this.url = url;
+        this.readerCount = Math.max(1, readerCount);
+    }
+
+    /**
+     * Opens the writer and reader connections and applies the SQLite pragmas
+     */
+    public void connect() throws SQLException {
+        writer = DriverManager.getConnection(url);
+        try (Statement stmt = writer.createStatement()) {
+            stmt.execute("PRAGMA journal_mode = WAL");
+            stmt.execute("PRAGMA synchronous = NORMAL");
+            stmt.execute("PRAGMA busy_timeout = " + BUSY_TIMEOUT_MS);
+            stmt.execute("PRAGMA mmap_size = " + MMAP_SIZE_BYTES);
+        }
+        statementCaches.put(writer, new StatementCache(writer, STATEMENTS_PER_CONNECTION));
+
+        idleReaders = new ArrayBlockingQueue<>(readerCount);
+        for (int i = 0; i < readerCount; i++) {
+            Connection reader = DriverManager.getConnection(url);
+            try (Statement stmt = reader.createStatement()) {
+                stmt.execute("PRAGMA query_only = ON");
+                stmt.execute("PRAGMA busy_timeout = " + BUSY_TIMEOUT_MS);
+                stmt.execute("PRAGMA mmap_size = " + MMAP_SIZE_BYTES);
+            }
+            statementCaches.put(reader, new StatementCache(reader, STATEMENTS_PER_CONNECTION));
+            allReaders.add(reader);
+            readerBorrowedAt.put(reader, new AtomicLong());
+            idleReaders.add(reader);
+        }
+
+        open = true;
+        System.out.println("Connection pool ready: 1 writer, " + readerCount + " readers");
+    }
+
+    public boolean isOpen() {
+        return open;
+    }
+
+    /**
+     * Runs work on the writer connection. Only one thread holds the writer at a time.
+     */
+    public <T> T withWriter(SqlWork<T> work) throws SQLException {
+        long waitStart = System.nanoTime();
+        writerLock.lock();
+        try {
+            if (!open) {
+                throw new SQLException("Connection pool is closed");
+            }
+            long start = System.nanoTime();
+            WRITER_WAIT.record(start - waitStart);
+            try {
+                return work.run(writer);
+            } catch (SQLException e) {
+                ERRORS.increment();
+                throw e;
+            } finally {
+                WRITER_WORK.recordSince(start);
+            }
+        } finally {
+            writerLock.unlock();
+        }
+    }
+
+    /**
+     * Runs work on a pooled read-only connection
+     */
+    public <T> T withReader(SqlWork<T> work) throws SQLException {
+        Connection reader = acquireReader();
+        try {
+            return work.run(reader);
+        } catch (SQLException e) {
+            ERRORS.increment();
+            throw e;
+        } finally {
+            releaseReader(reader);
+        }
+    }
+
+    /**
+     * Borrows a reader connection. Must be given back with releaseReader().
+     * Fails if no reader is free within the reader timeout, so readers that are never
+     * given back (an unclosed row stream, say) cannot block every later read.
+     */
+    public Connection acquireReader() throws SQLException {
+        if (!open) {
+            throw new SQLException("Connection pool is closed");
+        }
+        long start = System.nanoTime();
+        try {
+            Connection reader = idleReaders.poll(readerTimeoutMillis, TimeUnit.MILLISECONDS);
+            long acquired = System.nanoTime();
+            READER_WAIT.record(acquired - start);
+            if (reader == null) {
+                throw new SQLException("No reader connection free after " + readerTimeoutMillis
+                                       + " ms (are row streams being closed?)");
+            }
+            readerBorrowedAt.get(reader).set(acquired);
+            return reader;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for a reader connection", e);
+        }
+    }
+
+    /**
+     * Gives back a reader from acquireReader(), recording how long it was held in db.reader.work
+     */
+    public void releaseReader(Connection reader) {
+        AtomicLong borrowedAt = readerBorrowedAt.get(reader);
+        if (borrowedAt != null) {
+            READER_WORK.recordSince(borrowedAt.get());
+        }
+        idleReaders.offer(reader);
+    }
+
+    public int getReaderCount() {
+        return readerCount;
+    }
+
+    public long getReaderTimeoutMillis() {
+        return readerTimeoutMillis;
+    }
+
+    /**
+     * Changes how long acquireReader() waits for a free reader
+     */
+    public void setReaderTimeoutMillis(long readerTimeoutMillis) {
+        this.readerTimeoutMillis = readerTimeoutMillis;
+    }
+
+    /**
+     * Gets a cached statement for a connection borrowed from this pool.
+     * The statement stays open - close only its ResultSets.
+     */
+    public PreparedStatement prepare(Connection conn, String sql) throws SQLException {
+        return cacheFor(conn).prepare(sql);
+    }
+
+    /**
+     * Same as prepare() but the statement returns generated keys
+     */
+    public PreparedStatement prepareWithKeys(Connection conn, String sql) throws SQLException {
+        return cacheFor(conn).prepareWithKeys(sql);
+    }
+
+    /**
+     * Gets the combined hit/miss counters of every connection's statement cache
+     */
+    public StatementCache.Stats getStatementCacheStats() {
+        StatementCache.Stats total = new StatementCache.Stats(0, 0, 0, 0);
+        for (StatementCache cache : statementCaches.values()) {
+            total = total.plus(cache.getStats());
+        }
+        return total;
+    }
+
+    private StatementCache cacheFor(Connection conn) throws SQLException {
+        StatementCache cache = statementCaches.get(conn);
+        if (cache == null) {
+            throw new SQLException("Connection does not belong to this pool");
+        }
+        return cache;
+    }
+
+    /**
+     * Closes every pooled connection once no one is using it: waits for the writer and
+     * for borrowed readers to be released (up to CLOSE_TIMEOUT_MS), then closes the
+     * statement caches and connections
+     */
+    public void close() {
+        writerLock.lock();
+        try {
+            open = false;
+            int borrowed = awaitIdleReaders();
+            if (borrowed > 0) {
+                System.err.println("Closing connection pool with " + borrowed + " reader(s) still in use");
+            }
+
+            for (StatementCache cache : statementCaches.values()) {
+                cache.close();
+            }
+            for (Connection reader : allReaders) {
+                closeQuietly(reader);
+            }
+            allReaders.clear();
+            closeQuietly(writer);
+        } finally {
+            writerLock.unlock();
+        }
+    }
+
+    /**
+     * Takes every reader back from the idle queue, waiting for borrowed ones until the
+     * close timeout; returns how many never came back
+     */
+    private int awaitIdleReaders() {
+        if (idleReaders == null) {
+            return 0;
+        }
+        int returned = 0;
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(CLOSE_TIMEOUT_MS);
+        try {
+            while (returned < allReaders.size()) {
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0 || idleReaders.poll(remaining, TimeUnit.NANOSECONDS) == null) {
+                    break;
+                }
+                returned++;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return allReaders.size() - returned;
+    }
+
+    private void closeQuietly(Connection conn) {
+        try {
+            if (conn != null && !conn.isClosed()) {
+                conn.close();
+            }
+        } catch (SQLException e) {
+            System.err.println("Error closing connection: " + e.getMessage());
+        }
     }
-    
 }
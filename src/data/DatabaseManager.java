@@ -1,28 +1,92 @@
 package data;
 
+import model.CaseDifficulty;
+import model.Suspect;
 import java.sql.*;
-import java.text.SimpleDateFormat;
-import java.util.Date;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * DatabaseManager - Handles all database operations for the Mystery Game
  * Uses SQLite for local storage with PreparedStatements for security
+ * Each operation's database work is timed in its own db.<operation> histogram; queued
+ * writes are timed when the writer thread runs them, row streams until they are closed.
  */
 public class DatabaseManager {
     
     private static final String DB_URL = "jdbc:sqlite:mystery_game.db";
-    private Connection connection;
+    private static final int READER_CONNECTIONS = Math.max(2, Runtime.getRuntime().availableProcessors());
+    private static final int WRITE_QUEUE_CAPACITY = 4096;
+    private static final int WRITE_BATCH_SIZE = 256;
+    private static final int DEFAULT_FETCH_SIZE = 128;
+    
+    // Lookup queries backed by the indexes created in SchemaMigrator
+    private static final String CASE_HISTORY_SQL = "SELECT * FROM case_progress WHERE player_id = ? ORDER BY started_at DESC";
+    private static final String SUSPECTS_SQL = "SELECT * FROM suspects WHERE case_name = ?";
+    private static final String PLAYER_CHOICES_SQL = "SELECT * FROM player_choices WHERE progress_id = ? ORDER BY choice_order";
+    private static final String UPSERT_SUSPECT_SQL =
+        "INSERT INTO suspects (suspect_name, role, statement, is_guilty, case_name) VALUES (?, ?, ?, ?, ?) " +
+        "ON CONFLICT(case_name, suspect_name) DO UPDATE SET " +
+        "role = excluded.role, statement = excluded.statement, is_guilty = excluded.is_guilty";
+    private static final String DISCOVERED_CLUES_SQL = "SELECT * FROM clues_discovered WHERE progress_id = ? ORDER BY discovered_at";
+    
+    // Per-operation latency, see Metrics
+    private static final LatencyHistogram CREATE_PLAYER = operation("createPlayer");
+    private static final LatencyHistogram GET_PLAYER_ID = operation("getPlayerId");
+    private static final LatencyHistogram UPDATE_PLAYER_STATS = operation("updatePlayerStats");
+    private static final LatencyHistogram GET_PLAYER_STATS = operation("getPlayerStats");
+    private static final LatencyHistogram START_CASE = operation("startCase");
+    private static final LatencyHistogram FIND_CASE_PROGRESS = operation("findCaseProgress");
+    private static final LatencyHistogram UPDATE_CASE_PROGRESS = operation("updateCaseProgress");
+    private static final LatencyHistogram COMPLETE_CASE = operation("completeCase");
+    private static final LatencyHistogram CASE_HISTORY = operation("streamCaseHistory");
+    private static final LatencyHistogram SAVE_SUSPECT = operation("saveSuspect");
+    private static final LatencyHistogram SYNC_SUSPECT_CATALOG = operation("syncSuspectCatalog");
+    private static final LatencyHistogram SUSPECTS = operation("streamSuspects");
+    private static final LatencyHistogram RECORD_PLAYER_CHOICE = operation("recordPlayerChoice");
+    private static final LatencyHistogram PLAYER_CHOICES = operation("streamPlayerChoices");
+    private static final LatencyHistogram RECORD_CLUE_DISCOVERED = operation("recordClueDiscovered");
+    private static final LatencyHistogram DISCOVERED_CLUES = operation("streamDiscoveredClues");
+    private static final LatencyHistogram SAVE_SESSION_SNAPSHOT = operation("saveSessionSnapshot");
+    private static final LatencyHistogram LOAD_SESSION_SNAPSHOT = operation("loadSessionSnapshot");
+    private static final LatencyHistogram DELETE_SESSION_SNAPSHOT = operation("deleteSessionSnapshot");
+    
+    private final String dbUrl;
+    private DatabaseConnection database;
+    private WriteBehindQueue writeQueue;
+    private final SuspectCatalog suspectCatalog = new SuspectCatalog();
+    private final GameClock clock = GameClock.shared();
+    private final PlayerCache playerCache = new PlayerCache(PlayerCache.DEFAULT_MAX_PLAYERS);
     private boolean dbAvailable = false;
     
     public DatabaseManager() {
+        this(DB_URL);
+    }
+    
+    public DatabaseManager(String dbUrl) {
+        this.dbUrl = dbUrl;
         try {
             connect();
-            createTables();
+            database.withWriter(conn -> {
+                migrateSchema(conn);
+                return null;
+            });
+            writeQueue = new WriteBehindQueue(database, WRITE_QUEUE_CAPACITY, WRITE_BATCH_SIZE);
             dbAvailable = true;
         } catch (SQLException e) {
             System.err.println("Database not available: " + e.getMessage());
             System.err.println("Game will continue without database features.");
             System.err.println("See DATABASE_SETUP.md for setup instructions.");
+            if (database != null) {
+                database.close();
+            }
             dbAvailable = false;
         }
     }
@@ -35,84 +99,28 @@ public class DatabaseManager {
     }
     
     /**
-     * Establishes connection to SQLite database
+     * Establishes the pooled connections to the SQLite database
      */
     private void connect() throws SQLException {
-        connection = DriverManager.getConnection(DB_URL);
-        System.out.println("Connected to SQLite database: mystery_game.db");
-    }
-    
-    /**
-     * Creates all necessary database tables
-     */
-    private void createTables() throws SQLException {
-        Statement stmt = connection.createStatement();
-        
-        // Player profiles table
-        String createPlayersTable = 
-            "CREATE TABLE IF NOT EXISTS players (" +
-            "player_id INTEGER PRIMARY KEY AUTOINCREMENT, " +
-            "username TEXT UNIQUE NOT NULL, " +
-            "created_at TEXT NOT NULL, " +
-            "total_games INTEGER DEFAULT 0, " +
-            "cases_solved INTEGER DEFAULT 0, " +
-            "cases_failed INTEGER DEFAULT 0)";
-        
-        // Case progress table
-        String createCaseProgressTable = 
-            "CREATE TABLE IF NOT EXISTS case_progress (" +
-            "progress_id INTEGER PRIMARY KEY AUTOINCREMENT, " +
-            "player_id INTEGER NOT NULL, " +
-            "case_name TEXT NOT NULL, " +
-            "started_at TEXT NOT NULL, " +
-            "completed_at TEXT, " +
-            "is_solved INTEGER DEFAULT 0, " +
-            "suspects_questioned INTEGER DEFAULT 0, " +
-            "clues_found INTEGER DEFAULT 0, " +
-            "accused_suspect TEXT, " +
-            "time_spent_minutes INTEGER DEFAULT 0, " +
-            "FOREIGN KEY(player_id) REFERENCES players(player_id))";
-        
-        // Suspect data table
-        String createSuspectsTable = 
-            "CREATE TABLE IF NOT EXISTS suspects (" +
-            "suspect_id INTEGER PRIMARY KEY AUTOINCREMENT, " +
-            "suspect_name TEXT NOT NULL, " +
-            "role TEXT NOT NULL, " +
-            "statement TEXT NOT NULL, " +
-            "is_guilty INTEGER DEFAULT 0, " +
-            "case_name TEXT NOT NULL)";
-        
-        // Player choices table - tracks which suspects were questioned and when
-        String createPlayerChoicesTable = 
-            "CREATE TABLE IF NOT EXISTS player_choices (" +
-            "choice_id INTEGER PRIMARY KEY AUTOINCREMENT, " +
-            "progress_id INTEGER NOT NULL, " +
-            "player_id INTEGER NOT NULL, " +
-            "suspect_name TEXT NOT NULL, " +
-            "questioned_at TEXT NOT NULL, " +
-            "clues_discovered INTEGER DEFAULT 0, " +
-            "choice_order INTEGER, " +
-            "FOREIGN KEY(progress_id) REFERENCES case_progress(progress_id), " +
-            "FOREIGN KEY(player_id) REFERENCES players(player_id))";
-        
-        // Clues discovered table
-        String createCluesTable = 
-            "CREATE TABLE IF NOT EXISTS clues_discovered (" +
-            "clue_id INTEGER PRIMARY KEY AUTOINCREMENT, " +
-            "progress_id INTEGER NOT NULL, " +
-            "clue_name TEXT NOT NULL, " +
-            "discovered_at TEXT NOT NULL, " +
-            "FOREIGN KEY(progress_id) REFERENCES case_progress(progress_id))";
-        
-        stmt.execute(createPlayersTable);
-        stmt.execute(createCaseProgressTable);
-        stmt.execute(createSuspectsTable);
-        stmt.execute(createPlayerChoicesTable);
-        stmt.execute(createCluesTable);
-        
-        stmt.close();
-        System.out.println("Database tables created successfully");
+        database = new DatabaseConnection(dbUrl, READER_CONNECTIONS);
+        database.connect();
+        System.out.println("Connected to SQLite database: " + dbUrl);
+    }
+    
+    /**
+     * Brings the schema up to date and checks that the lookup queries use their indexes
+     */
+    private void migrateSchema(Connection connection) throws SQLException {
+        int version = new SchemaMigrator().migrate(connection);
+        System.out.println("Database schema at version " + version);
+        
+        String[] indexedQueries = { CASE_HISTORY_SQL, SUSPECTS_SQL, PLAYER_CHOICES_SQL, DISCOVERED_CLUES_SQL,
+                                    LeaderboardService.TOP_PLAYERS_SQL };
+        for (String sql : indexedQueries) {
+            if (!SchemaMigrator.usesIndex(connection, sql)) {
+                System.err.println("Warning: query does not use an index: " + sql);
+            }
+        }
     }
     
     // ==================== PLAYER PROFILE OPERATIONS ====================
@@ -123,22 +131,30 @@ public class DatabaseManager {
     public int createPlayer(String username) {
         if (!dbAvailable) return -1;
         
-        String sql = "INSERT INTO players (username, created_at) VALUES (?, ?)";
+        String sql = "INSERT INTO players (username, created_at, created_at_ms) VALUES (?, ?, ?)";
+        long now = clock.millis();
         
-        try (PreparedStatement pstmt = connection.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
-            pstmt.setString(1, username);
-            pstmt.setString(2, getCurrentTimestamp());
-            
-            int affectedRows = pstmt.executeUpdate();
-            
-            if (affectedRows > 0) {
-                ResultSet rs = pstmt.getGeneratedKeys();
-                if (rs.next()) {
-                    int playerId = rs.getInt(1);
-                    System.out.println("Player created with ID: " + playerId);
-                    return playerId;
+        try {
+            return database.withWriter(timed(CREATE_PLAYER, conn -> {
+                PreparedStatement pstmt = database.prepareWithKeys(conn, sql);
+                pstmt.setString(1, username);
+                pstmt.setString(2, formatTimestamp(now));
+                pstmt.setLong(3, now);
+                
+                int affectedRows = pstmt.executeUpdate();
+                
+                if (affectedRows > 0) {
+                    try (ResultSet rs = pstmt.getGeneratedKeys()) {
+                        if (rs.next()) {
+                            int playerId = rs.getInt(1);
+                            System.out.println("Player created with ID: " + playerId);
+                            playerCache.putProfile(new PlayerStats(playerId, username, 0, 0, 0));
+                            return playerId;
+                        }
+                    }
                 }
-            }
+                return -1;
+            }));
         } catch (SQLException e) {
             System.err.println("Error creating player: " + e.getMessage());
         }
@@ -152,15 +168,25 @@ public class DatabaseManager {
     public int getPlayerId(String username) {
         if (!dbAvailable) return -1;
         
+        int cachedId = playerCache.getId(username);
+        if (cachedId != -1) return cachedId;
+        
         String sql = "SELECT player_id FROM players WHERE username = ?";
         
-        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
-            pstmt.setString(1, username);
-            ResultSet rs = pstmt.executeQuery();
-            
-            if (rs.next()) {
-                return rs.getInt("player_id");
-            }
+        try {
+            return database.withReader(timed(GET_PLAYER_ID, conn -> {
+                PreparedStatement pstmt = database.prepare(conn, sql);
+                pstmt.setString(1, username);
+                
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    if (rs.next()) {
+                        int playerId = rs.getInt("player_id");
+                        playerCache.putId(username, playerId);
+                        return playerId;
+                    }
+                }
+                return -1;
+            }));
         } catch (SQLException e) {
             System.err.println("Error getting player ID: " + e.getMessage());
         }
@@ -178,11 +204,20 @@ public class DatabaseManager {
                      (caseSolved ? "cases_solved = cases_solved + 1" : "cases_failed = cases_failed + 1") +
                      " WHERE player_id = ?";
         
-        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
-            pstmt.setInt(1, playerId);
-            pstmt.executeUpdate();
+        try {
+            database.withWriter(timed(UPDATE_PLAYER_STATS, conn -> {
+                PreparedStatement pstmt = database.prepare(conn, sql);
+                pstmt.setInt(1, playerId);
+                pstmt.executeUpdate();
+                return null;
+            }));
+            // Reloaded on next use; incrementing the cached copy here could count this
+            // update twice if a concurrent getPlayerStats already read the new row
+            playerCache.invalidate(playerId);
             System.out.println("Player stats updated");
         } catch (SQLException e) {
+            // The row may or may not have changed - reload it next time
+            playerCache.invalidate(playerId);
             System.err.println("Error updating player stats: " + e.getMessage());
         }
     }
@@ -193,21 +228,32 @@ public class DatabaseManager {
     public PlayerStats getPlayerStats(int playerId) {
         if (!dbAvailable) return null;
         
+        PlayerStats cached = playerCache.getProfile(playerId);
+        if (cached != null) return cached;
+        
         String sql = "SELECT * FROM players WHERE player_id = ?";
+        long stamp = playerCache.getStamp();
         
-        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
-            pstmt.setInt(1, playerId);
-            ResultSet rs = pstmt.executeQuery();
-            
-            if (rs.next()) {
-                return new PlayerStats(
-                    rs.getInt("player_id"),
-                    rs.getString("username"),
-                    rs.getInt("total_games"),
-                    rs.getInt("cases_solved"),
-                    rs.getInt("cases_failed")
-                );
-            }
+        try {
+            return database.withReader(timed(GET_PLAYER_STATS, conn -> {
+                PreparedStatement pstmt = database.prepare(conn, sql);
+                pstmt.setInt(1, playerId);
+                
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    if (rs.next()) {
+                        PlayerStats stats = new PlayerStats(
+                            rs.getInt("player_id"),
+                            rs.getString("username"),
+                            rs.getInt("total_games"),
+                            rs.getInt("cases_solved"),
+                            rs.getInt("cases_failed")
+                        );
+                        playerCache.putLoadedProfile(stats, stamp);
+                        return stats;
+                    }
+                }
+                return null;
+            }));
         } catch (SQLException e) {
             System.err.println("Error getting player stats: " + e.getMessage());
         }
@@ -221,23 +267,45 @@ public class DatabaseManager {
      * Starts a new case for a player using PreparedStatement
      */
     public int startCase(int playerId, String caseName) {
+        return startCase(playerId, caseName, null);
+    }
+    
+    /**
+     * Starts a new case at a difficulty (stored for the per-difficulty stats)
+     */
+    public int startCase(int playerId, String caseName, CaseDifficulty difficulty) {
+        return startCase(playerId, caseName, difficulty, clock.millis());
+    }
+    
+    /**
+     * Starts a case recorded as started at startedAtMillis (used when rebuilding rows from a journal)
+     */
+    public int startCase(int playerId, String caseName, CaseDifficulty difficulty, long startedAtMillis) {
         if (!dbAvailable) return -1;
         
-        String sql = "INSERT INTO case_progress (player_id, case_name, started_at) VALUES (?, ?, ?)";
+        String sql = "INSERT INTO case_progress (player_id, case_name, started_at, started_at_ms, difficulty) " +
+                     "VALUES (?, ?, ?, ?, ?)";
         
-        try (PreparedStatement pstmt = connection.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
-            pstmt.setInt(1, playerId);
-            pstmt.setString(2, caseName);
-            pstmt.setString(3, getCurrentTimestamp());
-            
-            pstmt.executeUpdate();
-            
-            ResultSet rs = pstmt.getGeneratedKeys();
-            if (rs.next()) {
-                int progressId = rs.getInt(1);
-                System.out.println("Case started with progress ID: " + progressId);
-                return progressId;
-            }
+        try {
+            return database.withWriter(timed(START_CASE, conn -> {
+                PreparedStatement pstmt = database.prepareWithKeys(conn, sql);
+                pstmt.setInt(1, playerId);
+                pstmt.setString(2, caseName);
+                pstmt.setString(3, formatTimestamp(startedAtMillis));
+                pstmt.setLong(4, startedAtMillis);
+                pstmt.setString(5, difficulty != null ? difficulty.name() : null);
+                
+                pstmt.executeUpdate();
+                
+                try (ResultSet rs = pstmt.getGeneratedKeys()) {
+                    if (rs.next()) {
+                        int progressId = rs.getInt(1);
+                        System.out.println("Case started with progress ID: " + progressId);
+                        return progressId;
+                    }
+                }
+                return -1;
+            }));
         } catch (SQLException e) {
             System.err.println("Error starting case: " + e.getMessage());
         }
@@ -246,40 +314,109 @@ public class DatabaseManager {
     }
     
     /**
-     * Updates case progress using PreparedStatement
+     * Finds the player's case_progress row for a case with this progress id or started at
+     * startedAtMillis; returns its progress id, or -1 if there is none
+     */
+    public int findCaseProgress(int playerId, String caseName, int progressId, long startedAtMillis) {
+        if (!dbAvailable) return -1;
+        writeQueue.flush();
+        
+        String sql = "SELECT progress_id FROM case_progress WHERE player_id = ? AND case_name = ? " +
+                     "AND (progress_id = ? OR started_at_ms = ?)";
+        
+        try {
+            return database.withReader(timed(FIND_CASE_PROGRESS, conn -> {
+                PreparedStatement pstmt = database.prepare(conn, sql);
+                pstmt.setInt(1, playerId);
+                pstmt.setString(2, caseName);
+                pstmt.setInt(3, progressId);
+                pstmt.setLong(4, startedAtMillis);
+                
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    return rs.next() ? rs.getInt(1) : -1;
+                }
+            }));
+        } catch (SQLException e) {
+            System.err.println("Error finding case progress: " + e.getMessage());
+        }
+        
+        return -1;
+    }
+    
+    /**
+     * Updates case progress using PreparedStatement (queued, written in the background)
      */
     public void updateCaseProgress(int progressId, int suspectsQuestioned, int cluesFound) {
         if (!dbAvailable) return;
         
         String sql = "UPDATE case_progress SET suspects_questioned = ?, clues_found = ? WHERE progress_id = ?";
         
-        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
+        writeQueue.submit(timedWrite(UPDATE_CASE_PROGRESS, conn -> {
+            PreparedStatement pstmt = database.prepare(conn, sql);
             pstmt.setInt(1, suspectsQuestioned);
             pstmt.setInt(2, cluesFound);
             pstmt.setInt(3, progressId);
             pstmt.executeUpdate();
-        } catch (SQLException e) {
-            System.err.println("Error updating case progress: " + e.getMessage());
-        }
+        }));
     }
     
     /**
      * Completes a case using PreparedStatement
+     * The completion stats and leaderboard are updated in the same transaction; completing
+     * an already completed case replaces its earlier contribution.
      */
     public void completeCase(int progressId, boolean solved, String accusedSuspect, int timeMinutes) {
         if (!dbAvailable) return;
         
-        String sql = "UPDATE case_progress SET completed_at = ?, is_solved = ?, " +
+        String selectSql = "SELECT player_id, case_name, difficulty, completed_at, is_solved, time_spent_minutes " +
+                           "FROM case_progress WHERE progress_id = ?";
+        String sql = "UPDATE case_progress SET completed_at = ?, completed_at_ms = ?, is_solved = ?, " +
                      "accused_suspect = ?, time_spent_minutes = ? WHERE progress_id = ?";
+        long now = clock.millis();
         
-        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
-            pstmt.setString(1, getCurrentTimestamp());
-            pstmt.setInt(2, solved ? 1 : 0);
-            pstmt.setString(3, accusedSuspect);
-            pstmt.setInt(4, timeMinutes);
-            pstmt.setInt(5, progressId);
-            
-            pstmt.executeUpdate();
+        try {
+            database.withWriter(timed(COMPLETE_CASE, conn -> {
+                conn.setAutoCommit(false);
+                try {
+                    PreparedStatement select = database.prepare(conn, selectSql);
+                    select.setInt(1, progressId);
+                    CaseRecord before = null;
+                    String difficulty = null;
+                    try (ResultSet rs = select.executeQuery()) {
+                        if (rs.next()) {
+                            before = new CaseRecord(progressId, rs.getInt("player_id"), rs.getString("case_name"),
+                                null, rs.getString("completed_at"), rs.getInt("is_solved") == 1, 0, 0, null,
+                                rs.getInt("time_spent_minutes"));
+                            difficulty = rs.getString("difficulty");
+                        }
+                    }
+                    
+                    PreparedStatement pstmt = database.prepare(conn, sql);
+                    pstmt.setString(1, formatTimestamp(now));
+                    pstmt.setLong(2, now);
+                    pstmt.setInt(3, solved ? 1 : 0);
+                    pstmt.setString(4, accusedSuspect);
+                    pstmt.setInt(5, timeMinutes);
+                    pstmt.setInt(6, progressId);
+                    pstmt.executeUpdate();
+                    
+                    if (before != null) {
+                        if (before.completedAt != null) {
+                            LeaderboardService.applyCompletion(database, conn, before.playerId, before.caseName,
+                                difficulty, before.solved, before.timeSpentMinutes, -1);
+                        }
+                        LeaderboardService.applyCompletion(database, conn, before.playerId, before.caseName,
+                            difficulty, solved, timeMinutes, 1);
+                    }
+                    conn.commit();
+                } catch (SQLException e) {
+                    conn.rollback();
+                    throw e;
+                } finally {
+                    conn.setAutoCommit(true);
+                }
+                return null;
+            }));
             System.out.println("Case completed and saved to database");
         } catch (SQLException e) {
             System.err.println("Error completing case: " + e.getMessage());
@@ -287,182 +424,503 @@ public class DatabaseManager {
     }
     
     /**
-     * Gets case progress for a player using PreparedStatement
+     * Streams case progress for a player, newest first, fetching rows in chunks of fetchSize
+     * The caller must close the stream (try-with-resources): it holds a reader connection
+     * until it is closed or fully consumed.
      */
-    public ResultSet getCaseHistory(int playerId) {
-        if (!dbAvailable) return null;
-        
-        String sql = "SELECT * FROM case_progress WHERE player_id = ? ORDER BY started_at DESC";
+    public Stream<CaseRecord> streamCaseHistory(int playerId, int fetchSize) {
+        if (!dbAvailable) return Stream.empty();
+        writeQueue.flush();
         
-        try {
-            PreparedStatement pstmt = connection.prepareStatement(sql);
-            pstmt.setInt(1, playerId);
-            return pstmt.executeQuery();
-        } catch (SQLException e) {
-            System.err.println("Error getting case history: " + e.getMessage());
+        return streamRows(CASE_HISTORY_SQL, pstmt -> pstmt.setInt(1, playerId), CaseRecord::fromRow,
+                          fetchSize, CASE_HISTORY, "case history");
+    }
+    
+    /**
+     * Passes each case progress row for a player to the action, newest first
+     */
+    public void forEachCaseHistory(int playerId, Consumer<CaseRecord> action) {
+        try (Stream<CaseRecord> rows = streamCaseHistory(playerId, DEFAULT_FETCH_SIZE)) {
+            rows.forEach(action);
         }
-        
-        return null;
     }
     
     // ==================== SUSPECT DATA OPERATIONS ====================
     
     /**
      * Saves suspect data to database using PreparedStatement
+     * Suspects are unique per case, so saving the same name again updates the row
      */
     public void saveSuspect(String name, String role, String statement, boolean isGuilty, String caseName) {
         if (!dbAvailable) return;
         
-        String sql = "INSERT INTO suspects (suspect_name, role, statement, is_guilty, case_name) VALUES (?, ?, ?, ?, ?)";
-        
-        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
-            pstmt.setString(1, name);
-            pstmt.setString(2, role);
-            pstmt.setString(3, statement);
-            pstmt.setInt(4, isGuilty ? 1 : 0);
-            pstmt.setString(5, caseName);
-            
-            pstmt.executeUpdate();
+        try {
+            database.withWriter(timed(SAVE_SUSPECT, conn -> {
+                upsertSuspect(conn, name, role, statement, isGuilty, caseName);
+                return null;
+            }));
         } catch (SQLException e) {
             System.err.println("Error saving suspect: " + e.getMessage());
         }
     }
     
     /**
-     * Gets all suspects for a case using PreparedStatement
+     * Stores a case's suspect list once per version of its content
+     * Returns true if the database had to be updated, false if it was already current
      */
-    public ResultSet getSuspects(String caseName) {
-        if (!dbAvailable) return null;
+    public boolean syncSuspectCatalog(String caseName, List<Suspect> suspects) {
+        if (!dbAvailable) return false;
         
-        String sql = "SELECT * FROM suspects WHERE case_name = ?";
+        String contentHash = SuspectCatalog.contentHash(suspects);
+        if (suspectCatalog.isLoaded(caseName, contentHash)) {
+            return false;
+        }
         
         try {
-            PreparedStatement pstmt = connection.prepareStatement(sql);
-            pstmt.setString(1, caseName);
-            return pstmt.executeQuery();
+            boolean updated = database.withWriter(timed(SYNC_SUSPECT_CATALOG, conn -> {
+                if (contentHash.equals(getCatalogHash(conn, caseName))) {
+                    return false;
+                }
+                writeCatalog(conn, caseName, suspects, contentHash);
+                return true;
+            }));
+            suspectCatalog.markLoaded(caseName, contentHash);
+            if (updated) {
+                System.out.println("Suspect catalog updated for case: " + caseName);
+            }
+            return updated;
         } catch (SQLException e) {
-            System.err.println("Error getting suspects: " + e.getMessage());
+            System.err.println("Error syncing suspect catalog: " + e.getMessage());
         }
         
-        return null;
+        return false;
+    }
+    
+    private String getCatalogHash(Connection conn, String caseName) throws SQLException {
+        PreparedStatement pstmt = database.prepare(conn, "SELECT content_hash FROM case_catalog WHERE case_name = ?");
+        pstmt.setString(1, caseName);
+        
+        try (ResultSet rs = pstmt.executeQuery()) {
+            return rs.next() ? rs.getString(1) : null;
+        }
+    }
+    
+    private void writeCatalog(Connection conn, String caseName, List<Suspect> suspects, String contentHash) throws SQLException {
+        conn.setAutoCommit(false);
+        try {
+            Set<String> names = new HashSet<>();
+            for (Suspect suspect : suspects) {
+                upsertSuspect(conn, suspect.getName(), suspect.getRole(), suspect.getStatement(),
+                              suspect.isGuilty(), caseName);
+                names.add(suspect.getName());
+            }
+            
+            // Remove suspects that are no longer part of the case
+            PreparedStatement select = database.prepare(conn, "SELECT suspect_name FROM suspects WHERE case_name = ?");
+            select.setString(1, caseName);
+            List<String> stale = new ArrayList<>();
+            try (ResultSet rs = select.executeQuery()) {
+                while (rs.next()) {
+                    if (!names.contains(rs.getString(1))) {
+                        stale.add(rs.getString(1));
+                    }
+                }
+            }
+            PreparedStatement delete = database.prepare(conn, "DELETE FROM suspects WHERE case_name = ? AND suspect_name = ?");
+            for (String name : stale) {
+                delete.setString(1, caseName);
+                delete.setString(2, name);
+                delete.executeUpdate();
+            }
+            
+            PreparedStatement catalog = database.prepare(conn,
+                "INSERT INTO case_catalog (case_name, content_hash, suspect_count, updated_at) VALUES (?, ?, ?, ?) " +
+                "ON CONFLICT(case_name) DO UPDATE SET content_hash = excluded.content_hash, " +
+                "suspect_count = excluded.suspect_count, updated_at = excluded.updated_at");
+            catalog.setString(1, caseName);
+            catalog.setString(2, contentHash);
+            catalog.setInt(3, suspects.size());
+            catalog.setString(4, getCurrentTimestamp());
+            catalog.executeUpdate();
+            
+            conn.commit();
+        } catch (SQLException e) {
+            conn.rollback();
+            throw e;
+        } finally {
+            conn.setAutoCommit(true);
+        }
+    }
+    
+    private void upsertSuspect(Connection conn, String name, String role, String statement,
+                               boolean isGuilty, String caseName) throws SQLException {
+        PreparedStatement pstmt = database.prepare(conn, UPSERT_SUSPECT_SQL);
+        pstmt.setString(1, name);
+        pstmt.setString(2, role);
+        pstmt.setString(3, statement);
+        pstmt.setInt(4, isGuilty ? 1 : 0);
+        pstmt.setString(5, caseName);
+        
+        pstmt.executeUpdate();
+    }
+    
+    /**
+     * Streams all suspects stored for a case
+     * The caller must close the stream (try-with-resources): it holds a reader connection
+     * until it is closed or fully consumed.
+     */
+    public Stream<SuspectRecord> streamSuspects(String caseName, int fetchSize) {
+        if (!dbAvailable) return Stream.empty();
+        
+        return streamRows(SUSPECTS_SQL, pstmt -> pstmt.setString(1, caseName), SuspectRecord::fromRow,
+                          fetchSize, SUSPECTS, "suspects");
+    }
+    
+    /**
+     * Passes each suspect stored for a case to the action
+     */
+    public void forEachSuspect(String caseName, Consumer<SuspectRecord> action) {
+        try (Stream<SuspectRecord> rows = streamSuspects(caseName, DEFAULT_FETCH_SIZE)) {
+            rows.forEach(action);
+        }
     }
     
     // ==================== PLAYER CHOICES OPERATIONS ====================
     
     /**
-     * Records a player's choice to question a suspect using PreparedStatement
+     * Records a player's choice to question a suspect using PreparedStatement (queued, written in the background)
      */
     public void recordPlayerChoice(int progressId, int playerId, String suspectName, int cluesDiscovered, int choiceOrder) {
         if (!dbAvailable) return;
         
-        String sql = "INSERT INTO player_choices (progress_id, player_id, suspect_name, questioned_at, clues_discovered, choice_order) " +
-                     "VALUES (?, ?, ?, ?, ?, ?)";
+        String sql = "INSERT INTO player_choices (progress_id, player_id, suspect_name, questioned_at, questioned_at_ms, " +
+                     "clues_discovered, choice_order) VALUES (?, ?, ?, ?, ?, ?, ?)";
+        long questionedAt = clock.millis();
         
-        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
+        writeQueue.submit(timedWrite(RECORD_PLAYER_CHOICE, conn -> {
+            PreparedStatement pstmt = database.prepare(conn, sql);
             pstmt.setInt(1, progressId);
             pstmt.setInt(2, playerId);
             pstmt.setString(3, suspectName);
-            pstmt.setString(4, getCurrentTimestamp());
-            pstmt.setInt(5, cluesDiscovered);
-            pstmt.setInt(6, choiceOrder);
+            pstmt.setString(4, formatTimestamp(questionedAt));
+            pstmt.setLong(5, questionedAt);
+            pstmt.setInt(6, cluesDiscovered);
+            pstmt.setInt(7, choiceOrder);
             
             pstmt.executeUpdate();
             System.out.println("Player choice recorded: " + suspectName);
-        } catch (SQLException e) {
-            System.err.println("Error recording player choice: " + e.getMessage());
-        }
+        }));
     }
     
     /**
-     * Gets player choices for a case using PreparedStatement
+     * Streams the player choices for a case in the order they were made
+     * The caller must close the stream (try-with-resources): it holds a reader connection
+     * until it is closed or fully consumed.
      */
-    public ResultSet getPlayerChoices(int progressId) {
-        if (!dbAvailable) return null;
+    public Stream<ChoiceRecord> streamPlayerChoices(int progressId, int fetchSize) {
+        if (!dbAvailable) return Stream.empty();
+        writeQueue.flush();
         
-        String sql = "SELECT * FROM player_choices WHERE progress_id = ? ORDER BY choice_order";
-        
-        try {
-            PreparedStatement pstmt = connection.prepareStatement(sql);
-            pstmt.setInt(1, progressId);
-            return pstmt.executeQuery();
-        } catch (SQLException e) {
-            System.err.println("Error getting player choices: " + e.getMessage());
+        return streamRows(PLAYER_CHOICES_SQL, pstmt -> pstmt.setInt(1, progressId), ChoiceRecord::fromRow,
+                          fetchSize, PLAYER_CHOICES, "player choices");
+    }
+    
+    /**
+     * Passes each player choice for a case to the action, in the order they were made
+     */
+    public void forEachPlayerChoice(int progressId, Consumer<ChoiceRecord> action) {
+        try (Stream<ChoiceRecord> rows = streamPlayerChoices(progressId, DEFAULT_FETCH_SIZE)) {
+            rows.forEach(action);
         }
-        
-        return null;
     }
     
     // ==================== CLUES OPERATIONS ====================
     
     /**
-     * Records a discovered clue using PreparedStatement
+     * Records a discovered clue using PreparedStatement (queued, written in the background)
      */
     public void recordClueDiscovered(int progressId, String clueName) {
         if (!dbAvailable) return;
         
-        String sql = "INSERT INTO clues_discovered (progress_id, clue_name, discovered_at) VALUES (?, ?, ?)";
+        String sql = "INSERT INTO clues_discovered (progress_id, clue_name, discovered_at, discovered_at_ms) VALUES (?, ?, ?, ?)";
+        long discoveredAt = clock.millis();
         
-        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
+        writeQueue.submit(timedWrite(RECORD_CLUE_DISCOVERED, conn -> {
+            PreparedStatement pstmt = database.prepare(conn, sql);
             pstmt.setInt(1, progressId);
             pstmt.setString(2, clueName);
-            pstmt.setString(3, getCurrentTimestamp());
+            pstmt.setString(3, formatTimestamp(discoveredAt));
+            pstmt.setLong(4, discoveredAt);
             
             pstmt.executeUpdate();
-        } catch (SQLException e) {
-            System.err.println("Error recording clue: " + e.getMessage());
+        }));
+    }
+    
+    /**
+     * Streams the clues discovered in a case in discovery order
+     * The caller must close the stream (try-with-resources): it holds a reader connection
+     * until it is closed or fully consumed.
+     */
+    public Stream<ClueRecord> streamDiscoveredClues(int progressId, int fetchSize) {
+        if (!dbAvailable) return Stream.empty();
+        writeQueue.flush();
+        
+        return streamRows(DISCOVERED_CLUES_SQL, pstmt -> pstmt.setInt(1, progressId), ClueRecord::fromRow,
+                          fetchSize, DISCOVERED_CLUES, "discovered clues");
+    }
+    
+    /**
+     * Passes each clue discovered in a case to the action, in discovery order
+     */
+    public void forEachDiscoveredClue(int progressId, Consumer<ClueRecord> action) {
+        try (Stream<ClueRecord> rows = streamDiscoveredClues(progressId, DEFAULT_FETCH_SIZE)) {
+            rows.forEach(action);
         }
     }
     
+    // ==================== SESSION SNAPSHOT OPERATIONS ====================
+    
     /**
-     * Gets all clues discovered in a case using PreparedStatement
+     * Stores a player's latest snapshot of a case, replacing any earlier one (queued)
      */
-    public ResultSet getDiscoveredClues(int progressId) {
+    public void saveSessionSnapshot(int playerId, String caseName, byte[] snapshot) {
+        if (!dbAvailable) return;
+        
+        String sql = "INSERT INTO session_snapshots (player_id, case_name, snapshot, saved_at) VALUES (?, ?, ?, ?) " +
+                     "ON CONFLICT(player_id, case_name) DO UPDATE SET snapshot = excluded.snapshot, saved_at = excluded.saved_at";
+        String savedAt = getCurrentTimestamp();
+        
+        writeQueue.submit(timedWrite(SAVE_SESSION_SNAPSHOT, conn -> {
+            PreparedStatement pstmt = database.prepare(conn, sql);
+            pstmt.setInt(1, playerId);
+            pstmt.setString(2, caseName);
+            pstmt.setBytes(3, snapshot);
+            pstmt.setString(4, savedAt);
+            
+            pstmt.executeUpdate();
+        }));
+    }
+    
+    /**
+     * Loads a player's saved snapshot of a case, or null if there is none
+     */
+    public byte[] loadSessionSnapshot(int playerId, String caseName) {
         if (!dbAvailable) return null;
+        writeQueue.flush();
         
-        String sql = "SELECT * FROM clues_discovered WHERE progress_id = ? ORDER BY discovered_at";
+        String sql = "SELECT snapshot FROM session_snapshots WHERE player_id = ? AND case_name = ?";
         
         try {
-            PreparedStatement pstmt = connection.prepareStatement(sql);
-            pstmt.setInt(1, progressId);
-            return pstmt.executeQuery();
+            return database.withReader(timed(LOAD_SESSION_SNAPSHOT, conn -> {
+                PreparedStatement pstmt = database.prepare(conn, sql);
+                pstmt.setInt(1, playerId);
+                pstmt.setString(2, caseName);
+                
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    return rs.next() ? rs.getBytes(1) : null;
+                }
+            }));
         } catch (SQLException e) {
-            System.err.println("Error getting discovered clues: " + e.getMessage());
+            System.err.println("Error loading session snapshot: " + e.getMessage());
         }
         
         return null;
     }
     
+    /**
+     * Removes a player's snapshot once the case is closed (queued)
+     */
+    public void deleteSessionSnapshot(int playerId, String caseName) {
+        if (!dbAvailable) return;
+        
+        String sql = "DELETE FROM session_snapshots WHERE player_id = ? AND case_name = ?";
+        
+        writeQueue.submit(timedWrite(DELETE_SESSION_SNAPSHOT, conn -> {
+            PreparedStatement pstmt = database.prepare(conn, sql);
+            pstmt.setInt(1, playerId);
+            pstmt.setString(2, caseName);
+            pstmt.executeUpdate();
+        }));
+    }
+    
+    // ==================== ROW STREAMING ====================
+    
+    private interface ParameterBinder {
+        void bind(PreparedStatement pstmt) throws SQLException;
+    }
+    
+    private interface RowMapper<T> {
+        T map(ResultSet rs) throws SQLException;
+    }
+    
+    /**
+     * Runs a query on a borrowed reader connection and maps rows one at a time as the
+     * stream is consumed. The ResultSet and connection are released when the rows run
+     * out or the stream is closed, whichever comes first; that is when the histogram records.
+     */
+    private <T> Stream<T> streamRows(String sql, ParameterBinder binder, RowMapper<T> mapper,
+                                     int fetchSize, LatencyHistogram histogram, String description) {
+        Connection reader;
+        ResultSet rs;
+        try {
+            reader = database.acquireReader();
+        } catch (SQLException e) {
+            System.err.println("Error getting " + description + ": " + e.getMessage());
+            return Stream.empty();
+        }
+        long start = System.nanoTime();
+        
+        try {
+            PreparedStatement pstmt = database.prepare(reader, sql);
+            binder.bind(pstmt);
+            pstmt.setFetchSize(fetchSize);
+            rs = pstmt.executeQuery();
+        } catch (SQLException e) {
+            database.releaseReader(reader);
+            histogram.recordSince(start);
+            System.err.println("Error getting " + description + ": " + e.getMessage());
+            return Stream.empty();
+        }
+        
+        Runnable release = new Runnable() {
+            private boolean released = false;
+            
+            @Override
+            public void run() {
+                if (released) return;
+                released = true;
+                try {
+                    rs.close();
+                } catch (SQLException e) {
+                    System.err.println("Error closing " + description + " rows: " + e.getMessage());
+                }
+                database.releaseReader(reader);
+                histogram.recordSince(start);
+            }
+        };
+        
+        Spliterator<T> rows = new Spliterators.AbstractSpliterator<T>(Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL) {
+            @Override
+            public boolean tryAdvance(Consumer<? super T> action) {
+                try {
+                    if (!rs.isClosed() && rs.next()) {
+                        action.accept(mapper.map(rs));
+                        return true;
+                    }
+                } catch (SQLException e) {
+                    System.err.println("Error reading " + description + ": " + e.getMessage());
+                }
+                release.run();
+                return false;
+            }
+        };
+        
+        return StreamSupport.stream(rows, false).onClose(release);
+    }
+    
     // ==================== UTILITY METHODS ====================
     
+    private static LatencyHistogram operation(String name) {
+        return Metrics.shared().histogram("db." + name);
+    }
+    
+    /**
+     * Wraps work run through the pool so its time is recorded in the operation's histogram
+     */
+    private static <T> DatabaseConnection.SqlWork<T> timed(LatencyHistogram histogram,
+                                                           DatabaseConnection.SqlWork<T> work) {
+        return conn -> {
+            long start = System.nanoTime();
+            try {
+                return work.run(conn);
+            } finally {
+                histogram.recordSince(start);
+            }
+        };
+    }
+    
+    /**
+     * Wraps a queued write so its time on the writer thread is recorded in the operation's histogram
+     */
+    private static WriteBehindQueue.PendingWrite timedWrite(LatencyHistogram histogram,
+                                                            WriteBehindQueue.PendingWrite write) {
+        return conn -> {
+            long start = System.nanoTime();
+            try {
+                write.execute(conn);
+            } finally {
+                histogram.recordSince(start);
+            }
+        };
+    }
+    
     /**
      * Gets current timestamp in standard format
      */
     private String getCurrentTimestamp() {
-        return new SimpleDateFormat("yyyy-MM-dd HH:mm:ss").format(new Date());
+        return clock.now(GameClock.Format.DB);
     }
     
     /**
-     * Closes database connection
+     * Formats an epoch-millis time for the text timestamp columns
+     */
+    private String formatTimestamp(long epochMillis) {
+        return clock.format(GameClock.Format.DB, epochMillis);
+    }
+    
+    /**
+     * Blocks until all queued writes have been committed
+     */
+    public void flushPendingWrites() {
+        if (writeQueue != null) {
+            writeQueue.flush();
+        }
+    }
+    
+    /**
+     * Gets write-behind queue counters (throughput and backpressure)
+     */
+    public WriteBehindQueue.Stats getWriteQueueStats() {
+        return writeQueue != null ? writeQueue.getStats() : null;
+    }
+    
+    /**
+     * Flushes queued writes and closes database connections
      */
     public void close() {
-        try {
-            if (connection != null && !connection.isClosed()) {
-                connection.close();
-                System.out.println("Database connection closed");
-            }
-        } catch (SQLException e) {
-            System.err.println("Error closing database: " + e.getMessage());
+        if (writeQueue != null) {
+            writeQueue.close();
+            System.out.println("Write queue drained: " + writeQueue.getStats());
+        }
+        
+        if (database != null && database.isOpen()) {
+            database.close();
+            System.out.println("Database connection closed");
         }
     }
     
     /**
-     * Gets the active connection
+     * Gets player profile cache hit/miss counters
+     */
+    public PlayerCache getPlayerCache() {
+        return playerCache;
+    }
+    
+    /**
+     * Gets statement cache hit/miss counters across all pooled connections
      */
-    public Connection getConnection() {
-        return connection;
+    public StatementCache.Stats getStatementCacheStats() {
+        return database != null ? database.getStatementCacheStats() : null;
     }
     
-    // ==================== INNER CLASS ====================
+    /**
+     * Gets the pooled connection provider
+     */
+    public DatabaseConnection getDatabase() {
+        return database;
+    }
+    
+    // ==================== INNER CLASSES ====================
     
     /**
      * Data class for player statistics
@@ -489,4 +947,144 @@ public class DatabaseManager {
                 totalGames > 0 ? (casesSolved * 100.0 / totalGames) : 0);
         }
     }
+    
+    /**
+     * One row of case_progress
+     */
+    public static class CaseRecord {
+        public final int progressId;
+        public final int playerId;
+        public final String caseName;
+        public final String startedAt;
+        public final String completedAt;
+        public final boolean solved;
+        public final int suspectsQuestioned;
+        public final int cluesFound;
+        public final String accusedSuspect;
+        public final int timeSpentMinutes;
+        
+        public CaseRecord(int progressId, int playerId, String caseName, String startedAt, String completedAt,
+                          boolean solved, int suspectsQuestioned, int cluesFound, String accusedSuspect,
+                          int timeSpentMinutes) {
+            this.progressId = progressId;
+            this.playerId = playerId;
+            this.caseName = caseName;
+            this.startedAt = startedAt;
+            this.completedAt = completedAt;
+            this.solved = solved;
+            this.suspectsQuestioned = suspectsQuestioned;
+            this.cluesFound = cluesFound;
+            this.accusedSuspect = accusedSuspect;
+            this.timeSpentMinutes = timeSpentMinutes;
+        }
+        
+        static CaseRecord fromRow(ResultSet rs) throws SQLException {
+            return new CaseRecord(
+                rs.getInt("progress_id"),
+                rs.getInt("player_id"),
+                rs.getString("case_name"),
+                rs.getString("started_at"),
+                rs.getString("completed_at"),
+                rs.getInt("is_solved") == 1,
+                rs.getInt("suspects_questioned"),
+                rs.getInt("clues_found"),
+                rs.getString("accused_suspect"),
+                rs.getInt("time_spent_minutes")
+            );
+        }
+    }
+    
+    /**
+     * One row of suspects
+     */
+    public static class SuspectRecord {
+        public final int suspectId;
+        public final String name;
+        public final String role;
+        public final String statement;
+        public final boolean guilty;
+        public final String caseName;
+        
+        public SuspectRecord(int suspectId, String name, String role, String statement, boolean guilty, String caseName) {
+            this.suspectId = suspectId;
+            this.name = name;
+            this.role = role;
+            this.statement = statement;
+            this.guilty = guilty;
+            this.caseName = caseName;
+        }
+        
+        static SuspectRecord fromRow(ResultSet rs) throws SQLException {
+            return new SuspectRecord(
+                rs.getInt("suspect_id"),
+                rs.getString("suspect_name"),
+                rs.getString("role"),
+                rs.getString("statement"),
+                rs.getInt("is_guilty") == 1,
+                rs.getString("case_name")
+            );
+        }
+    }
+    
+    /**
+     * One row of player_choices
+     */
+    public static class ChoiceRecord {
+        public final int choiceId;
+        public final int progressId;
+        public final int playerId;
+        public final String suspectName;
+        public final String questionedAt;
+        public final int cluesDiscovered;
+        public final int choiceOrder;
+        
+        public ChoiceRecord(int choiceId, int progressId, int playerId, String suspectName, String questionedAt,
+                            int cluesDiscovered, int choiceOrder) {
+            this.choiceId = choiceId;
+            this.progressId = progressId;
+            this.playerId = playerId;
+            this.suspectName = suspectName;
+            this.questionedAt = questionedAt;
+            this.cluesDiscovered = cluesDiscovered;
+            this.choiceOrder = choiceOrder;
+        }
+        
+        static ChoiceRecord fromRow(ResultSet rs) throws SQLException {
+            return new ChoiceRecord(
+                rs.getInt("choice_id"),
+                rs.getInt("progress_id"),
+                rs.getInt("player_id"),
+                rs.getString("suspect_name"),
+                rs.getString("questioned_at"),
+                rs.getInt("clues_discovered"),
+                rs.getInt("choice_order")
+            );
+        }
+    }
+    
+    /**
+     * One row of clues_discovered
+     */
+    public static class ClueRecord {
+        public final int clueId;
+        public final int progressId;
+        public final String clueName;
+        public final String discoveredAt;
+        
+        public ClueRecord(int clueId, int progressId, String clueName, String discoveredAt) {
+            this.clueId = clueId;
+            this.progressId = progressId;
+            this.clueName = clueName;
+            this.discoveredAt = discoveredAt;
+        }
+        
+        static ClueRecord fromRow(ResultSet rs) throws SQLException {
+            return new ClueRecord(
+                rs.getInt("clue_id"),
+                rs.getInt("progress_id"),
+                rs.getString("clue_name"),
+                rs.getString("discovered_at")
+            );
+        }
+    }
 }
@@ -1,7 +1,10 @@
 package data;
 
-import java.sql.ResultSet;
-import java.sql.SQLException;
+import model.CaseDifficulty;
+import model.Suspect;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
 
 /**
  * DatabaseTest - Demonstrates and tests all database functionality
@@ -24,7 +27,7 @@ public class DatabaseTest {
             // Test 2: Start cases
             System.out.println("TEST 2: Starting Cases");
             System.out.println("----------------------");
-            int case1 = db.startCase(player1, "The Stolen Sapphire");
+            int case1 = db.startCase(player1, "The Stolen Sapphire", CaseDifficulty.HARD);
             int case2 = db.startCase(player2, "The Stolen Sapphire");
             System.out.println("Started 2 cases\n");
             
@@ -36,6 +39,18 @@ public class DatabaseTest {
             db.saveSuspect("Sarah Mitchell", "Assistant Curator", "I left at 6 PM...", true, "The Stolen Sapphire");
             System.out.println("Saved 3 suspects\n");
             
+            // Test 3b: Suspect catalog is only written when its content changes
+            System.out.println("TEST 3b: Syncing Suspect Catalog");
+            System.out.println("--------------------------------");
+            List<Suspect> catalog = new ArrayList<>();
+            catalog.add(new Suspect("Dr. Eleanor Hayes", "Museum Curator", "I was home all night..."));
+            catalog.add(new Suspect("Marcus Cole", "Security Guard", "I was on duty..."));
+            catalog.add(new Suspect("Sarah Mitchell", "Assistant Curator", "I left at 6 PM..."));
+            catalog.get(2).setGuilty(true);
+            System.out.println("First sync wrote catalog: " + db.syncSuspectCatalog("The Stolen Sapphire", catalog));
+            System.out.println("Second sync wrote catalog: " + db.syncSuspectCatalog("The Stolen Sapphire", catalog));
+            System.out.println();
+            
             // Test 4: Record player choices
             System.out.println("TEST 4: Recording Player Choices");
             System.out.println("--------------------------------");
@@ -91,68 +106,105 @@ public class DatabaseTest {
             // Test 10: Retrieve case history
             System.out.println("TEST 10: Retrieving Case History");
             System.out.println("--------------------------------");
-            ResultSet caseHistory = db.getCaseHistory(player1);
-            if (caseHistory != null) {
-                while (caseHistory.next()) {
-                    System.out.println("Case: " + caseHistory.getString("case_name"));
-                    System.out.println("  Started: " + caseHistory.getString("started_at"));
-                    System.out.println("  Completed: " + caseHistory.getString("completed_at"));
-                    System.out.println("  Solved: " + (caseHistory.getInt("is_solved") == 1 ? "Yes" : "No"));
-                    System.out.println("  Suspects Questioned: " + caseHistory.getInt("suspects_questioned"));
-                    System.out.println("  Clues Found: " + caseHistory.getInt("clues_found"));
-                    System.out.println("  Accused: " + caseHistory.getString("accused_suspect"));
-                    System.out.println("  Time: " + caseHistory.getInt("time_spent_minutes") + " minutes");
-                }
-                caseHistory.close();
-            }
+            db.forEachCaseHistory(player1, record -> {
+                System.out.println("Case: " + record.caseName);
+                System.out.println("  Started: " + record.startedAt);
+                System.out.println("  Completed: " + record.completedAt);
+                System.out.println("  Solved: " + (record.solved ? "Yes" : "No"));
+                System.out.println("  Suspects Questioned: " + record.suspectsQuestioned);
+                System.out.println("  Clues Found: " + record.cluesFound);
+                System.out.println("  Accused: " + record.accusedSuspect);
+                System.out.println("  Time: " + record.timeSpentMinutes + " minutes");
+            });
             System.out.println();
             
             // Test 11: Retrieve player choices
             System.out.println("TEST 11: Retrieving Player Choices");
             System.out.println("----------------------------------");
-            ResultSet choices = db.getPlayerChoices(case1);
-            if (choices != null) {
-                while (choices.next()) {
-                    System.out.println("Choice " + choices.getInt("choice_order") + ": " + 
-                                     choices.getString("suspect_name") + 
-                                     " (Clues: " + choices.getInt("clues_discovered") + ")");
-                }
-                choices.close();
-            }
+            db.forEachPlayerChoice(case1, choice ->
+                System.out.println("Choice " + choice.choiceOrder + ": " + 
+                                 choice.suspectName + 
+                                 " (Clues: " + choice.cluesDiscovered + ")"));
             System.out.println();
             
-            // Test 12: Retrieve discovered clues
+            // Test 12: Retrieve discovered clues (streamed)
             System.out.println("TEST 12: Retrieving Discovered Clues");
             System.out.println("------------------------------------");
-            ResultSet clues = db.getDiscoveredClues(case1);
-            if (clues != null) {
-                while (clues.next()) {
-                    System.out.println("Clue: " + clues.getString("clue_name") + 
-                                     " (Found: " + clues.getString("discovered_at") + ")");
-                }
-                clues.close();
+            try (Stream<DatabaseManager.ClueRecord> clues = db.streamDiscoveredClues(case1, 2)) {
+                clues.forEach(clue ->
+                    System.out.println("Clue: " + clue.clueName + 
+                                     " (Found: " + clue.discoveredAt + ")"));
             }
             System.out.println();
             
             // Test 13: Retrieve suspects
             System.out.println("TEST 13: Retrieving Suspects");
             System.out.println("----------------------------");
-            ResultSet suspects = db.getSuspects("The Stolen Sapphire");
-            if (suspects != null) {
-                while (suspects.next()) {
-                    System.out.println("Suspect: " + suspects.getString("suspect_name") + 
-                                     " (" + suspects.getString("role") + ")");
-                    System.out.println("  Guilty: " + (suspects.getInt("is_guilty") == 1 ? "Yes" : "No"));
-                }
-                suspects.close();
+            db.forEachSuspect("The Stolen Sapphire", suspect -> {
+                System.out.println("Suspect: " + suspect.name + 
+                                 " (" + suspect.role + ")");
+                System.out.println("  Guilty: " + (suspect.guilty ? "Yes" : "No"));
+            });
+            System.out.println();
+            
+            // Test 14: Write-behind queue
+            System.out.println("TEST 14: Write-Behind Queue");
+            System.out.println("---------------------------");
+            db.flushPendingWrites();
+            System.out.println(db.getWriteQueueStats());
+            System.out.println();
+            
+            // Test 15: Statement cache
+            System.out.println("TEST 15: Statement Cache");
+            System.out.println("------------------------");
+            System.out.println(db.getStatementCacheStats());
+            System.out.println();
+            
+            // Test 16: Player cache (repeat lookups are served from memory)
+            System.out.println("TEST 16: Player Cache");
+            System.out.println("---------------------");
+            for (int i = 0; i < 3; i++) {
+                db.getPlayerId("Detective Holmes");
+                db.getPlayerStats(player1);
+            }
+            System.out.println(db.getPlayerStats(player1));
+            System.out.println(db.getPlayerCache());
+            System.out.println();
+            
+            // Test 17: Leaderboard and completion stats (maintained by completeCase)
+            System.out.println("TEST 17: Leaderboard");
+            System.out.println("--------------------");
+            LeaderboardService leaderboard = new LeaderboardService(db);
+            System.out.println(leaderboard.getCaseStats("The Stolen Sapphire"));
+            System.out.println(leaderboard.getDifficultyStats(CaseDifficulty.HARD));
+            for (LeaderboardService.LeaderboardEntry entry : leaderboard.getTopPlayers(5)) {
+                System.out.println(entry);
+            }
+            System.out.println();
+            
+            // Test 18: Streams that are never closed do not block later reads forever
+            System.out.println("TEST 18: Abandoned Streams");
+            System.out.println("--------------------------");
+            DatabaseConnection pool = db.getDatabase();
+            long timeout = pool.getReaderTimeoutMillis();
+            pool.setReaderTimeoutMillis(200);
+            List<Stream<DatabaseManager.SuspectRecord>> abandoned = new ArrayList<>();
+            for (int i = 0; i < pool.getReaderCount(); i++) {
+                Stream<DatabaseManager.SuspectRecord> rows = db.streamSuspects("The Stolen Sapphire", 1);
+                rows.iterator().next();
+                abandoned.add(rows);
             }
+            long start = System.nanoTime();
+            int missing = db.getPlayerId("Detective Marple");
+            System.out.println("Read with every reader taken gave up after "
+                               + (System.nanoTime() - start) / 1_000_000 + " ms (result " + missing + ")");
+            abandoned.forEach(Stream::close);
+            pool.setReaderTimeoutMillis(timeout);
+            System.out.println("Read after closing the streams: player " + db.getPlayerId("Detective Poirot"));
             System.out.println();
             
             System.out.println("=== ALL TESTS COMPLETED SUCCESSFULLY ===");
             
-        } catch (SQLException e) {
-            System.err.println("Test error: " + e.getMessage());
-            e.printStackTrace();
         } finally {
             db.close();
         }
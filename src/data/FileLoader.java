@@ -3,7 +3,9 @@ package data;
 import java.io.BufferedReader;
 import java.io.FileReader;
 import java.io.IOException;
+import java.nio.file.Paths;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 public class FileLoader {
@@ -12,6 +14,7 @@ public class FileLoader {
      * Loads the crime story from case1.txt
      */
     public static String loadCrimeStory(String filePath) {
+        long start = System.nanoTime();
         StringBuilder story = new StringBuilder();
         
         try (BufferedReader reader = new BufferedReader(new FileReader(filePath))) {
@@ -21,17 +24,22 @@ public class FileLoader {
             }
         } catch (IOException e) {
             System.err.println("Error loading crime story: " + e.getMessage());
+            Metrics.shared().counter("file.errors").increment();
             // Return default story if file not found
             return getDefaultCrimeStory();
         }
         
+        recordLoad(filePath, start);
         return story.toString();
     }
     
     /**
      * Parses clues from clues.txt file
+     * A clue's optional "Requires:" line lists clues the player must already have found
+     * before it can be revealed (enforced above EASY, see ClueGate).
      */
     public static List<ClueData> loadClues(String filePath) {
+        long start = System.nanoTime();
         List<ClueData> clues = new ArrayList<>();
         
         try (BufferedReader reader = new BufferedReader(new FileReader(filePath))) {
@@ -39,6 +47,7 @@ public class FileLoader {
             String currentClueName = null;
             String currentLocation = null;
             StringBuilder currentDescription = new StringBuilder();
+            List<String> currentRequires = new ArrayList<>();
             
             while ((line = reader.readLine()) != null) {
                 line = line.trim();
@@ -47,7 +56,8 @@ public class FileLoader {
                 if (line.startsWith("CLUE #") && line.contains(":")) {
                     // Save previous clue if exists
                     if (currentClueName != null) {
-                        clues.add(new ClueData(currentClueName, currentDescription.toString().trim(), currentLocation));
+                        clues.add(new ClueData(currentClueName, currentDescription.toString().trim(), currentLocation,
+                                               currentRequires));
                     }
                     
                     // Start new clue
@@ -56,9 +66,12 @@ public class FileLoader {
                         currentClueName = parts[1].trim();
                         currentDescription = new StringBuilder();
                         currentLocation = "";
+                        currentRequires = new ArrayList<>();
                     }
                 } else if (line.startsWith("Location:")) {
                     currentLocation = line.substring("Location:".length()).trim();
+                } else if (line.startsWith("Requires:")) {
+                    currentRequires = parseList(line.substring("Requires:".length()));
                 } else if (line.startsWith("Description:")) {
                     currentDescription.append(line.substring("Description:".length()).trim());
                 } else if (!line.isEmpty() && !line.equals("=".repeat(line.length())) && 
@@ -74,21 +87,27 @@ public class FileLoader {
             
             // Add the last clue
             if (currentClueName != null) {
-                clues.add(new ClueData(currentClueName, currentDescription.toString().trim(), currentLocation));
+                clues.add(new ClueData(currentClueName, currentDescription.toString().trim(), currentLocation,
+                                       currentRequires));
             }
             
         } catch (IOException e) {
             System.err.println("Error loading clues: " + e.getMessage());
+            Metrics.shared().counter("file.errors").increment();
             return getDefaultClues();
         }
         
+        recordLoad(filePath, start);
         return clues;
     }
     
     /**
      * Parses suspects from suspects.txt file
+     * A suspect's "REVEALS:" line lists the clues questioning them uncovers, and the
+     * "GUILTY PARTY:" line in the truth section names the culprit.
      */
     public static List<SuspectData> loadSuspects(String filePath) {
+        long start = System.nanoTime();
         List<SuspectData> suspects = new ArrayList<>();
         
         try (BufferedReader reader = new BufferedReader(new FileReader(filePath))) {
@@ -96,6 +115,8 @@ public class FileLoader {
             String currentName = null;
             String currentRole = null;
             StringBuilder currentStatement = new StringBuilder();
+            List<String> currentReveals = new ArrayList<>();
+            String guiltyName = null;
             boolean inStatement = false;
             
             while ((line = reader.readLine()) != null) {
@@ -105,7 +126,8 @@ public class FileLoader {
                 if (line.startsWith("SUSPECT #") && line.contains(":")) {
                     // Save previous suspect if exists
                     if (currentName != null && currentStatement.length() > 0) {
-                        suspects.add(new SuspectData(currentName, currentRole, currentStatement.toString().trim()));
+                        suspects.add(new SuspectData(currentName, currentRole, currentStatement.toString().trim(),
+                                                     currentReveals, false));
                     }
                     
                     // Start new suspect
@@ -114,12 +136,20 @@ public class FileLoader {
                         currentName = parts[1].trim();
                         currentRole = "";
                         currentStatement = new StringBuilder();
+                        currentReveals = new ArrayList<>();
                         inStatement = false;
                     }
                 } else if (line.startsWith("Occupation:")) {
                     currentRole = line.substring("Occupation:".length()).trim();
                 } else if (line.startsWith("OFFICIAL STATEMENT:")) {
                     inStatement = true;
+                } else if (line.startsWith("REVEALS:")) {
+                    inStatement = false;
+                    currentReveals = parseList(line.substring("REVEALS:".length()));
+                } else if (line.contains("GUILTY PARTY:")) {
+                    inStatement = false;
+                    guiltyName = line.substring(line.indexOf("GUILTY PARTY:") + "GUILTY PARTY:".length())
+                                     .replace("*", "").trim();
                 } else if (line.startsWith("MOTIVE:") || line.startsWith("MEANS:") || 
                           line.startsWith("ALIBI:") || line.startsWith("THE TRUTH")) {
                     inStatement = false;
@@ -137,17 +167,58 @@ public class FileLoader {
             
             // Add the last suspect
             if (currentName != null && currentStatement.length() > 0) {
-                suspects.add(new SuspectData(currentName, currentRole, currentStatement.toString().trim()));
+                suspects.add(new SuspectData(currentName, currentRole, currentStatement.toString().trim(),
+                                             currentReveals, false));
+            }
+            
+            if (guiltyName != null) {
+                suspects = markGuilty(suspects, guiltyName);
             }
             
         } catch (IOException e) {
             System.err.println("Error loading suspects: " + e.getMessage());
+            Metrics.shared().counter("file.errors").increment();
             return getDefaultSuspects();
         }
         
+        recordLoad(filePath, start);
         return suspects;
     }
     
+    /**
+     * Records a successful load in the file.<name> histogram (e.g. file.clues.txt)
+     */
+    private static void recordLoad(String filePath, long startNanos) {
+        Metrics.shared().histogram("file." + Paths.get(filePath).getFileName()).recordSince(startNanos);
+    }
+    
+    /**
+     * Splits a comma-separated list, dropping empty entries
+     */
+    static List<String> parseList(String text) {
+        List<String> items = new ArrayList<>();
+        for (String item : text.split(",")) {
+            if (!item.trim().isEmpty()) {
+                items.add(item.trim());
+            }
+        }
+        return items;
+    }
+    
+    private static List<SuspectData> markGuilty(List<SuspectData> suspects, String guiltyName) {
+        List<SuspectData> marked = new ArrayList<>(suspects.size());
+        boolean found = false;
+        for (SuspectData suspect : suspects) {
+            boolean guilty = suspect.name.equalsIgnoreCase(guiltyName);
+            found |= guilty;
+            marked.add(new SuspectData(suspect.name, suspect.role, suspect.statement, suspect.reveals, guilty));
+        }
+        if (!found) {
+            System.err.println("Guilty party '" + guiltyName + "' is not one of the suspects");
+        }
+        return marked;
+    }
+    
     // Default data if files are not found
     private static String getDefaultCrimeStory() {
         return "THE MYSTERY OF THE STOLEN SAPPHIRE\n\n" +
@@ -164,9 +235,12 @@ public class FileLoader {
     
     private static List<SuspectData> getDefaultSuspects() {
         List<SuspectData> suspects = new ArrayList<>();
-        suspects.add(new SuspectData("Dr. Hayes", "Curator", "I was home all night."));
-        suspects.add(new SuspectData("Marcus Cole", "Security Guard", "I saw nothing suspicious."));
-        suspects.add(new SuspectData("Sarah Mitchell", "Assistant Curator", "I left at 6 PM."));
+        suspects.add(new SuspectData("Dr. Hayes", "Curator", "I was home all night.",
+                                     List.of("FABRIC"), false));
+        suspects.add(new SuspectData("Marcus Cole", "Security Guard", "I saw nothing suspicious.",
+                                     List.of("FOOTPRINTS"), false));
+        suspects.add(new SuspectData("Sarah Mitchell", "Assistant Curator", "I left at 6 PM.",
+                                     List.of(), true));
         return suspects;
     }
     
@@ -175,11 +249,17 @@ public class FileLoader {
         public final String name;
         public final String description;
         public final String location;
+        public final List<String> requires;
         
         public ClueData(String name, String description, String location) {
+            this(name, description, location, List.of());
+        }
+        
+        public ClueData(String name, String description, String location, List<String> requires) {
             this.name = name;
             this.description = description;
             this.location = location;
+            this.requires = Collections.unmodifiableList(new ArrayList<>(requires));
         }
     }
     
@@ -187,11 +267,19 @@ public class FileLoader {
         public final String name;
         public final String role;
         public final String statement;
+        public final List<String> reveals;
+        public final boolean guilty;
         
         public SuspectData(String name, String role, String statement) {
+            this(name, role, statement, List.of(), false);
+        }
+        
+        public SuspectData(String name, String role, String statement, List<String> reveals, boolean guilty) {
             this.name = name;
             this.role = role;
             this.statement = statement;
+            this.reveals = Collections.unmodifiableList(new ArrayList<>(reveals));
+            this.guilty = guilty;
         }
     }
 }
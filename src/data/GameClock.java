@@ -0,0 +1,103 @@
+package data;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * GameClock - Shared source of the current time and its formatted forms
+ * Each format caches the text for the current second, so log lines and rows written
+ * within the same second reuse one String instead of formatting again. Safe to use
+ * from any thread.
+ */
+public class GameClock {
+
+    /**
+     * The timestamp formats used across the game
+     */
+    public enum Format {
+        /** Database text columns: 2025-12-10 16:30:48 */
+        DB("yyyy-MM-dd HH:mm:ss"),
+        /** Log entry times: 16:30:48 */
+        TIME("HH:mm:ss"),
+        /** Log headers: Dec 10, 2025 16:30 */
+        DATE("MMM dd, yyyy HH:mm"),
+        /** File names: 20251210_163048 */
+        FILE("yyyyMMdd_HHmmss");
+
+        final String pattern;
+
+        Format(String pattern) {
+            this.pattern = pattern;
+        }
+    }
+
+    private static final GameClock SHARED = new GameClock(Clock.systemDefaultZone());
+
+    private final Clock clock;
+    private final DateTimeFormatter[] formatters;
+    private final Cached[] cache;
+
+    public GameClock(Clock clock) {
+        this.clock = clock;
+        Format[] formats = Format.values();
+        this.formatters = new DateTimeFormatter[formats.length];
+        this.cache = new Cached[formats.length];
+        ZoneId zone = clock.getZone();
+        for (Format format : formats) {
+            formatters[format.ordinal()] = DateTimeFormatter.ofPattern(format.pattern).withZone(zone);
+            cache[format.ordinal()] = new Cached(Long.MIN_VALUE, "");
+        }
+    }
+
+    /**
+     * The clock used by the logger and the database
+     */
+    public static GameClock shared() {
+        return SHARED;
+    }
+
+    /**
+     * Current time as epoch milliseconds (the storage form for *_ms columns)
+     */
+    public long millis() {
+        return clock.millis();
+    }
+
+    /**
+     * Current time in the given format
+     */
+    public String now(Format format) {
+        return format(format, clock.millis());
+    }
+
+    /**
+     * Formats an epoch-millis time, reusing the cached text when it falls in the cached second
+     */
+    public String format(Format format, long epochMillis) {
+        long second = Math.floorDiv(epochMillis, 1000);
+        Cached cached = cache[format.ordinal()];
+        if (cached.second == second) {
+            return cached.text;
+        }
+
+        String text = formatters[format.ordinal()].format(Instant.ofEpochSecond(second));
+        // Racing threads may each format once; the last write wins, and both are correct
+        cache[format.ordinal()] = new Cached(second, text);
+        return text;
+    }
+
+    /**
+     * One formatted second; immutable so it can be swapped in without locking
+     */
+    private static final class Cached {
+        final long second;
+        final String text;
+
+        Cached(long second, String text) {
+            this.second = second;
+            this.text = text;
+        }
+    }
+}
@@ -3,98 +3,89 @@ package data;
 import model.Suspect;
 import model.Clue;
 import model.CaseDifficulty;
-import java.util.ArrayList;
+import model.GameState;
 import java.util.List;
 
+/**
+ * GameData - One session's view of a case
+ * The case content comes from the shared CaseCache; only the difficulty is per session.
+ */
 public class GameData {
-    private List<Suspect> suspects;
-    private List<Clue> allClues;
-    private String culpritName;
-    private String crimeStory;
+    private final CaseDefinition definition;
     private CaseDifficulty difficulty;
-    
+
+    /**
+     * The library's default case
+     */
     public GameData() {
+        this(CaseLibrary.shared().getDefaultCase());
+    }
+
+    /**
+     * A case from the library, loaded on first use
+     */
+    public GameData(CaseSource source) {
+        this(CaseCache.shared().get(source));
+    }
+
+    public GameData(CaseDefinition definition) {
+        this.definition = definition;
         this.difficulty = CaseDifficulty.MEDIUM;
-        loadFromFiles();
     }
-    
-    private void loadFromFiles() {
-        // Load crime story from file using FileLoader
-        crimeStory = FileLoader.loadCrimeStory("data/case1.txt");
-        
-        // Load clues from file using FileLoader
-        List<FileLoader.ClueData> clueDataList = FileLoader.loadClues("data/clues.txt");
-        allClues = new ArrayList<>();
-        for (FileLoader.ClueData clueData : clueDataList) {
-            Clue clue = new Clue(clueData.name, clueData.description, clueData.location);
-            allClues.add(clue);
-        }
-        
-        // Load suspects from file using FileLoader
-        List<FileLoader.SuspectData> suspectDataList = FileLoader.loadSuspects("data/suspects.txt");
-        suspects = new ArrayList<>();
-        
-        for (FileLoader.SuspectData suspectData : suspectDataList) {
-            Suspect suspect = new Suspect(suspectData.name, suspectData.role, suspectData.statement);
-            
-            // Assign clues to suspects based on names
-            if (suspectData.name.contains("Eleanor Hayes") || suspectData.name.contains("ELEANOR HAYES")) {
-                // Dr. Hayes gets red fabric and alibi photo clues
-                for (Clue clue : allClues) {
-                    String clueName = clue.getName().toUpperCase();
-                    if (clueName.contains("RED") && clueName.contains("FABRIC") || 
-                        clueName.contains("ALIBI") || clueName.contains("PHOTOGRAPH")) {
-                        suspect.setClue(clue);
-                    }
-                }
-            } else if (suspectData.name.contains("Marcus Cole") || suspectData.name.contains("MARCUS COLE")) {
-                // Marcus gets footprints and security footage clues
-                for (Clue clue : allClues) {
-                    String clueName = clue.getName().toUpperCase();
-                    if (clueName.contains("FOOTPRINT") || clueName.contains("MUDDY") ||
-                        clueName.contains("SECURITY") && clueName.contains("FOOTAGE")) {
-                        suspect.setClue(clue);
-                    }
-                }
-            } else if (suspectData.name.contains("Sarah Mitchell") || suspectData.name.contains("SARAH MITCHELL")) {
-                // Sarah gets key card and financial records clues
-                for (Clue clue : allClues) {
-                    String clueName = clue.getName().toUpperCase();
-                    if (clueName.contains("KEY") && clueName.contains("CARD") || 
-                        clueName.contains("FINANCIAL") || clueName.contains("STOLEN KEY")) {
-                        suspect.setClue(clue);
-                    }
-                }
-                suspect.setGuilty(true);
-            }
-            
-            suspects.add(suspect);
-        }
-        
-        culpritName = "Sarah Mitchell";
+
+    public CaseDefinition getDefinition() {
+        return definition;
+    }
+
+    /**
+     * The case's title, also its name in the database
+     */
+    public String getCaseTitle() {
+        return definition.getTitle();
     }
-    
+
     public List<Suspect> getSuspects() {
-        return suspects;
+        return definition.getSuspects();
     }
-    
+
     public List<Clue> getAllClues() {
-        return allClues;
+        return definition.getClues();
     }
-    
+
     public String getCulpritName() {
-        return culpritName;
+        return definition.getCulpritName();
     }
-    
+
     public CaseDifficulty getDifficulty() {
         return difficulty;
     }
-    
+
+    /**
+     * The case's reveal rules at a difficulty
+     */
+    public ClueGate getClueGate(CaseDifficulty difficulty) {
+        return definition.getClueGate(difficulty);
+    }
+
+    /**
+     * Full-text index over the case's story, clues and statements
+     */
+    public CaseSearchIndex getSearchIndex() {
+        return definition.getSearchIndex();
+    }
+
     public void setDifficulty(CaseDifficulty difficulty) {
         this.difficulty = difficulty;
     }
-    
+
+    /**
+     * Fresh progress for a new investigation of this case
+     */
+    public GameState newGameState() {
+        return new GameState(definition.getClues(), definition.getSuspects());
+    }
+
     public String getCrimeStory() {
-        return crimeStory;
+        return definition.getCrimeStory();
     }
 }
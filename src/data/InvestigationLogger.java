@@ -3,43 +3,64 @@ package data;
 import java.io.BufferedWriter;
 import java.io.FileWriter;
 import java.io.IOException;
-import java.text.SimpleDateFormat;
-import java.util.Date;
 import java.util.List;
 
+/**
+ * InvestigationLogger - Human-readable record of one investigation
+ * By default the whole log is kept in memory and written out by saveToFile. In appender
+ * mode each entry is handed to a RotatingLogAppender as soon as it is complete, so only
+ * the entry being built is held in memory.
+ */
 public class InvestigationLogger {
     private StringBuilder log;
+    private final RotatingLogAppender appender;
+    private final String label;
     
-    public InvestigationLogger() {
+    public InvestigationLogger(String caseTitle) {
+        this(null, null, caseTitle);
+    }
+    
+    /**
+     * Streams entries to the appender; label (e.g. the player) prefixes each entry so
+     * sessions sharing one appender can be told apart. Both may be null.
+     */
+    public InvestigationLogger(RotatingLogAppender appender, String label, String caseTitle) {
         this.log = new StringBuilder();
-        initializeLog();
+        this.appender = appender;
+        this.label = label;
+        initializeLog(caseTitle);
     }
     
-    private void initializeLog() {
+    private void initializeLog(String caseTitle) {
         log.append("========================================\n");
         log.append("INVESTIGATION LOG\n");
-        log.append("Case: The Stolen Azure Heart Sapphire\n");
-        log.append("Date: ").append(new SimpleDateFormat("MMM dd, yyyy HH:mm").format(new Date())).append("\n");
+        log.append("Case: ").append(caseTitle).append("\n");
+        log.append("Date: ").append(GameClock.shared().now(GameClock.Format.DATE)).append("\n");
         log.append("========================================\n\n");
+        endEntry();
     }
     
     public void logGameStart() {
         log.append("Investigation commenced.\n");
         log.append("Reviewing crime scene details...\n\n");
+        endEntry();
     }
     
     public void logSuspectQuestioned(String suspectName, String role) {
         log.append("--- Questioned: ").append(suspectName).append(" (").append(role).append(") ---\n");
-        log.append("Time: ").append(new SimpleDateFormat("HH:mm:ss").format(new Date())).append("\n\n");
+        log.append("Time: ").append(GameClock.shared().now(GameClock.Format.TIME)).append("\n\n");
+        endEntry();
     }
     
     public void logClueDiscovered(String clueName, String description) {
         log.append("🔍 CLUE DISCOVERED: ").append(clueName).append("\n");
         log.append("   ").append(description).append("\n\n");
+        endEntry();
     }
     
     public void logCluesReviewed(int clueCount) {
         log.append("Reviewed evidence. Total clues gathered: ").append(clueCount).append("\n\n");
+        endEntry();
     }
     
     public void logAccusation(String accusedName, boolean correct) {
@@ -48,7 +69,8 @@ public class InvestigationLogger {
         log.append("========================================\n");
         log.append("Accused: ").append(accusedName).append("\n");
         log.append("Result: ").append(correct ? "CORRECT - Case Solved!" : "INCORRECT - Investigation continues").append("\n");
-        log.append("Time: ").append(new SimpleDateFormat("HH:mm:ss").format(new Date())).append("\n\n");
+        log.append("Time: ").append(GameClock.shared().now(GameClock.Format.TIME)).append("\n\n");
+        endEntry();
     }
     
     public void logCaseSummary(List<String> cluesFound, List<String> suspectsQuestioned, boolean solved) {
@@ -65,29 +87,63 @@ public class InvestigationLogger {
             log.append("  • ").append(suspect).append("\n");
         }
         log.append("\n");
+        endEntry();
     }
     
     public void logCustomNote(String note) {
         log.append("NOTE: ").append(note).append("\n\n");
+        endEntry();
     }
     
+    /**
+     * Hands the finished entry to the appender (appender mode only)
+     */
+    private void endEntry() {
+        if (appender == null) return;
+        
+        appender.append(label != null ? "[" + label + "] " + log : log.toString());
+        log.setLength(0);
+    }
+    
+    public boolean isStreaming() {
+        return appender != null;
+    }
+    
+    /**
+     * The log so far; in appender mode entries already handed off are not included
+     */
     public String getLog() {
         return log.toString();
     }
     
+    /**
+     * Blocks until every entry is on disk (appender mode only)
+     */
+    public void flush() {
+        if (appender != null) {
+            long start = System.nanoTime();
+            appender.flush();
+            Metrics.shared().histogram("log.flush").recordSince(start);
+        }
+    }
+    
     public boolean saveToFile(String filePath) {
+        long start = System.nanoTime();
         try (BufferedWriter writer = new BufferedWriter(new FileWriter(filePath))) {
             writer.write(log.toString());
             writer.flush();
             return true;
         } catch (IOException e) {
             System.err.println("Error saving investigation log: " + e.getMessage());
+            Metrics.shared().counter("log.save.errors").increment();
             return false;
+        } finally {
+            Metrics.shared().histogram("log.save").recordSince(start);
         }
     }
     
     public boolean saveToFileWithTimestamp() {
-        String timestamp = new SimpleDateFormat("yyyyMMdd_HHmmss").format(new Date());
+        String timestamp = GameClock.shared().now(GameClock.Format.FILE);
         String fileName = "investigation_log_" + timestamp + ".txt";
         return saveToFile(fileName);
     }
@@ -0,0 +1,133 @@
+package data;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * LatencyHistogram - Lock-free log-linear histogram of durations in nanoseconds
+ * Like HdrHistogram, each power of two is split into SUB_BUCKETS equal buckets, so any
+ * recorded value is reported within about 3% and the whole range of a long fits in under
+ * 2000 counters. Recording is a few atomic increments and never blocks; percentiles are
+ * computed from a (not strictly consistent) read of the counters.
+ */
+public class LatencyHistogram implements Metrics.HistogramView {
+
+    static final int SUB_BUCKET_BITS = 5;
+    static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    static final int BUCKETS = (64 - SUB_BUCKET_BITS) * SUB_BUCKETS;
+
+    private final String name;
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+    private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+
+    public LatencyHistogram(String name) {
+        this.name = name;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Records the time since startNanos (a System.nanoTime() reading)
+     */
+    public void recordSince(long startNanos) {
+        record(System.nanoTime() - startNanos);
+    }
+
+    public void record(long nanos) {
+        long value = Math.max(0, nanos);
+        counts.incrementAndGet(bucketOf(value));
+        count.increment();
+        totalNanos.add(value);
+        maxNanos.accumulate(value);
+    }
+
+    /**
+     * Values below SUB_BUCKETS get a bucket each; above that, the top SUB_BUCKET_BITS + 1
+     * bits of the value pick the bucket within its power of two
+     */
+    static int bucketOf(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        int shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+        int mantissa = (int) (value >>> shift);
+        return (shift + 1) * SUB_BUCKETS + (mantissa - SUB_BUCKETS);
+    }
+
+    /**
+     * Largest value that falls into the bucket
+     */
+    static long highestValueIn(int bucket) {
+        if (bucket < SUB_BUCKETS) {
+            return bucket;
+        }
+        int shift = bucket / SUB_BUCKETS - 1;
+        long mantissa = bucket % SUB_BUCKETS + SUB_BUCKETS;
+        return ((mantissa + 1) << shift) - 1;
+    }
+
+    /**
+     * The value at the given percentile (0-100), in nanoseconds
+     */
+    public long percentileNanos(double percentile) {
+        long total = count.sum();
+        if (total == 0) return 0;
+
+        long rank = Math.max(1, (long) Math.ceil(total * percentile / 100.0));
+        long seen = 0;
+        for (int bucket = 0; bucket < BUCKETS; bucket++) {
+            seen += counts.get(bucket);
+            if (seen >= rank) {
+                return Math.min(highestValueIn(bucket), maxNanos.get());
+            }
+        }
+        return maxNanos.get();
+    }
+
+    @Override
+    public long getCount() {
+        return count.sum();
+    }
+
+    @Override
+    public double getMeanMicros() {
+        long total = count.sum();
+        return total > 0 ? toMicros(totalNanos.sum()) / total : 0;
+    }
+
+    @Override
+    public double getP50Micros() {
+        return toMicros(percentileNanos(50));
+    }
+
+    @Override
+    public double getP90Micros() {
+        return toMicros(percentileNanos(90));
+    }
+
+    @Override
+    public double getP99Micros() {
+        return toMicros(percentileNanos(99));
+    }
+
+    @Override
+    public double getMaxMicros() {
+        return toMicros(maxNanos.get());
+    }
+
+    private static double toMicros(long nanos) {
+        return nanos / (double) TimeUnit.MICROSECONDS.toNanos(1);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s | Count: %d | Mean: %.1f us | p50: %.1f us | p90: %.1f us | p99: %.1f us | Max: %.1f us",
+            name, getCount(), getMeanMicros(), getP50Micros(), getP90Micros(), getP99Micros(), getMaxMicros());
+    }
+}
@@ -0,0 +1,255 @@
+package data;
+
+import model.CaseDifficulty;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * LeaderboardService - Reads the aggregate tables kept up to date by completeCase
+ * completion_stats holds solve counts and total time per case and per difficulty,
+ * completion_time_histogram holds completions per minute (for medians) and leaderboard
+ * holds one ranked row per player. Every read is a primary-key or index lookup, so its
+ * cost does not grow with the number of cases played.
+ */
+public class LeaderboardService {
+    public static final String CASE_DIMENSION = "case";
+    public static final String DIFFICULTY_DIMENSION = "difficulty";
+    public static final String UNKNOWN_DIFFICULTY = "UNKNOWN";
+
+    /** Completion times are bucketed by minute up to one day; longer cases share the last bucket */
+    static final int MAX_HISTOGRAM_MINUTES = 24 * 60;
+
+    static final String TOP_PLAYERS_SQL =
+        "SELECT player_id, username, solved, completed, total_minutes FROM leaderboard " +
+        "ORDER BY solved DESC, total_minutes ASC LIMIT ?";
+
+    private static final String STATS_SQL =
+        "SELECT completed, solved, total_minutes FROM completion_stats WHERE dimension = ? AND name = ?";
+    private static final String HISTOGRAM_SQL =
+        "SELECT minutes, completions FROM completion_time_histogram WHERE dimension = ? AND name = ? ORDER BY minutes";
+    private static final String UPSERT_STATS_SQL =
+        "INSERT INTO completion_stats (dimension, name, completed, solved, total_minutes) VALUES (?, ?, ?, ?, ?) " +
+        "ON CONFLICT(dimension, name) DO UPDATE SET completed = completed + excluded.completed, " +
+        "solved = solved + excluded.solved, total_minutes = total_minutes + excluded.total_minutes";
+    private static final String UPSERT_HISTOGRAM_SQL =
+        "INSERT INTO completion_time_histogram (dimension, name, minutes, completions) VALUES (?, ?, ?, ?) " +
+        "ON CONFLICT(dimension, name, minutes) DO UPDATE SET completions = completions + excluded.completions";
+    private static final String UPSERT_LEADERBOARD_SQL =
+        "INSERT INTO leaderboard (player_id, username, solved, completed, total_minutes) " +
+        "SELECT player_id, username, ?, ?, ? FROM players WHERE player_id = ? " +
+        "ON CONFLICT(player_id) DO UPDATE SET solved = solved + excluded.solved, " +
+        "completed = completed + excluded.completed, total_minutes = total_minutes + excluded.total_minutes";
+
+    private final DatabaseManager dbManager;
+
+    public LeaderboardService(DatabaseManager dbManager) {
+        this.dbManager = dbManager;
+    }
+
+    // ==================== READS ====================
+
+    /**
+     * Aggregates for one case, or null if the database is unavailable
+     */
+    public CompletionStats getCaseStats(String caseName) {
+        return getStats(CASE_DIMENSION, caseName);
+    }
+
+    /**
+     * Aggregates for one difficulty, or null if the database is unavailable
+     */
+    public CompletionStats getDifficultyStats(CaseDifficulty difficulty) {
+        return getStats(DIFFICULTY_DIMENSION, difficulty.name());
+    }
+
+    /**
+     * The best n players: most cases solved, then least total time
+     */
+    public List<LeaderboardEntry> getTopPlayers(int n) {
+        List<LeaderboardEntry> entries = new ArrayList<>();
+        if (!dbManager.isAvailable()) return entries;
+
+        DatabaseConnection database = dbManager.getDatabase();
+        try {
+            database.withReader(conn -> {
+                PreparedStatement pstmt = database.prepare(conn, TOP_PLAYERS_SQL);
+                pstmt.setInt(1, n);
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    while (rs.next()) {
+                        entries.add(new LeaderboardEntry(entries.size() + 1, rs.getInt("player_id"),
+                            rs.getString("username"), rs.getInt("solved"), rs.getInt("completed"),
+                            rs.getLong("total_minutes")));
+                    }
+                }
+                return null;
+            });
+        } catch (SQLException e) {
+            System.err.println("Error reading leaderboard: " + e.getMessage());
+        }
+        return entries;
+    }
+
+    private CompletionStats getStats(String dimension, String name) {
+        if (!dbManager.isAvailable()) return null;
+
+        DatabaseConnection database = dbManager.getDatabase();
+        try {
+            return database.withReader(conn -> {
+                int completed = 0;
+                int solved = 0;
+                long totalMinutes = 0;
+                PreparedStatement stats = database.prepare(conn, STATS_SQL);
+                stats.setString(1, dimension);
+                stats.setString(2, name);
+                try (ResultSet rs = stats.executeQuery()) {
+                    if (rs.next()) {
+                        completed = rs.getInt("completed");
+                        solved = rs.getInt("solved");
+                        totalMinutes = rs.getLong("total_minutes");
+                    }
+                }
+
+                double median = completed > 0 ? readMedian(conn, dimension, name, completed) : 0;
+                return new CompletionStats(dimension, name, completed, solved, totalMinutes, median);
+            });
+        } catch (SQLException e) {
+            System.err.println("Error reading completion stats: " + e.getMessage());
+        }
+        return null;
+    }
+
+    /**
+     * Walks the per-minute histogram (at most MAX_HISTOGRAM_MINUTES + 1 rows) to the middle
+     */
+    private double readMedian(Connection conn, String dimension, String name, int completed) throws SQLException {
+        PreparedStatement pstmt = dbManager.getDatabase().prepare(conn, HISTOGRAM_SQL);
+        pstmt.setString(1, dimension);
+        pstmt.setString(2, name);
+
+        // 1-based positions of the middle value(s)
+        long lowerPosition = (completed + 1) / 2;
+        long upperPosition = completed / 2 + 1;
+        int lower = -1;
+        long seen = 0;
+        try (ResultSet rs = pstmt.executeQuery()) {
+            while (rs.next()) {
+                int minutes = rs.getInt("minutes");
+                seen += rs.getLong("completions");
+                if (lower < 0 && seen >= lowerPosition) {
+                    lower = minutes;
+                }
+                if (seen >= upperPosition) {
+                    return (lower + minutes) / 2.0;
+                }
+            }
+        }
+        return Math.max(lower, 0);
+    }
+
+    // ==================== MAINTENANCE ====================
+
+    /**
+     * Adds (sign = 1) or removes (sign = -1) one completed case from every aggregate
+     * Called by DatabaseManager.completeCase inside its transaction.
+     */
+    static void applyCompletion(DatabaseConnection database, Connection conn, int playerId, String caseName,
+                                String difficulty, boolean solved, int timeMinutes, int sign) throws SQLException {
+        String difficultyName = difficulty != null ? difficulty : UNKNOWN_DIFFICULTY;
+        int solvedDelta = solved ? sign : 0;
+        long minutesDelta = (long) timeMinutes * sign;
+        int bucket = Math.max(0, Math.min(timeMinutes, MAX_HISTOGRAM_MINUTES));
+
+        PreparedStatement stats = database.prepare(conn, UPSERT_STATS_SQL);
+        PreparedStatement histogram = database.prepare(conn, UPSERT_HISTOGRAM_SQL);
+        String[][] scopes = { { CASE_DIMENSION, caseName }, { DIFFICULTY_DIMENSION, difficultyName } };
+        for (String[] scope : scopes) {
+            stats.setString(1, scope[0]);
+            stats.setString(2, scope[1]);
+            stats.setInt(3, sign);
+            stats.setInt(4, solvedDelta);
+            stats.setLong(5, minutesDelta);
+            stats.executeUpdate();
+
+            histogram.setString(1, scope[0]);
+            histogram.setString(2, scope[1]);
+            histogram.setInt(3, bucket);
+            histogram.setInt(4, sign);
+            histogram.executeUpdate();
+        }
+
+        PreparedStatement leaderboard = database.prepare(conn, UPSERT_LEADERBOARD_SQL);
+        leaderboard.setInt(1, solvedDelta);
+        leaderboard.setInt(2, sign);
+        leaderboard.setLong(3, minutesDelta);
+        leaderboard.setInt(4, playerId);
+        leaderboard.executeUpdate();
+    }
+
+    // ==================== INNER CLASSES ====================
+
+    /**
+     * Solve rate and timing for one case or difficulty
+     */
+    public static class CompletionStats {
+        public final String dimension;
+        public final String name;
+        public final int completed;
+        public final int solved;
+        public final long totalMinutes;
+        public final double medianMinutes;
+
+        public CompletionStats(String dimension, String name, int completed, int solved,
+                               long totalMinutes, double medianMinutes) {
+            this.dimension = dimension;
+            this.name = name;
+            this.completed = completed;
+            this.solved = solved;
+            this.totalMinutes = totalMinutes;
+            this.medianMinutes = medianMinutes;
+        }
+
+        public double getSolveRate() {
+            return completed > 0 ? (double) solved / completed * 100 : 0;
+        }
+
+        public double getAverageMinutes() {
+            return completed > 0 ? (double) totalMinutes / completed : 0;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%s %s | Completed: %d | Solved: %d | Solve Rate: %.1f%% | Median: %.1f min",
+                dimension, name, completed, solved, getSolveRate(), medianMinutes);
+        }
+    }
+
+    /**
+     * One ranked player
+     */
+    public static class LeaderboardEntry {
+        public final int rank;
+        public final int playerId;
+        public final String username;
+        public final int solved;
+        public final int completed;
+        public final long totalMinutes;
+
+        public LeaderboardEntry(int rank, int playerId, String username, int solved, int completed, long totalMinutes) {
+            this.rank = rank;
+            this.playerId = playerId;
+            this.username = username;
+            this.solved = solved;
+            this.completed = completed;
+            this.totalMinutes = totalMinutes;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("#%d %s | Solved: %d of %d | Time: %d min", rank, username, solved, completed, totalMinutes);
+        }
+    }
+}
@@ -0,0 +1,231 @@
+package data;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.StandardMBean;
+
+/**
+ * Metrics - Registry of named counters and latency histograms
+ * Recording never locks, so the hot paths hold on to their Counter or LatencyHistogram
+ * and update it directly. Metrics in the shared registry are also registered as JMX
+ * MBeans under "MysteryGame:type=Latency|Counter,name=<name>", and a Reporter can append
+ * a text dump of everything to a file at a fixed rate.
+ *
+ * Names are dotted by subsystem: db.*, file.*, session.*, controller.*, log.*, startup.*
+ */
+public class Metrics {
+    public static final String JMX_DOMAIN = "MysteryGame";
+
+    private static final Metrics SHARED = new Metrics(true);
+
+    private final boolean registerMBeans;
+    private final Map<String, LatencyHistogram> histograms = new ConcurrentSkipListMap<>();
+    private final Map<String, Counter> counters = new ConcurrentSkipListMap<>();
+
+    public Metrics(boolean registerMBeans) {
+        this.registerMBeans = registerMBeans;
+    }
+
+    /**
+     * The registry used across the game and server
+     */
+    public static Metrics shared() {
+        return SHARED;
+    }
+
+    public LatencyHistogram histogram(String name) {
+        LatencyHistogram histogram = histograms.get(name);
+        if (histogram != null) return histogram;
+
+        return histograms.computeIfAbsent(name, key -> {
+            LatencyHistogram created = new LatencyHistogram(key);
+            register("Latency", key, created, HistogramView.class);
+            return created;
+        });
+    }
+
+    public Counter counter(String name) {
+        Counter counter = counters.get(name);
+        if (counter != null) return counter;
+
+        return counters.computeIfAbsent(name, key -> {
+            Counter created = new Counter(key);
+            register("Counter", key, created, CounterView.class);
+            return created;
+        });
+    }
+
+    /**
+     * Every metric as text, histograms first, sorted by name; histograms with nothing
+     * recorded yet are left out
+     */
+    public String dump() {
+        StringBuilder text = new StringBuilder();
+        text.append("==== Metrics ").append(GameClock.shared().now(GameClock.Format.DB)).append(" ====\n");
+        for (LatencyHistogram histogram : histograms.values()) {
+            if (histogram.getCount() > 0) {
+                text.append(histogram).append("\n");
+            }
+        }
+        for (Counter counter : counters.values()) {
+            text.append(counter).append("\n");
+        }
+        return text.toString();
+    }
+
+    @Override
+    public String toString() {
+        return dump();
+    }
+
+    private <T> void register(String type, String name, T metric, Class<T> view) {
+        if (!registerMBeans) return;
+
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName objectName = new ObjectName(JMX_DOMAIN + ":type=" + type + ",name=" + name.replaceAll("[,=:\"*?]", "_"));
+            if (!server.isRegistered(objectName)) {
+                server.registerMBean(new StandardMBean(metric, view), objectName);
+            }
+        } catch (JMException e) {
+            System.err.println("Error registering metric " + name + " with JMX: " + e.getMessage());
+        }
+    }
+
+    // ==================== REPORTER ====================
+
+    /**
+     * Starts a reporter configured by system properties, or returns null when it is off:
+     * metrics.dump.seconds (default 0, off) and metrics.dump.file (default logs/metrics.log)
+     */
+    public static Reporter startReporterFromSystemProperties() {
+        long seconds = Long.getLong("metrics.dump.seconds", 0);
+        if (seconds <= 0) return null;
+
+        Path file = Paths.get(System.getProperty("metrics.dump.file", "logs/metrics.log"));
+        return shared().startReporter(file, seconds);
+    }
+
+    /**
+     * Appends a dump to the file every periodSeconds from a daemon thread
+     */
+    public Reporter startReporter(Path file, long periodSeconds) {
+        return new Reporter(this, file, periodSeconds);
+    }
+
+    /**
+     * Periodic text dump of a registry; close() writes one last dump
+     */
+    public static class Reporter {
+        private final Metrics metrics;
+        private final Path file;
+        private final ScheduledExecutorService scheduler;
+
+        Reporter(Metrics metrics, Path file, long periodSeconds) {
+            this.metrics = metrics;
+            this.file = file;
+            this.scheduler = Executors.newSingleThreadScheduledExecutor(task -> {
+                Thread thread = new Thread(task, "metrics-reporter");
+                thread.setDaemon(true);
+                return thread;
+            });
+            scheduler.scheduleAtFixedRate(this::write, periodSeconds, periodSeconds, TimeUnit.SECONDS);
+        }
+
+        public Path getFile() {
+            return file;
+        }
+
+        public void close() {
+            scheduler.shutdown();
+            try {
+                scheduler.awaitTermination(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            write();
+        }
+
+        private void write() {
+            try {
+                Path parent = file.toAbsolutePath().getParent();
+                if (parent != null) {
+                    Files.createDirectories(parent);
+                }
+                Files.write(file, (metrics.dump() + "\n").getBytes(StandardCharsets.UTF_8),
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+            } catch (IOException e) {
+                System.err.println("Error writing metrics: " + e.getMessage());
+            }
+        }
+    }
+
+    // ==================== INNER CLASSES ====================
+
+    /**
+     * Read-only view of a histogram, registered as its JMX MBean
+     */
+    public interface HistogramView {
+        long getCount();
+        double getMeanMicros();
+        double getP50Micros();
+        double getP90Micros();
+        double getP99Micros();
+        double getMaxMicros();
+    }
+
+    /**
+     * Read-only view of a counter, registered as its JMX MBean
+     */
+    public interface CounterView {
+        long getCount();
+    }
+
+    /**
+     * Monotonic event counter
+     */
+    public static class Counter implements CounterView {
+        private final String name;
+        private final LongAdder count = new LongAdder();
+
+        public Counter(String name) {
+            this.name = name;
+        }
+
+        public void increment() {
+            count.increment();
+        }
+
+        public void add(long amount) {
+            count.add(amount);
+        }
+
+        @Override
+        public long getCount() {
+            return count.sum();
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        @Override
+        public String toString() {
+            return name + " | Count: " + getCount();
+        }
+    }
+}
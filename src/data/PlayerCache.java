@@ -0,0 +1,118 @@
+package data;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * PlayerCache - Size-bounded LRU cache of player ids and profiles
+ * DatabaseManager invalidates a player's profile after committing a change to it. A
+ * profile of that player loaded while that happened is not cached (see putLoadedProfile),
+ * since the row it was read from may predate the change, so cached profiles stay current
+ * as long as this process is the only writer. Loads of other players are unaffected.
+ */
+public class PlayerCache {
+    public static final int DEFAULT_MAX_PLAYERS = 10_000;
+
+    private final Map<String, Integer> idsByUsername;
+    private final Map<Integer, DatabaseManager.PlayerStats> profiles;
+    // Stamp of each player's latest invalidation, oldest first; see putLoadedProfile
+    private final Map<Integer, Long> invalidatedAt;
+    private long hits = 0;
+    private long misses = 0;
+    private long invalidations = 0;
+    // Newest stamp dropped from invalidatedAt to keep it bounded
+    private long forgottenUpTo = 0;
+
+    public PlayerCache(int maxPlayers) {
+        this.idsByUsername = lruMap(maxPlayers);
+        this.profiles = lruMap(maxPlayers);
+        this.invalidatedAt = new LinkedHashMap<Integer, Long>() {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, Long> eldest) {
+                if (size() <= maxPlayers) {
+                    return false;
+                }
+                forgottenUpTo = eldest.getValue();
+                return true;
+            }
+        };
+    }
+
+    private static <K, V> Map<K, V> lruMap(int maxEntries) {
+        return new LinkedHashMap<K, V>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    /**
+     * Cached id for a username, or -1 if it is not cached
+     */
+    public synchronized int getId(String username) {
+        Integer id = idsByUsername.get(username);
+        count(id != null);
+        return id != null ? id : -1;
+    }
+
+    public synchronized void putId(String username, int playerId) {
+        idsByUsername.put(username, playerId);
+    }
+
+    /**
+     * Cached profile, or null if it is not cached
+     */
+    public synchronized DatabaseManager.PlayerStats getProfile(int playerId) {
+        DatabaseManager.PlayerStats profile = profiles.get(playerId);
+        count(profile != null);
+        return profile;
+    }
+
+    public synchronized void putProfile(DatabaseManager.PlayerStats profile) {
+        profiles.put(profile.playerId, profile);
+        idsByUsername.put(profile.username, profile.playerId);
+    }
+
+    /**
+     * Caches a profile read from the database, unless that player's profile was invalidated
+     * since stampBefore (getStamp() taken before the read began). Once the player's stamp has
+     * been dropped to bound memory, any load older than it is refused too.
+     */
+    public synchronized void putLoadedProfile(DatabaseManager.PlayerStats profile, long stampBefore) {
+        Long invalidated = invalidatedAt.get(profile.playerId);
+        if ((invalidated == null || invalidated <= stampBefore) && forgottenUpTo <= stampBefore) {
+            putProfile(profile);
+        }
+    }
+
+    public synchronized void invalidate(int playerId) {
+        profiles.remove(playerId);
+        invalidations++;
+        // Re-inserted so invalidatedAt stays ordered by stamp
+        invalidatedAt.remove(playerId);
+        invalidatedAt.put(playerId, invalidations);
+    }
+
+    /**
+     * The current invalidation stamp, to pass to putLoadedProfile
+     */
+    public synchronized long getStamp() {
+        return invalidations;
+    }
+
+    private void count(boolean hit) {
+        if (hit) {
+            hits++;
+        } else {
+            misses++;
+        }
+    }
+
+    @Override
+    public synchronized String toString() {
+        long lookups = hits + misses;
+        return String.format("Players: %d cached | Hits: %d | Misses: %d | Hit Rate: %.1f%%",
+            profiles.size(), hits, misses, lookups > 0 ? hits * 100.0 / lookups : 0.0);
+    }
+}
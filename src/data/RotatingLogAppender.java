@@ -0,0 +1,324 @@
+package data;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * RotatingLogAppender - Streams log entries to files from a background thread
+ * Entries wait on a bounded ring buffer; the writer thread appends them to the current
+ * file and starts a new one when it grows past maxFileBytes or gets older than
+ * maxFileAgeMillis. Finished files can be gzipped. Callers block only when the buffer
+ * is full.
+ *
+ * Files are named <prefix>_<yyyyMMdd_HHmmss>[_n].log inside the output directory.
+ */
+public class RotatingLogAppender {
+    public static final String DEFAULT_DIRECTORY = "logs";
+    public static final long DEFAULT_MAX_FILE_BYTES = 1024 * 1024;
+    public static final long DEFAULT_MAX_FILE_AGE_MILLIS = 60 * 60 * 1000L;
+    public static final int DEFAULT_BUFFER_CAPACITY = 1024;
+
+    // Marks the end of the buffer when the appender is closing
+    private static final String SHUTDOWN = new String("SHUTDOWN");
+
+    private final Path directory;
+    private final String prefix;
+    private final long maxFileBytes;
+    private final long maxFileAgeMillis;
+    private final boolean gzip;
+    private final BlockingQueue<String> buffer;
+    private final Thread writerThread;
+    private final Object progressLock = new Object();
+    // Appenders share it while they enqueue; close() takes it exclusively to stop the
+    // buffer, so no entry can be queued behind the shutdown marker
+    private final ReadWriteLock appendLock = new ReentrantReadWriteLock();
+    private volatile boolean running;
+    private volatile Path currentFile;
+
+    // Writer thread state
+    private BufferedWriter writer;
+    private long currentBytes;
+    private long currentOpenedAt;
+
+    private final AtomicLong enqueued = new AtomicLong();
+    private final AtomicLong written = new AtomicLong();
+    private final AtomicLong stalls = new AtomicLong();
+    private final AtomicLong rotations = new AtomicLong();
+
+    public RotatingLogAppender(Path directory, String prefix, long maxFileBytes, long maxFileAgeMillis,
+                               boolean gzip, int bufferCapacity) {
+        this.directory = directory;
+        this.prefix = prefix;
+        this.maxFileBytes = maxFileBytes;
+        this.maxFileAgeMillis = maxFileAgeMillis;
+        this.gzip = gzip;
+        this.buffer = new ArrayBlockingQueue<>(bufferCapacity);
+        this.running = true;
+        this.writerThread = new Thread(this::drainLoop, "investigation-log-writer");
+        this.writerThread.setDaemon(true);
+        this.writerThread.start();
+    }
+
+    /**
+     * Creates an appender configured by system properties:
+     * investigation.log.dir, investigation.log.maxBytes, investigation.log.maxAgeMinutes,
+     * investigation.log.gzip
+     */
+    public static RotatingLogAppender fromSystemProperties() {
+        Path directory = Paths.get(System.getProperty("investigation.log.dir", DEFAULT_DIRECTORY));
+        long maxBytes = Long.getLong("investigation.log.maxBytes", DEFAULT_MAX_FILE_BYTES);
+        long maxAgeMinutes = Long.getLong("investigation.log.maxAgeMinutes", DEFAULT_MAX_FILE_AGE_MILLIS / 60000);
+        boolean gzip = Boolean.getBoolean("investigation.log.gzip");
+        return new RotatingLogAppender(directory, "investigation_log", maxBytes, maxAgeMinutes * 60000, gzip,
+                                       DEFAULT_BUFFER_CAPACITY);
+    }
+
+    /**
+     * Queues one entry. Blocks only while the buffer is full.
+     * Returns false if the appender has been closed.
+     */
+    public boolean append(String entry) {
+        appendLock.readLock().lock();
+        try {
+            if (!running) return false;
+
+            enqueued.incrementAndGet();
+            if (buffer.offer(entry)) {
+                return true;
+            }
+
+            stalls.incrementAndGet();
+            try {
+                buffer.put(entry);
+                return true;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                markWritten(1);
+                return false;
+            }
+        } finally {
+            appendLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Blocks until every entry queued before this call is on disk
+     */
+    public void flush() {
+        long target = enqueued.get();
+        synchronized (progressLock) {
+            while (written.get() < target && writerThread.isAlive()) {
+                try {
+                    progressLock.wait(100);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Writes out everything still buffered and closes the current file
+     * Waits for appends already in progress (even ones blocked on a full buffer), so every
+     * accepted entry is queued ahead of the shutdown marker.
+     */
+    public void close() {
+        appendLock.writeLock().lock();
+        try {
+            if (!running) return;
+            running = false;
+            buffer.put(SHUTDOWN);
+        } catch (InterruptedException e) {
+            // Put the marker in anyway, or the writer would never stop
+            Thread.currentThread().interrupt();
+            putUninterruptibly(SHUTDOWN);
+        } finally {
+            appendLock.writeLock().unlock();
+        }
+
+        try {
+            writerThread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void putUninterruptibly(String entry) {
+        boolean interrupted = false;
+        while (true) {
+            try {
+                buffer.put(entry);
+                break;
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * The file entries are currently written to, or null before the first entry
+     */
+    public Path getCurrentFile() {
+        return currentFile;
+    }
+
+    public Path getDirectory() {
+        return directory;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Entries: %d | Written: %d | Pending: %d | Stalls: %d | Rotations: %d",
+            enqueued.get(), written.get(), buffer.size(), stalls.get(), rotations.get());
+    }
+
+    // ==================== WRITER THREAD ====================
+
+    private void drainLoop() {
+        List<String> batch = new ArrayList<>();
+        boolean shutdown = false;
+
+        while (!shutdown) {
+            String first;
+            try {
+                first = buffer.poll(1, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                // Only close() may stop the writer, keep draining
+                continue;
+            }
+            if (first == null) {
+                rotateIfExpired();
+                continue;
+            }
+            batch.add(first);
+            buffer.drainTo(batch);
+
+            for (String entry : batch) {
+                if (entry == SHUTDOWN) {
+                    // close() queues nothing after the marker
+                    shutdown = true;
+                    break;
+                }
+                write(entry);
+            }
+            flushWriter();
+            markWritten(batch.size() - (shutdown ? 1 : 0));
+            batch.clear();
+        }
+        closeFile();
+    }
+
+    private void write(String entry) {
+        try {
+            if (writer == null || currentBytes >= maxFileBytes || isExpired()) {
+                rotate();
+            }
+            writer.write(entry);
+            currentBytes += entry.getBytes(StandardCharsets.UTF_8).length;
+        } catch (IOException e) {
+            System.err.println("Error writing investigation log: " + e.getMessage());
+        }
+    }
+
+    private boolean isExpired() {
+        return maxFileAgeMillis > 0 && System.currentTimeMillis() - currentOpenedAt >= maxFileAgeMillis;
+    }
+
+    private void rotateIfExpired() {
+        if (writer != null && isExpired()) {
+            closeFile();
+        }
+    }
+
+    private void rotate() throws IOException {
+        if (writer != null) {
+            closeFile();
+            rotations.incrementAndGet();
+        }
+
+        Files.createDirectories(directory);
+        String stamp = GameClock.shared().now(GameClock.Format.FILE);
+        Path file = directory.resolve(prefix + "_" + stamp + ".log");
+        for (int n = 1; Files.exists(file) || Files.exists(gzipPath(file)); n++) {
+            file = directory.resolve(prefix + "_" + stamp + "_" + n + ".log");
+        }
+
+        writer = new BufferedWriter(new OutputStreamWriter(Files.newOutputStream(file), StandardCharsets.UTF_8));
+        currentFile = file;
+        currentBytes = 0;
+        currentOpenedAt = System.currentTimeMillis();
+    }
+
+    private void flushWriter() {
+        if (writer == null) return;
+        try {
+            writer.flush();
+        } catch (IOException e) {
+            System.err.println("Error flushing investigation log: " + e.getMessage());
+        }
+    }
+
+    private void closeFile() {
+        if (writer == null) return;
+        try {
+            writer.close();
+        } catch (IOException e) {
+            System.err.println("Error closing investigation log: " + e.getMessage());
+        }
+        writer = null;
+        if (gzip) {
+            compress(currentFile);
+        }
+    }
+
+    /**
+     * Replaces a finished log file with a gzipped copy
+     */
+    private void compress(Path file) {
+        Path target = gzipPath(file);
+        try (InputStream in = Files.newInputStream(file);
+             OutputStream out = new GZIPOutputStream(Files.newOutputStream(target))) {
+            in.transferTo(out);
+        } catch (IOException e) {
+            System.err.println("Error compressing investigation log: " + e.getMessage());
+            return;
+        }
+        currentFile = target;
+        try {
+            Files.delete(file);
+        } catch (IOException e) {
+            System.err.println("Error removing compressed investigation log: " + e.getMessage());
+        }
+    }
+
+    private static Path gzipPath(Path file) {
+        return file.resolveSibling(file.getFileName() + ".gz");
+    }
+
+    private void markWritten(long count) {
+        synchronized (progressLock) {
+            written.addAndGet(count);
+            progressLock.notifyAll();
+        }
+    }
+}
@@ -0,0 +1,292 @@
+package data;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * SchemaMigrator - Versioned schema migrations for the SQLite store
+ * Applied versions are recorded in the schema_version table; each pending
+ * migration runs in its own transaction together with its version row.
+ * New schema changes are added as a new version at the end of the list.
+ */
+public class SchemaMigrator {
+
+    private final List<Migration> migrations = new ArrayList<>();
+
+    public SchemaMigrator() {
+        // Version 1 - the original tables
+        register(1, "Create base tables",
+            "CREATE TABLE IF NOT EXISTS players (" +
+            "player_id INTEGER PRIMARY KEY AUTOINCREMENT, " +
+            "username TEXT UNIQUE NOT NULL, " +
+            "created_at TEXT NOT NULL, " +
+            "total_games INTEGER DEFAULT 0, " +
+            "cases_solved INTEGER DEFAULT 0, " +
+            "cases_failed INTEGER DEFAULT 0)",
+
+            "CREATE TABLE IF NOT EXISTS case_progress (" +
+            "progress_id INTEGER PRIMARY KEY AUTOINCREMENT, " +
+            "player_id INTEGER NOT NULL, " +
+            "case_name TEXT NOT NULL, " +
+            "started_at TEXT NOT NULL, " +
+            "completed_at TEXT, " +
+            "is_solved INTEGER DEFAULT 0, " +
+            "suspects_questioned INTEGER DEFAULT 0, " +
+            "clues_found INTEGER DEFAULT 0, " +
+            "accused_suspect TEXT, " +
+            "time_spent_minutes INTEGER DEFAULT 0, " +
+            "FOREIGN KEY(player_id) REFERENCES players(player_id))",
+
+            "CREATE TABLE IF NOT EXISTS suspects (" +
+            "suspect_id INTEGER PRIMARY KEY AUTOINCREMENT, " +
+            "suspect_name TEXT NOT NULL, " +
+            "role TEXT NOT NULL, " +
+            "statement TEXT NOT NULL, " +
+            "is_guilty INTEGER DEFAULT 0, " +
+            "case_name TEXT NOT NULL)",
+
+            // Tracks which suspects were questioned and when
+            "CREATE TABLE IF NOT EXISTS player_choices (" +
+            "choice_id INTEGER PRIMARY KEY AUTOINCREMENT, " +
+            "progress_id INTEGER NOT NULL, " +
+            "player_id INTEGER NOT NULL, " +
+            "suspect_name TEXT NOT NULL, " +
+            "questioned_at TEXT NOT NULL, " +
+            "clues_discovered INTEGER DEFAULT 0, " +
+            "choice_order INTEGER, " +
+            "FOREIGN KEY(progress_id) REFERENCES case_progress(progress_id), " +
+            "FOREIGN KEY(player_id) REFERENCES players(player_id))",
+
+            "CREATE TABLE IF NOT EXISTS clues_discovered (" +
+            "clue_id INTEGER PRIMARY KEY AUTOINCREMENT, " +
+            "progress_id INTEGER NOT NULL, " +
+            "clue_name TEXT NOT NULL, " +
+            "discovered_at TEXT NOT NULL, " +
+            "FOREIGN KEY(progress_id) REFERENCES case_progress(progress_id))");
+
+        // Version 2 - indexes for the per-player and per-case lookups
+        register(2, "Add lookup indexes",
+            "CREATE INDEX IF NOT EXISTS idx_case_progress_player ON case_progress(player_id, started_at)",
+            "CREATE INDEX IF NOT EXISTS idx_player_choices_progress ON player_choices(progress_id, choice_order)",
+            "CREATE INDEX IF NOT EXISTS idx_clues_discovered_progress ON clues_discovered(progress_id, discovered_at)",
+            "CREATE INDEX IF NOT EXISTS idx_suspects_case ON suspects(case_name)");
+
+        // Version 3 - one row per suspect per case, plus a content hash per case
+        register(3, "Deduplicate suspects and add case catalog",
+            "DELETE FROM suspects WHERE suspect_id NOT IN " +
+            "(SELECT MAX(suspect_id) FROM suspects GROUP BY case_name, suspect_name)",
+            "DROP INDEX IF EXISTS idx_suspects_case",
+            "CREATE UNIQUE INDEX IF NOT EXISTS idx_suspects_case_name ON suspects(case_name, suspect_name)",
+            "CREATE TABLE IF NOT EXISTS case_catalog (" +
+            "case_name TEXT PRIMARY KEY, " +
+            "content_hash TEXT NOT NULL, " +
+            "suspect_count INTEGER NOT NULL, " +
+            "updated_at TEXT NOT NULL)");
+
+        // Version 4 - latest save of each player's unfinished investigation
+        register(4, "Add session snapshots",
+            "CREATE TABLE IF NOT EXISTS session_snapshots (" +
+            "player_id INTEGER NOT NULL, " +
+            "case_name TEXT NOT NULL, " +
+            "snapshot BLOB NOT NULL, " +
+            "saved_at TEXT NOT NULL, " +
+            "PRIMARY KEY(player_id, case_name), " +
+            "FOREIGN KEY(player_id) REFERENCES players(player_id))");
+
+        // Version 5 - epoch-millis copies of the text timestamps, for range queries in SQL.
+        // Existing text values are local time; strftime's 'utc' modifier converts them.
+        register(5, "Add epoch-millis timestamp columns",
+            "ALTER TABLE players ADD COLUMN created_at_ms INTEGER",
+            "ALTER TABLE case_progress ADD COLUMN started_at_ms INTEGER",
+            "ALTER TABLE case_progress ADD COLUMN completed_at_ms INTEGER",
+            "ALTER TABLE player_choices ADD COLUMN questioned_at_ms INTEGER",
+            "ALTER TABLE clues_discovered ADD COLUMN discovered_at_ms INTEGER",
+            "UPDATE players SET created_at_ms = " + epochMillis("created_at"),
+            "UPDATE case_progress SET started_at_ms = " + epochMillis("started_at"),
+            "UPDATE case_progress SET completed_at_ms = " + epochMillis("completed_at") +
+            " WHERE completed_at IS NOT NULL",
+            "UPDATE player_choices SET questioned_at_ms = " + epochMillis("questioned_at"),
+            "UPDATE clues_discovered SET discovered_at_ms = " + epochMillis("discovered_at"));
+
+        // Version 6 - aggregates maintained by completeCase (see LeaderboardService),
+        // seeded from the cases completed so far
+        register(6, "Add materialized completion stats and leaderboard",
+            "ALTER TABLE case_progress ADD COLUMN difficulty TEXT",
+            "CREATE TABLE IF NOT EXISTS completion_stats (" +
+            "dimension TEXT NOT NULL, " +
+            "name TEXT NOT NULL, " +
+            "completed INTEGER NOT NULL DEFAULT 0, " +
+            "solved INTEGER NOT NULL DEFAULT 0, " +
+            "total_minutes INTEGER NOT NULL DEFAULT 0, " +
+            "PRIMARY KEY(dimension, name))",
+            "CREATE TABLE IF NOT EXISTS completion_time_histogram (" +
+            "dimension TEXT NOT NULL, " +
+            "name TEXT NOT NULL, " +
+            "minutes INTEGER NOT NULL, " +
+            "completions INTEGER NOT NULL DEFAULT 0, " +
+            "PRIMARY KEY(dimension, name, minutes))",
+            "CREATE TABLE IF NOT EXISTS leaderboard (" +
+            "player_id INTEGER PRIMARY KEY, " +
+            "username TEXT NOT NULL, " +
+            "solved INTEGER NOT NULL DEFAULT 0, " +
+            "completed INTEGER NOT NULL DEFAULT 0, " +
+            "total_minutes INTEGER NOT NULL DEFAULT 0, " +
+            "FOREIGN KEY(player_id) REFERENCES players(player_id))",
+            "CREATE INDEX IF NOT EXISTS idx_leaderboard_rank ON leaderboard(solved DESC, total_minutes)",
+            "INSERT INTO completion_stats (dimension, name, completed, solved, total_minutes) " +
+            "SELECT 'case', case_name, COUNT(*), SUM(is_solved), SUM(COALESCE(time_spent_minutes, 0)) " +
+            "FROM case_progress WHERE completed_at IS NOT NULL GROUP BY case_name",
+            "INSERT INTO completion_stats (dimension, name, completed, solved, total_minutes) " +
+            "SELECT 'difficulty', 'UNKNOWN', COUNT(*), SUM(is_solved), SUM(COALESCE(time_spent_minutes, 0)) " +
+            "FROM case_progress WHERE completed_at IS NOT NULL HAVING COUNT(*) > 0",
+            "INSERT INTO completion_time_histogram (dimension, name, minutes, completions) " +
+            "SELECT 'case', case_name, " + histogramBucket() + ", COUNT(*) " +
+            "FROM case_progress WHERE completed_at IS NOT NULL GROUP BY case_name, " + histogramBucket(),
+            "INSERT INTO completion_time_histogram (dimension, name, minutes, completions) " +
+            "SELECT 'difficulty', 'UNKNOWN', " + histogramBucket() + ", COUNT(*) " +
+            "FROM case_progress WHERE completed_at IS NOT NULL GROUP BY " + histogramBucket(),
+            "INSERT INTO leaderboard (player_id, username, solved, completed, total_minutes) " +
+            "SELECT p.player_id, p.username, SUM(c.is_solved), COUNT(*), SUM(COALESCE(c.time_spent_minutes, 0)) " +
+            "FROM case_progress c JOIN players p ON p.player_id = c.player_id " +
+            "WHERE c.completed_at IS NOT NULL GROUP BY p.player_id");
+    }
+
+    /**
+     * SQL expression clamping time_spent_minutes into a histogram bucket
+     */
+    private static String histogramBucket() {
+        return "MAX(0, MIN(COALESCE(time_spent_minutes, 0), " + LeaderboardService.MAX_HISTOGRAM_MINUTES + "))";
+    }
+
+    /**
+     * SQL expression converting a local-time text column to epoch milliseconds
+     */
+    private static String epochMillis(String column) {
+        return "CAST(strftime('%s', " + column + ", 'utc') AS INTEGER) * 1000";
+    }
+
+    /**
+     * Adds a migration. Versions must be registered in increasing order.
+     */
+    public void register(int version, String description, String... statements) {
+        if (!migrations.isEmpty() && migrations.get(migrations.size() - 1).version >= version) {
+            throw new IllegalArgumentException("Migration version " + version + " is out of order");
+        }
+        migrations.add(new Migration(version, description, statements));
+    }
+
+    public List<Migration> getMigrations() {
+        return Collections.unmodifiableList(migrations);
+    }
+
+    /**
+     * Applies every migration newer than the stored schema version
+     * Returns the schema version after migrating
+     */
+    public int migrate(Connection connection) throws SQLException {
+        try (Statement stmt = connection.createStatement()) {
+            stmt.execute("CREATE TABLE IF NOT EXISTS schema_version (" +
+                         "version INTEGER PRIMARY KEY, " +
+                         "description TEXT NOT NULL, " +
+                         "applied_at TEXT NOT NULL)");
+        }
+
+        int current = getCurrentVersion(connection);
+        for (Migration migration : migrations) {
+            if (migration.version > current) {
+                apply(connection, migration);
+                current = migration.version;
+            }
+        }
+        return current;
+    }
+
+    /**
+     * Gets the highest applied schema version (0 for a new database)
+     */
+    public int getCurrentVersion(Connection connection) throws SQLException {
+        try (Statement stmt = connection.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT COALESCE(MAX(version), 0) FROM schema_version")) {
+            return rs.next() ? rs.getInt(1) : 0;
+        }
+    }
+
+    private void apply(Connection connection, Migration migration) throws SQLException {
+        boolean autoCommit = connection.getAutoCommit();
+        connection.setAutoCommit(false);
+        try {
+            try (Statement stmt = connection.createStatement()) {
+                for (String sql : migration.statements) {
+                    stmt.execute(sql);
+                }
+            }
+            try (PreparedStatement pstmt = connection.prepareStatement(
+                    "INSERT INTO schema_version (version, description, applied_at) VALUES (?, ?, ?)")) {
+                pstmt.setInt(1, migration.version);
+                pstmt.setString(2, migration.description);
+                pstmt.setString(3, GameClock.shared().now(GameClock.Format.DB));
+                pstmt.executeUpdate();
+            }
+            connection.commit();
+            System.out.println("Applied schema migration " + migration.version + ": " + migration.description);
+        } catch (SQLException e) {
+            connection.rollback();
+            throw new SQLException("Migration " + migration.version + " failed: " + e.getMessage(), e);
+        } finally {
+            connection.setAutoCommit(autoCommit);
+        }
+    }
+
+    // ==================== QUERY PLAN CHECK ====================
+
+    /**
+     * Checks with EXPLAIN QUERY PLAN that a query is answered through an index
+     * instead of a full table scan. Parameters are bound to NULL.
+     */
+    public static boolean usesIndex(Connection connection, String sql) throws SQLException {
+        try (PreparedStatement pstmt = connection.prepareStatement("EXPLAIN QUERY PLAN " + sql)) {
+            int params = pstmt.getParameterMetaData().getParameterCount();
+            for (int i = 1; i <= params; i++) {
+                pstmt.setObject(i, null);
+            }
+
+            boolean indexed = false;
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    String detail = rs.getString("detail");
+                    if (detail.startsWith("SCAN") && !detail.contains("USING")) {
+                        return false;
+                    }
+                    if (detail.contains("USING INDEX") || detail.contains("USING COVERING INDEX")
+                            || detail.contains("USING INTEGER PRIMARY KEY")) {
+                        indexed = true;
+                    }
+                }
+            }
+            return indexed;
+        }
+    }
+
+    // ==================== INNER CLASS ====================
+
+    /**
+     * One schema version and the statements that produce it
+     */
+    public static class Migration {
+        public final int version;
+        public final String description;
+        private final String[] statements;
+
+        public Migration(int version, String description, String[] statements) {
+            this.version = version;
+            this.description = description;
+            this.statements = statements.clone();
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package data;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * StatementCache - Keeps compiled PreparedStatements for one connection, keyed by SQL
+ * Least recently used statements are closed once the cache is full.
+ * Not thread-safe: the owning connection is only used by one thread at a time.
+ */
+public class StatementCache {
+
+    private final Connection connection;
+    private final Map<String, PreparedStatement> statements;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    public StatementCache(Connection connection, int capacity) {
+        this.connection = connection;
+        this.statements = new LinkedHashMap<>(16, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, PreparedStatement> eldest) {
+                if (size() > capacity) {
+                    evictions.incrementAndGet();
+                    closeQuietly(eldest.getValue());
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Gets a cached statement for the SQL, compiling it on first use
+     */
+    public PreparedStatement prepare(String sql) throws SQLException {
+        return lookup(sql, sql, false);
+    }
+
+    /**
+     * Same as prepare() but the statement returns generated keys
+     */
+    public PreparedStatement prepareWithKeys(String sql) throws SQLException {
+        return lookup("KEYS:" + sql, sql, true);
+    }
+
+    private PreparedStatement lookup(String key, String sql, boolean generatedKeys) throws SQLException {
+        PreparedStatement pstmt = statements.get(key);
+        if (pstmt != null && !pstmt.isClosed()) {
+            hits.incrementAndGet();
+            pstmt.clearParameters();
+            return pstmt;
+        }
+
+        misses.incrementAndGet();
+        pstmt = generatedKeys
+            ? connection.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)
+            : connection.prepareStatement(sql);
+        statements.put(key, pstmt);
+        return pstmt;
+    }
+
+    /**
+     * Closes every cached statement
+     */
+    public void close() {
+        for (PreparedStatement pstmt : statements.values()) {
+            closeQuietly(pstmt);
+        }
+        statements.clear();
+    }
+
+    public Stats getStats() {
+        return new Stats(hits.get(), misses.get(), evictions.get(), statements.size());
+    }
+
+    private static void closeQuietly(PreparedStatement pstmt) {
+        try {
+            pstmt.close();
+        } catch (SQLException e) {
+            System.err.println("Error closing cached statement: " + e.getMessage());
+        }
+    }
+
+    // ==================== INNER CLASS ====================
+
+    /**
+     * Snapshot of cache hit/miss counters
+     */
+    public static class Stats {
+        public final long hits;
+        public final long misses;
+        public final long evictions;
+        public final int size;
+
+        public Stats(long hits, long misses, long evictions, int size) {
+            this.hits = hits;
+            this.misses = misses;
+            this.evictions = evictions;
+            this.size = size;
+        }
+
+        public Stats plus(Stats other) {
+            return new Stats(hits + other.hits, misses + other.misses,
+                             evictions + other.evictions, size + other.size);
+        }
+
+        @Override
+        public String toString() {
+            long lookups = hits + misses;
+            return String.format("Statements: %d cached | Hits: %d | Misses: %d | Evictions: %d | Hit Rate: %.1f%%",
+                size, hits, misses, evictions, lookups > 0 ? (hits * 100.0 / lookups) : 0);
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package data;
+
+import model.Suspect;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * SuspectCatalog - Remembers which version of each case's suspect list is
+ * already stored in the database, identified by a content hash
+ */
+public class SuspectCatalog {
+
+    private final Map<String, String> loadedHashes = new ConcurrentHashMap<>();
+
+    /**
+     * Checks whether this exact suspect list was already written for the case
+     */
+    public boolean isLoaded(String caseName, String contentHash) {
+        return contentHash.equals(loadedHashes.get(caseName));
+    }
+
+    public void markLoaded(String caseName, String contentHash) {
+        loadedHashes.put(caseName, contentHash);
+    }
+
+    /**
+     * Computes a SHA-256 hash over every stored suspect field, in list order
+     */
+    public static String contentHash(List<Suspect> suspects) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            for (Suspect suspect : suspects) {
+                update(digest, suspect.getName());
+                update(digest, suspect.getRole());
+                update(digest, suspect.getStatement());
+                digest.update((byte) (suspect.isGuilty() ? 1 : 0));
+            }
+
+            StringBuilder hex = new StringBuilder();
+            for (byte b : digest.digest()) {
+                hex.append(String.format("%02x", b));
+            }
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            // Every JVM is required to provide SHA-256
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void update(MessageDigest digest, String value) {
+        if (value != null) {
+            digest.update(value.getBytes(StandardCharsets.UTF_8));
+        }
+        // Field separator so ("ab", "c") and ("a", "bc") hash differently
+        digest.update((byte) 0);
+    }
+}
@@ -0,0 +1,287 @@
+package data;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * WriteBehindQueue - Buffers database writes on a bounded queue and commits
+ * them in batches from a background thread, one transaction per batch
+ * on the pool's writer connection
+ * Each batch's commit is timed in the db.batch histogram; writes that fail are counted in
+ * db.errors.
+ */
+public class WriteBehindQueue {
+
+    /**
+     * A single queued write, executed later on the writer thread
+     */
+    public interface PendingWrite {
+        void execute(Connection connection) throws SQLException;
+    }
+
+    private static final LatencyHistogram BATCH_LATENCY = Metrics.shared().histogram("db.batch");
+    private static final Metrics.Counter ERRORS = Metrics.shared().counter("db.errors");
+
+    // Marks the end of the queue when the writer is shutting down
+    private static final PendingWrite SHUTDOWN = connection -> { };
+
+    private final BlockingQueue<PendingWrite> queue;
+    private final DatabaseConnection database;
+    private final int maxBatchSize;
+    private final Thread writerThread;
+    private final Object progressLock = new Object();
+    // Submitters share it while they enqueue; close() takes it exclusively to stop the
+    // queue, so no write can be queued behind the shutdown marker
+    private final ReadWriteLock submitLock = new ReentrantReadWriteLock();
+    private volatile boolean running;
+
+    // Counters for monitoring throughput and backpressure
+    private final AtomicLong enqueued = new AtomicLong();
+    private final AtomicLong written = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong batches = new AtomicLong();
+    private final AtomicLong stalls = new AtomicLong();
+    private final AtomicLong stallNanos = new AtomicLong();
+
+    public WriteBehindQueue(DatabaseConnection database, int capacity, int maxBatchSize) {
+        this.database = database;
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.maxBatchSize = maxBatchSize;
+        this.running = true;
+        this.writerThread = new Thread(this::drainLoop, "db-write-behind");
+        this.writerThread.setDaemon(true);
+        this.writerThread.start();
+    }
+
+    /**
+     * Queues a write. Blocks only when the queue is full (backpressure).
+     * Returns false if the queue has already been closed.
+     */
+    public boolean submit(PendingWrite write) {
+        submitLock.readLock().lock();
+        try {
+            if (!running) return false;
+
+            enqueued.incrementAndGet();
+            if (queue.offer(write)) {
+                return true;
+            }
+
+            // Queue is full - wait for the writer to catch up
+            stalls.incrementAndGet();
+            long start = System.nanoTime();
+            try {
+                queue.put(write);
+                return true;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                markCompleted(failed);
+                return false;
+            } finally {
+                stallNanos.addAndGet(System.nanoTime() - start);
+            }
+        } finally {
+            submitLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Blocks until every write queued before this call has been committed
+     */
+    public void flush() {
+        long target = enqueued.get();
+        synchronized (progressLock) {
+            while (written.get() + failed.get() < target && writerThread.isAlive()) {
+                try {
+                    progressLock.wait(100);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Stops accepting writes and commits everything still queued
+     * Waits for submits already in progress (even ones blocked on a full queue), so every
+     * accepted write is queued ahead of the shutdown marker.
+     */
+    public void close() {
+        submitLock.writeLock().lock();
+        try {
+            if (!running) return;
+            running = false;
+            queue.put(SHUTDOWN);
+        } catch (InterruptedException e) {
+            // Put the marker in anyway, or the writer would never stop
+            Thread.currentThread().interrupt();
+            putUninterruptibly(SHUTDOWN);
+        } finally {
+            submitLock.writeLock().unlock();
+        }
+
+        try {
+            writerThread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void putUninterruptibly(PendingWrite write) {
+        boolean interrupted = false;
+        while (true) {
+            try {
+                queue.put(write);
+                break;
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    public Stats getStats() {
+        return new Stats(enqueued.get(), written.get(), failed.get(), batches.get(),
+                         queue.size(), stalls.get(), stallNanos.get() / 1_000_000);
+    }
+
+    // ==================== WRITER THREAD ====================
+
+    private void drainLoop() {
+        List<PendingWrite> batch = new ArrayList<>(maxBatchSize);
+        boolean shutdown = false;
+
+        while (!shutdown) {
+            try {
+                batch.add(queue.take());
+            } catch (InterruptedException e) {
+                // Only close() may stop the writer, keep draining
+                continue;
+            }
+            queue.drainTo(batch, maxBatchSize - 1);
+
+            int end = batch.indexOf(SHUTDOWN);
+            if (end >= 0) {
+                shutdown = true;
+                // close() queues nothing after the marker
+                batch.remove(end);
+            }
+
+            if (!batch.isEmpty()) {
+                commitBatch(batch);
+            }
+            batch.clear();
+        }
+    }
+
+    private void commitBatch(List<PendingWrite> batch) {
+        int[] outcome = new int[2];
+        long start = System.nanoTime();
+
+        try {
+            database.withWriter(connection -> {
+                runInTransaction(connection, batch, outcome);
+                return null;
+            });
+        } catch (SQLException e) {
+            System.err.println("Error acquiring writer connection: " + e.getMessage());
+            outcome[0] = 0;
+            outcome[1] = batch.size();
+        }
+
+        BATCH_LATENCY.recordSince(start);
+        written.addAndGet(outcome[0]);
+        failed.addAndGet(outcome[1]);
+        ERRORS.add(outcome[1]);
+        synchronized (progressLock) {
+            progressLock.notifyAll();
+        }
+    }
+
+    private void runInTransaction(Connection connection, List<PendingWrite> batch, int[] outcome) {
+        int ok = 0;
+        int bad = 0;
+
+        try {
+            connection.setAutoCommit(false);
+            for (PendingWrite write : batch) {
+                try {
+                    write.execute(connection);
+                    ok++;
+                } catch (SQLException e) {
+                    System.err.println("Error in queued database write: " + e.getMessage());
+                    bad++;
+                }
+            }
+            connection.commit();
+            batches.incrementAndGet();
+        } catch (SQLException e) {
+            System.err.println("Error committing write batch: " + e.getMessage());
+            try {
+                connection.rollback();
+            } catch (SQLException rollbackError) {
+                System.err.println("Error rolling back write batch: " + rollbackError.getMessage());
+            }
+            ok = 0;
+            bad = batch.size();
+        } finally {
+            try {
+                connection.setAutoCommit(true);
+            } catch (SQLException e) {
+                System.err.println("Error restoring auto-commit: " + e.getMessage());
+            }
+        }
+
+        outcome[0] = ok;
+        outcome[1] = bad;
+    }
+
+    private void markCompleted(AtomicLong counter) {
+        counter.incrementAndGet();
+        synchronized (progressLock) {
+            progressLock.notifyAll();
+        }
+    }
+
+    // ==================== INNER CLASS ====================
+
+    /**
+     * Snapshot of the queue counters
+     */
+    public static class Stats {
+        public final long enqueued;
+        public final long written;
+        public final long failed;
+        public final long batches;
+        public final int pending;
+        public final long stalls;
+        public final long stallMillis;
+
+        public Stats(long enqueued, long written, long failed, long batches,
+                     int pending, long stalls, long stallMillis) {
+            this.enqueued = enqueued;
+            this.written = written;
+            this.failed = failed;
+            this.batches = batches;
+            this.pending = pending;
+            this.stalls = stalls;
+            this.stallMillis = stallMillis;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("Queued: %d | Written: %d | Failed: %d | Batches: %d | Pending: %d | Stalls: %d (%d ms)",
+                enqueued, written, failed, batches, pending, stalls, stallMillis);
+        }
+    }
+}
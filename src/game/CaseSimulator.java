@@ -0,0 +1,325 @@
+package game;
+
+import data.ClueGate;
+import data.GameData;
+import model.CaseDifficulty;
+import model.GameState;
+import model.Suspect;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * CaseSimulator - Plays a case many times with bots to see how each difficulty plays out
+ * Runs are split across a ForkJoinPool. Each leaf task sets up one GameState and a few
+ * arrays, then reuses them (GameState.reset) for every run it plays, so the run loop
+ * itself does not allocate. Questioning goes through the case's ClueGate for the difficulty,
+ * so bots face the same reveal rules (repeat questionings, required clues) as players.
+ *
+ * Bots cannot read statements, so whether an accusation is right is modelled: with c of
+ * the case's n clues found at difficulty level L, the bot names the culprit with
+ * probability 1/s + (1 - 1/s) * (c/n)^L (s suspects) and otherwise accuses one of the
+ * innocent suspects at random. Harder cases need more of the evidence for the same odds.
+ */
+public class CaseSimulator {
+    public static final int DEFAULT_RUNS = 1_000_000;
+    public static final long DEFAULT_SEED = 42;
+
+    // Runs per leaf task; large enough that task overhead does not matter
+    private static final int RUNS_PER_TASK = 20_000;
+
+    /**
+     * How a bot picks whom to question and when to accuse
+     */
+    public enum Strategy {
+        /** Questions random suspects (repeats allowed) a random number of times, then accuses */
+        RANDOM,
+        /**
+         * Questions whoever reveals the most new clues right away, else whoever still has
+         * the most to reveal; accuses once nobody has anything left to give
+         */
+        GREEDY,
+        /** Questions one random suspect, then accuses */
+        EARLY_ACCUSATION
+    }
+
+    private final GameData gameData;
+    private final ForkJoinPool pool;
+    private final int suspectCount;
+    private final int culpritId;
+    private final int clueCount;
+
+    public CaseSimulator(GameData gameData, ForkJoinPool pool) {
+        this.gameData = gameData;
+        this.pool = pool;
+
+        this.suspectCount = gameData.getSuspects().size();
+        int culprit = -1;
+        for (Suspect suspect : gameData.getSuspects()) {
+            if (suspect.isGuilty()) {
+                culprit = suspect.getId();
+            }
+        }
+        this.culpritId = culprit;
+        this.clueCount = gameData.getAllClues().size();
+    }
+
+    /**
+     * Plays runs investigations with one strategy at one difficulty
+     * The same seed always gives the same result, whatever the pool's parallelism.
+     */
+    public Result simulate(Strategy strategy, CaseDifficulty difficulty, int runs, long seed) {
+        long start = System.nanoTime();
+        Tally tally = pool.invoke(new SimulationTask(strategy, difficulty, 0, runs, seed));
+        return new Result(strategy, difficulty, runs, tally.solved, tally.cluesAtAccusation,
+                          System.nanoTime() - start);
+    }
+
+    // ==================== SIMULATION ====================
+
+    /**
+     * Splits a range of runs until it is small enough to play in one task
+     */
+    private class SimulationTask extends RecursiveTask<Tally> {
+        private static final long serialVersionUID = 1L;
+
+        private final Strategy strategy;
+        private final CaseDifficulty difficulty;
+        private final int from;
+        private final int to;
+        private final long seed;
+
+        SimulationTask(Strategy strategy, CaseDifficulty difficulty, int from, int to, long seed) {
+            this.strategy = strategy;
+            this.difficulty = difficulty;
+            this.from = from;
+            this.to = to;
+            this.seed = seed;
+        }
+
+        @Override
+        protected Tally compute() {
+            if (to - from <= RUNS_PER_TASK) {
+                // Seeded by position, so the split does not change the outcome
+                SplittableRandom random = new SplittableRandom(seed + from * 0x9E3779B97F4A7C15L);
+                return new Bot(strategy, difficulty, random).play(to - from);
+            }
+            int middle = (from + to) >>> 1;
+            SimulationTask left = new SimulationTask(strategy, difficulty, from, middle, seed);
+            left.fork();
+            Tally right = new SimulationTask(strategy, difficulty, middle, to, seed).compute();
+            return left.join().plus(right);
+        }
+    }
+
+    /**
+     * One worker's reusable state; play() allocates nothing per run or per step
+     */
+    private class Bot {
+        private final Strategy strategy;
+        private final SplittableRandom random;
+        private final GameState state;
+        private final ClueGate gate;
+        private final double exponent;
+        private final int[] candidates;
+        private final int[] revealed;
+        private final Tally tally;
+
+        Bot(Strategy strategy, CaseDifficulty difficulty, SplittableRandom random) {
+            this.strategy = strategy;
+            this.random = random;
+            this.state = gameData.newGameState();
+            this.state.setDifficulty(difficulty);
+            this.gate = gameData.getClueGate(difficulty);
+            this.exponent = difficulty.getLevel();
+            this.candidates = new int[suspectCount];
+            this.revealed = new int[gate.getMaxCluesPerSuspect()];
+            this.tally = new Tally(clueCount);
+        }
+
+        Tally play(int runs) {
+            for (int run = 0; run < runs; run++) {
+                state.reset();
+                investigate();
+                accuse();
+            }
+            return tally;
+        }
+
+        private void investigate() {
+            switch (strategy) {
+                case RANDOM:
+                    int questionings = 1 + random.nextInt(Math.max(1, gate.getQuestioningsToExhaust()));
+                    for (int i = 0; i < questionings; i++) {
+                        question(random.nextInt(suspectCount));
+                    }
+                    break;
+                case GREEDY:
+                    int next;
+                    while ((next = mostRevealing()) >= 0) {
+                        question(next);
+                    }
+                    break;
+                case EARLY_ACCUSATION:
+                    question(random.nextInt(suspectCount));
+                    break;
+                default:
+                    break;
+            }
+        }
+
+        private void question(int suspectId) {
+            state.addQuestionedSuspectId(suspectId);
+            int count = gate.revealable(state, suspectId, state.getQuestionCount(suspectId), revealed);
+            for (int i = 0; i < count; i++) {
+                state.addClueId(revealed[i]);
+            }
+        }
+
+        /**
+         * The suspect whose next questioning reveals the most new clues, or failing that the
+         * one with the most clues still to come (ties broken at random); -1 if no one has
+         * anything left to reveal
+         */
+        private int mostRevealing() {
+            int next = pickBest(true);
+            return next >= 0 ? next : pickBest(false);
+        }
+
+        private int pickBest(boolean nextQuestioningOnly) {
+            int best = 0;
+            int count = 0;
+            for (int id = 0; id < suspectCount; id++) {
+                int newClues = nextQuestioningOnly
+                    ? gate.revealable(state, id, state.getQuestionCount(id) + 1, null)
+                    : gate.pending(state, id);
+                if (newClues > best) {
+                    best = newClues;
+                    count = 0;
+                }
+                if (newClues == best && newClues > 0) {
+                    candidates[count++] = id;
+                }
+            }
+            return count > 0 ? candidates[random.nextInt(count)] : -1;
+        }
+
+        private void accuse() {
+            int suspects = suspectCount;
+            int found = state.getClueCount();
+            double evidence = clueCount > 0 ? (double) found / clueCount : 1.0;
+            double pCorrect = 1.0 / suspects + (1.0 - 1.0 / suspects) * Math.pow(evidence, exponent);
+
+            boolean correct = culpritId >= 0 && random.nextDouble() < pCorrect;
+            tally.record(found, correct);
+        }
+    }
+
+    // ==================== RESULTS ====================
+
+    /**
+     * Running totals of one task
+     */
+    private static class Tally {
+        final long[] cluesAtAccusation;
+        long solved;
+
+        Tally(int clueCount) {
+            this.cluesAtAccusation = new long[clueCount + 1];
+        }
+
+        void record(int clues, boolean correct) {
+            cluesAtAccusation[clues]++;
+            if (correct) {
+                solved++;
+            }
+        }
+
+        Tally plus(Tally other) {
+            for (int i = 0; i < cluesAtAccusation.length; i++) {
+                cluesAtAccusation[i] += other.cluesAtAccusation[i];
+            }
+            solved += other.solved;
+            return this;
+        }
+    }
+
+    /**
+     * Outcome of one strategy at one difficulty
+     */
+    public static class Result {
+        public final Strategy strategy;
+        public final CaseDifficulty difficulty;
+        public final int runs;
+        public final long solved;
+        /** Number of runs that accused with exactly i clues found */
+        public final long[] cluesAtAccusation;
+        public final long elapsedNanos;
+
+        public Result(Strategy strategy, CaseDifficulty difficulty, int runs, long solved,
+                      long[] cluesAtAccusation, long elapsedNanos) {
+            this.strategy = strategy;
+            this.difficulty = difficulty;
+            this.runs = runs;
+            this.solved = solved;
+            this.cluesAtAccusation = cluesAtAccusation;
+            this.elapsedNanos = elapsedNanos;
+        }
+
+        public double getSolveRate() {
+            return runs > 0 ? solved * 100.0 / runs : 0;
+        }
+
+        public double getMeanClues() {
+            long total = 0;
+            for (int i = 0; i < cluesAtAccusation.length; i++) {
+                total += i * cluesAtAccusation[i];
+            }
+            return runs > 0 ? (double) total / runs : 0;
+        }
+
+        public double getRunsPerSecond() {
+            return elapsedNanos > 0 ? runs * 1e9 / elapsedNanos : 0;
+        }
+
+        /**
+         * Share of runs (percent) per number of clues found at accusation
+         */
+        public String distribution() {
+            StringBuilder text = new StringBuilder();
+            for (int i = 0; i < cluesAtAccusation.length; i++) {
+                if (i > 0) text.append(' ');
+                text.append(i).append(':').append(String.format("%.1f%%", cluesAtAccusation[i] * 100.0 / runs));
+            }
+            return text.toString();
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%-8s %-16s | Solve Rate: %5.1f%% | Mean Clues: %.2f | Clues at accusation: %s | %.1fM runs/s",
+                difficulty.getDisplayName(), strategy, getSolveRate(), getMeanClues(), distribution(),
+                getRunsPerSecond() / 1e6);
+        }
+    }
+
+    // ==================== ENTRY POINT ====================
+
+    /**
+     * Usage: CaseSimulator [runs per difficulty and strategy] [seed]
+     */
+    public static void main(String[] args) {
+        int runs = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_RUNS;
+        long seed = args.length > 1 ? Long.parseLong(args[1]) : DEFAULT_SEED;
+
+        ForkJoinPool pool = ForkJoinPool.commonPool();
+        CaseSimulator simulator = new CaseSimulator(new GameData(), pool);
+        System.out.println("Simulating " + runs + " investigations per difficulty and strategy on "
+                           + pool.getParallelism() + " workers (seed " + seed + ")");
+
+        for (CaseDifficulty difficulty : CaseDifficulty.values()) {
+            for (Strategy strategy : Strategy.values()) {
+                System.out.println(simulator.simulate(strategy, difficulty, runs, seed));
+            }
+        }
+    }
+}
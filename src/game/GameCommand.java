@@ -0,0 +1,85 @@
+package game;
+
+import model.CaseDifficulty;
+
+/**
+ * GameCommand - An action a player sends to a GameSession
+ * Commands that pick a suspect carry the suspect's index in GameData.getSuspects();
+ * SEARCH carries the words to search for.
+ */
+public class GameCommand {
+
+    public enum Type {
+        BEGIN,
+        MENU,
+        LIST_SUSPECTS,
+        QUESTION,
+        REVIEW_CLUES,
+        SEARCH,
+        CHOOSE_ACCUSED,
+        ACCUSE,
+        SAVE_LOG,
+        RESET,
+        EXIT
+    }
+
+    private final Type type;
+    private final int target;
+    private final CaseDifficulty difficulty;
+    private final String query;
+
+    private GameCommand(Type type, int target, CaseDifficulty difficulty, String query) {
+        this.type = type;
+        this.target = target;
+        this.difficulty = difficulty;
+        this.query = query;
+    }
+
+    public static GameCommand of(Type type) {
+        return new GameCommand(type, -1, null, null);
+    }
+
+    public static GameCommand question(int suspectIndex) {
+        return new GameCommand(Type.QUESTION, suspectIndex, null, null);
+    }
+
+    public static GameCommand accuse(int suspectIndex) {
+        return new GameCommand(Type.ACCUSE, suspectIndex, null, null);
+    }
+
+    /**
+     * Starts the case over, optionally at a different difficulty (null keeps the current one)
+     */
+    public static GameCommand reset(CaseDifficulty difficulty) {
+        return new GameCommand(Type.RESET, -1, difficulty, null);
+    }
+
+    /**
+     * Searches the evidence seen so far; a null query asks the front end to prompt for one
+     */
+    public static GameCommand search(String query) {
+        return new GameCommand(Type.SEARCH, -1, null, query);
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public int getTarget() {
+        return target;
+    }
+
+    public CaseDifficulty getDifficulty() {
+        return difficulty;
+    }
+
+    public String getQuery() {
+        return query;
+    }
+
+    @Override
+    public String toString() {
+        if (target >= 0) return type + " " + target;
+        return query != null ? type + " " + query : type.toString();
+    }
+}
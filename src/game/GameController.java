@@ -2,34 +2,54 @@ package game;
 
 import gui.GameWindow;
 import model.*;
+import data.CaseLibrary;
+import data.CaseSource;
 import data.GameData;
-import data.InvestigationLogger;
 import data.DatabaseManager;
-import java.util.List;
-import java.util.ArrayList;
+import data.LatencyHistogram;
+import data.Metrics;
+import data.RotatingLogAppender;
 import javax.swing.JOptionPane;
 
+/**
+ * GameController - Swing front end for a GameSession
+ * Collects input through dialogs and renders each GameView into the GameWindow.
+ */
 public class GameController {
+    // Larger libraries are chosen from by typing a case id
+    private static final int MAX_LISTED_CASES = 200;
+    // controller.<command> latency (handling plus rendering), indexed by GameCommand.Type ordinal
+    private static final LatencyHistogram[] ACTION_LATENCY = GameSession.handlerHistograms("controller.");
+    
     private GameWindow window;
-    private GameState gameState;
     private GameData gameData;
-    private InvestigationLogger logger;
     private DatabaseManager dbManager;
+    private RotatingLogAppender logAppender;
+    private Metrics.Reporter metricsReporter;
+    private GameSession session;
     private int playerId;
-    private int progressId;
-    private long gameStartTime;
-    private int choiceCounter;
     
     public GameController() {
-        this.window = new GameWindow();
-        this.gameData = new GameData();
-        this.gameState = new GameState();
-        this.logger = new InvestigationLogger();
-        this.dbManager = new DatabaseManager();
-        this.choiceCounter = 0;
-        
-        // Get or create player profile
-        initializePlayer();
+        this(new GameWindow(), new DatabaseManager());
+    }
+    
+    /**
+     * Uses a window and database that were prepared in advance (see StartupPipeline)
+     */
+    public GameController(GameWindow window, DatabaseManager dbManager) {
+        this.window = window;
+        this.dbManager = dbManager;
+        this.logAppender = RotatingLogAppender.fromSystemProperties();
+        this.metricsReporter = Metrics.startReporterFromSystemProperties();
+        
+        // Make sure queued database writes and log entries are written however the game exits
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            if (metricsReporter != null) {
+                metricsReporter.close();
+            }
+            logAppender.close();
+            dbManager.close();
+        }, "db-shutdown"));
     }
     
     private void initializePlayer() {
@@ -60,17 +80,79 @@ public class GameController {
     public void startGame() {
         window.setVisible(true);
         
-        // Initialize player profile after window is visible
-        if (dbManager.isAvailable()) {
-            initializePlayer();
-        }
+        // Get or create the player profile once the window is visible
+        initializePlayer();
         
-        showIntroduction();
+        // Only the chosen case is loaded; the others stay headers in the library
+        gameData = new GameData(selectCase());
+        session = new GameSession(gameData, dbManager, playerId, logAppender);
+        
+        // Offer to pick up an unfinished investigation
+        GameView resumed = null;
+        byte[] saved = dbManager.isAvailable() ? dbManager.loadSessionSnapshot(playerId, gameData.getCaseTitle()) : null;
+        if (saved != null && confirmResume()) {
+            resumed = session.resume(saved);
+        }
+        render(resumed != null ? resumed : session.start(selectDifficulty()));
     }
     
-    private void selectDifficulty() {
+    private boolean confirmResume() {
+        return JOptionPane.YES_OPTION == JOptionPane.showConfirmDialog(window,
+            "You have an unfinished investigation. Resume where you left off?",
+            "Resume Investigation",
+            JOptionPane.YES_NO_OPTION);
+    }
+    
+    /**
+     * Asks which case to play when the library holds more than one; defaults to the first.
+     * Up to MAX_LISTED_CASES are offered in a list, beyond that the player types a case id.
+     */
+    private CaseSource selectCase() {
+        CaseLibrary library = CaseLibrary.shared();
+        if (library.size() == 1) {
+            return library.getDefaultCase();
+        }
+        
+        CaseSource chosen;
+        if (library.size() <= MAX_LISTED_CASES) {
+            chosen = (CaseSource) JOptionPane.showInputDialog(
+                window,
+                "Select a case:",
+                "Case Selection",
+                JOptionPane.QUESTION_MESSAGE,
+                null,
+                library.getCases().toArray(),
+                library.getDefaultCase()
+            );
+            // Its header may have been edited since the index was written
+            chosen = chosen != null ? library.current(chosen) : null;
+        } else {
+            String caseId = (String) JOptionPane.showInputDialog(
+                window,
+                "Enter the id of one of the " + library.size() + " cases:",
+                "Case Selection",
+                JOptionPane.QUESTION_MESSAGE,
+                null,
+                null,
+                library.getDefaultCase().caseId
+            );
+            chosen = caseId != null ? library.find(caseId.trim()) : null;
+            if (caseId != null && chosen == null) {
+                JOptionPane.showMessageDialog(window,
+                    "There is no case \"" + caseId.trim() + "\"; opening the default case.",
+                    "Case Selection",
+                    JOptionPane.WARNING_MESSAGE);
+            }
+        }
+        return chosen != null ? chosen : library.getDefaultCase();
+    }
+    
+    /**
+     * Asks for a difficulty; returns null to keep the current one
+     */
+    private CaseDifficulty selectDifficulty() {
         CaseDifficulty[] difficulties = CaseDifficulty.values();
-        CaseDifficulty selected = (CaseDifficulty) JOptionPane.showInputDialog(
+        return (CaseDifficulty) JOptionPane.showInputDialog(
             window,
             "Select case difficulty:",
             "Difficulty Selection",
@@ -79,209 +161,42 @@ public class GameController {
             difficulties,
             CaseDifficulty.MEDIUM
         );
-        
-        if (selected != null) {
-            gameData.setDifficulty(selected);
-            gameState.setDifficulty(selected);
-        }
-    }
-    
-    private void showIntroduction() {
-        selectDifficulty();
-        
-        String intro = gameData.getCrimeStory();
-        logger.logGameStart();
-        
-        // Start tracking this case in database (if available)
-        if (dbManager.isAvailable()) {
-            progressId = dbManager.startCase(playerId, "The Stolen Azure Heart Sapphire");
-            gameStartTime = System.currentTimeMillis();
-            
-            // Save suspects to database
-            for (Suspect suspect : gameData.getSuspects()) {
-                dbManager.saveSuspect(
-                    suspect.getName(),
-                    suspect.getRole(),
-                    suspect.getStatement(),
-                    suspect.isGuilty(),
-                    "The Stolen Azure Heart Sapphire"
-                );
-            }
-        }
-        
-        window.displayText(intro);
-        window.clearButtons();
-        window.addChoiceButton("Begin Investigation", this::showMainMenu);
-    }
-    
-    private void showMainMenu() {
-        StringBuilder text = new StringBuilder();
-        text.append("What would you like to do?\n\n");
-        text.append("Clues found: ").append(gameState.getClues().size()).append("\n");
-        text.append("Suspects questioned: ").append(gameState.getQuestionedSuspects().size()).append("\n");
-        
-        window.displayText(text.toString());
-        window.clearButtons();
-        
-        window.addChoiceButton("Question a Suspect", this::showSuspects);
-        window.addChoiceButton("Review Clues", this::showClues);
-        window.addChoiceButton("Make an Accusation", this::makeAccusation);
-        window.addChoiceButton("Save Investigation Log", this::saveInvestigationLog);
     }
     
-    private void showSuspects() {
-        List<Suspect> suspects = gameData.getSuspects();
-        window.displayText("Choose a suspect to question:");
-        window.clearButtons();
-        
-        for (Suspect suspect : suspects) {
-            window.addChoiceButton(suspect.getName() + " - " + suspect.getRole(), 
-                () -> questionSuspect(suspect));
-        }
-        
-        window.addChoiceButton("Back to Menu", this::showMainMenu);
+    private void dispatch(GameCommand command) {
+        if (command.getType() == GameCommand.Type.RESET) {
+            command = GameCommand.reset(selectDifficulty());
+        }
+        if (command.getType() == GameCommand.Type.SEARCH && command.getQuery() == null) {
+            String query = JOptionPane.showInputDialog(window,
+                "Search the evidence for:",
+                "Search Evidence",
+                JOptionPane.QUESTION_MESSAGE);
+            if (query == null) return;
+            command = GameCommand.search(query);
+        }
+        long start = System.nanoTime();
+        render(session.handle(command));
+        ACTION_LATENCY[command.getType().ordinal()].recordSince(start);
     }
     
-    private void questionSuspect(Suspect suspect) {
-        gameState.addQuestionedSuspect(suspect);
-        logger.logSuspectQuestioned(suspect.getName(), suspect.getRole());
-        choiceCounter++;
-        
-        window.displayText("You question " + suspect.getName() + ":\n\n" + 
-                          suspect.getStatement());
-        
-        // Check if this reveals any clues
-        List<Clue> revealedClues = suspect.getClues();
-        int cluesDiscovered = 0;
-        if (!revealedClues.isEmpty()) {
-            StringBuilder clueText = new StringBuilder();
-            for (Clue clue : revealedClues) {
-                if (!gameState.hasClue(clue)) {
-                    gameState.addClue(clue);
-                    logger.logClueDiscovered(clue.getName(), clue.getDescription());
-                    clueText.append("\n[New Clue Found: ").append(clue.getName()).append("]");
-                    cluesDiscovered++;
-                    
-                    // Record clue in database (if available)
-                    if (dbManager.isAvailable()) {
-                        dbManager.recordClueDiscovered(progressId, clue.getName());
-                    }
-                }
-            }
-            if (clueText.length() > 0) {
-                window.appendText(clueText.toString());
-            }
+    private void render(GameView view) {
+        if (view.getPhase() == GamePhase.EXITED) {
+            System.exit(0);
         }
         
-        // Record player choice in database (if available)
-        if (dbManager.isAvailable()) {
-            dbManager.recordPlayerChoice(progressId, playerId, suspect.getName(), cluesDiscovered, choiceCounter);
-            
-            // Update case progress
-            dbManager.updateCaseProgress(progressId, gameState.getQuestionedSuspects().size(), gameState.getClues().size());
-        }
-        
-        window.clearButtons();
-        window.addChoiceButton("Continue", this::showMainMenu);
-    }
-    
-    private void showClues() {
-        List<Clue> clues = gameState.getClues();
-        logger.logCluesReviewed(clues.size());
-        
-        StringBuilder text = new StringBuilder("Clues you've gathered:\n\n");
-        
-        if (clues.isEmpty()) {
-            text.append("No clues found yet. Question suspects to find clues!");
-        } else {
-            for (Clue clue : clues) {
-                text.append("• ").append(clue.getName()).append("\n");
-                text.append("  ").append(clue.getDescription()).append("\n\n");
-            }
-        }
-        
-        window.displayText(text.toString());
-        window.clearButtons();
-        window.addChoiceButton("Back to Menu", this::showMainMenu);
-    }
-    
-    private void makeAccusation() {
-        List<Suspect> suspects = gameData.getSuspects();
-        window.displayText("Who do you think is the culprit?");
-        window.clearButtons();
-        
-        for (Suspect suspect : suspects) {
-            window.addChoiceButton("Accuse " + suspect.getName(), 
-                () -> checkAccusation(suspect));
-        }
-        
-        window.addChoiceButton("Back to Menu", this::showMainMenu);
-    }
-    
-    private void checkAccusation(Suspect suspect) {
-        boolean correct = suspect.isGuilty();
-        
-        logger.logAccusation(suspect.getName(), correct);
-        
-        // Create case summary
-        List<String> clueNames = new ArrayList<>();
-        for (Clue clue : gameState.getClues()) {
-            clueNames.add(clue.getName());
-        }
-        List<String> suspectNames = new ArrayList<>();
-        for (Suspect s : gameState.getQuestionedSuspects()) {
-            suspectNames.add(s.getName());
-        }
-        logger.logCaseSummary(clueNames, suspectNames, correct);
-        
-        // Calculate time spent
-        int timeMinutes = (int) ((System.currentTimeMillis() - gameStartTime) / 60000);
-        
-        // Save case completion to database (if available)
-        if (dbManager.isAvailable()) {
-            dbManager.completeCase(progressId, correct, suspect.getName(), timeMinutes);
-            dbManager.updatePlayerStats(playerId, correct);
-        }
-        
-        if (correct) {
-            window.displayText("Congratulations! You solved the mystery!\n\n" +
-                              suspect.getName() + " was indeed the culprit.\n\n" +
-                              "The evidence all pointed to them. Well done, Detective!");
-        } else {
-            window.displayText("Wrong accusation!\n\n" +
-                              suspect.getName() + " was not the culprit.\n\n" +
-                              "You need more evidence. The case remains unsolved.");
+        if (view.getNotice() != null) {
+            JOptionPane.showMessageDialog(window,
+                view.getNotice(),
+                view.isNoticeError() ? "Error" : "Log Saved",
+                view.isNoticeError() ? JOptionPane.ERROR_MESSAGE : JOptionPane.INFORMATION_MESSAGE);
+            return;
         }
         
+        window.displayText(view.getText());
         window.clearButtons();
-        window.addChoiceButton("Save Final Report", this::saveInvestigationLog);
-        window.addChoiceButton("Play Again", this::resetGame);
-        window.addChoiceButton("Exit", () -> System.exit(0));
-    }
-    
-    private void saveInvestigationLog() {
-        String timestamp = new java.text.SimpleDateFormat("yyyyMMdd_HHmmss").format(new java.util.Date());
-        String fileName = "investigation_log_" + timestamp + ".txt";
-        
-        boolean success = logger.saveToFile(fileName);
-        
-        if (success) {
-            JOptionPane.showMessageDialog(window, 
-                "Investigation log saved to: " + fileName,
-                "Log Saved",
-                JOptionPane.INFORMATION_MESSAGE);
-        } else {
-            JOptionPane.showMessageDialog(window,
-                "Failed to save investigation log.",
-                "Error",
-                JOptionPane.ERROR_MESSAGE);
+        for (GameView.Option option : view.getOptions()) {
+            window.addChoiceButton(option.label, () -> dispatch(option.command));
         }
     }
-    
-    private void resetGame() {
-        gameState = new GameState();
-        logger = new InvestigationLogger();
-        choiceCounter = 0;
-        showIntroduction();
-    }
 }
@@ -0,0 +1,16 @@
+package game;
+
+/**
+ * The screens a game session moves between
+ */
+public enum GamePhase {
+    INTRODUCTION,
+    MAIN_MENU,
+    SUSPECT_LIST,
+    QUESTIONING,
+    CLUE_REVIEW,
+    SEARCH_RESULTS,
+    ACCUSATION,
+    CASE_CLOSED,
+    EXITED
+}
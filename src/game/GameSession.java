@@ -0,0 +1,492 @@
+package game;
+
+import model.*;
+import data.CaseSearchIndex;
+import data.ClueGate;
+import data.GameClock;
+import data.GameData;
+import data.InvestigationLogger;
+import data.LatencyHistogram;
+import data.Metrics;
+import data.RotatingLogAppender;
+import data.DatabaseManager;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * GameSession - Headless game engine for one player's investigation
+ * Takes GameCommands and returns GameViews; it has no UI dependencies, so any
+ * number of sessions can run in one JVM. A session is not thread-safe: commands
+ * for the same session must be handled one at a time.
+ */
+public class GameSession {
+    static final int MAX_SEARCH_RESULTS = 10;
+    private static final int EXCERPT_WIDTH = 160;
+
+    // session.<command> latency, indexed by GameCommand.Type ordinal
+    private static final LatencyHistogram[] HANDLER_LATENCY = handlerHistograms("session.");
+
+    private final GameData gameData;
+    private final DatabaseManager dbManager;
+    private final RotatingLogAppender logAppender;
+    private final int playerId;
+    private GameState gameState;
+    private InvestigationLogger logger;
+    private final InvestigationJournal journal;
+    private GamePhase phase;
+    private GameView currentView;
+    private int progressId;
+    private long gameStartTime;
+    private int choiceCounter;
+
+    /**
+     * @param dbManager shared database manager, or null to play without persistence
+     */
+    public GameSession(GameData gameData, DatabaseManager dbManager, int playerId) {
+        this(gameData, dbManager, playerId, null);
+    }
+
+    /**
+     * @param logAppender shared appender the investigation log streams to, or null to
+     *                    keep the log in memory until it is saved
+     */
+    public GameSession(GameData gameData, DatabaseManager dbManager, int playerId, RotatingLogAppender logAppender) {
+        this.gameData = gameData;
+        this.dbManager = dbManager;
+        this.logAppender = logAppender;
+        this.playerId = playerId;
+        this.gameState = gameData.newGameState();
+        this.logger = newLogger();
+        this.journal = new InvestigationJournal();
+        this.choiceCounter = 0;
+    }
+
+    /**
+     * Starts (or restarts) the case at the given difficulty and returns the introduction
+     */
+    public GameView start(CaseDifficulty difficulty) {
+        if (difficulty != null) {
+            gameData.setDifficulty(difficulty);
+            gameState.setDifficulty(difficulty);
+        }
+
+        logger.logGameStart();
+        gameStartTime = System.currentTimeMillis();
+
+        // Start tracking this case in database (if available)
+        progressId = -1;
+        if (isDatabaseAvailable()) {
+            progressId = dbManager.startCase(playerId, gameData.getCaseTitle(), gameState.getDifficulty());
+
+            // Save suspects to database (skipped when this case version is already stored)
+            dbManager.syncSuspectCatalog(gameData.getCaseTitle(), gameData.getSuspects());
+            saveSnapshot();
+        }
+
+        // The journal only keeps the current game, so it does not grow across resets
+        journal.clear();
+        journal.reset(gameState.getDifficulty(), progressId);
+
+        List<GameView.Option> options = new ArrayList<>();
+        options.add(new GameView.Option("Begin Investigation", GameCommand.of(GameCommand.Type.BEGIN)));
+        return show(GamePhase.INTRODUCTION, gameData.getCrimeStory(), options);
+    }
+
+    /**
+     * Resumes this player's unfinished investigation from the database
+     * Returns the main menu, or null if there is no usable saved investigation.
+     */
+    public GameView resume() {
+        if (!isDatabaseAvailable()) return null;
+        return resume(dbManager.loadSessionSnapshot(playerId, gameData.getCaseTitle()));
+    }
+
+    /**
+     * Restores progress from snapshot bytes (see snapshot()) and returns the main menu
+     * Returns null, leaving the session untouched, if the snapshot is unreadable or was
+     * taken against a different version of the case files.
+     */
+    public GameView resume(byte[] data) {
+        SessionSnapshot snapshot = SessionSnapshot.decode(data);
+        if (snapshot == null || snapshot.caseFingerprint != gameData.getDefinition().getSourceFingerprint()) {
+            return null;
+        }
+
+        if (!snapshot.fitsCase(gameData.getAllClues().size(), gameData.getSuspects().size())) {
+            return null;
+        }
+
+        gameState = gameData.newGameState();
+        gameData.setDifficulty(snapshot.difficulty);
+        progressId = snapshot.progressId;
+        choiceCounter = snapshot.choiceCounter;
+        gameStartTime = System.currentTimeMillis() - snapshot.elapsedMillis;
+        journal.clear();
+        journal.reset(snapshot.difficulty, progressId);
+        snapshot.restoreInto(gameState, journal);
+        logger = newLogger();
+        logger.logCustomNote("Investigation resumed with " + gameState.getClueCount() + " clues and " +
+                             gameState.getQuestionedSuspectCount() + " suspects questioned.");
+
+        phase = GamePhase.MAIN_MENU;
+        return showMainMenu();
+    }
+
+    /**
+     * Captures the current progress as a compact binary snapshot
+     */
+    public byte[] snapshot() {
+        return new SessionSnapshot(gameState.getDifficulty(), gameState.getCurrentScene(), progressId, choiceCounter,
+                                   System.currentTimeMillis() - gameStartTime,
+                                   gameData.getDefinition().getSourceFingerprint(),
+                                   journal.getLatestGameEvents()).encode();
+    }
+
+    /**
+     * Applies a command and returns the resulting view
+     * Commands that are not offered in the current phase leave the view unchanged.
+     */
+    public GameView handle(GameCommand command) {
+        long start = System.nanoTime();
+        try {
+            return apply(command);
+        } finally {
+            HANDLER_LATENCY[command.getType().ordinal()].recordSince(start);
+        }
+    }
+
+    private GameView apply(GameCommand command) {
+        if (currentView == null) {
+            return start(null);
+        }
+
+        switch (command.getType()) {
+            case BEGIN:
+            case MENU:
+                return showMainMenu();
+            case LIST_SUSPECTS:
+                return showSuspects();
+            case QUESTION:
+                Suspect questioned = suspectAt(command.getTarget());
+                return questioned != null ? questionSuspect(questioned) : currentView;
+            case REVIEW_CLUES:
+                return showClues();
+            case SEARCH:
+                return searchEvidence(command.getQuery());
+            case CHOOSE_ACCUSED:
+                return makeAccusation();
+            case ACCUSE:
+                Suspect accused = suspectAt(command.getTarget());
+                return accused != null && phase == GamePhase.ACCUSATION ? checkAccusation(accused) : currentView;
+            case SAVE_LOG:
+                return saveInvestigationLog();
+            case RESET:
+                return resetGame(command.getDifficulty());
+            case EXIT:
+                return show(GamePhase.EXITED, "Investigation closed.", new ArrayList<>());
+            default:
+                return currentView;
+        }
+    }
+
+    private GameView showMainMenu() {
+        if (phase == GamePhase.CASE_CLOSED || phase == GamePhase.EXITED) return currentView;
+
+        StringBuilder text = new StringBuilder();
+        text.append("What would you like to do?\n\n");
+        text.append("Clues found: ").append(gameState.getClueCount()).append("\n");
+        text.append("Suspects questioned: ").append(gameState.getQuestionedSuspectCount()).append("\n");
+
+        List<GameView.Option> options = new ArrayList<>();
+        options.add(new GameView.Option("Question a Suspect", GameCommand.of(GameCommand.Type.LIST_SUSPECTS)));
+        options.add(new GameView.Option("Review Clues", GameCommand.of(GameCommand.Type.REVIEW_CLUES)));
+        options.add(new GameView.Option("Search Evidence", GameCommand.search(null)));
+        options.add(new GameView.Option("Make an Accusation", GameCommand.of(GameCommand.Type.CHOOSE_ACCUSED)));
+        options.add(new GameView.Option("Save Investigation Log", GameCommand.of(GameCommand.Type.SAVE_LOG)));
+        return show(GamePhase.MAIN_MENU, text.toString(), options);
+    }
+
+    private GameView showSuspects() {
+        if (phase != GamePhase.MAIN_MENU) return currentView;
+
+        List<Suspect> suspects = gameData.getSuspects();
+        List<GameView.Option> options = new ArrayList<>();
+        for (int i = 0; i < suspects.size(); i++) {
+            Suspect suspect = suspects.get(i);
+            options.add(new GameView.Option(suspect.getName() + " - " + suspect.getRole(), GameCommand.question(i)));
+        }
+        options.add(new GameView.Option("Back to Menu", GameCommand.of(GameCommand.Type.MENU)));
+        return show(GamePhase.SUSPECT_LIST, "Choose a suspect to question:", options);
+    }
+
+    private GameView questionSuspect(Suspect suspect) {
+        if (phase != GamePhase.SUSPECT_LIST) return currentView;
+
+        gameState.addQuestionedSuspect(suspect);
+        logger.logSuspectQuestioned(suspect.getName(), suspect.getRole());
+        journal.suspectQuestioned(suspect.getId());
+        choiceCounter++;
+
+        StringBuilder text = new StringBuilder();
+        text.append("You question ").append(suspect.getName()).append(":\n\n").append(suspect.getStatement());
+
+        // Check which clues this questioning reveals at the current difficulty
+        ClueGate gate = gameData.getClueGate(gameState.getDifficulty());
+        int[] revealed = new int[gate.getMaxCluesPerSuspect()];
+        int cluesDiscovered = gate.revealable(gameState, suspect.getId(),
+                                              gameState.getQuestionCount(suspect.getId()), revealed);
+        StringBuilder clueText = new StringBuilder();
+        for (int i = 0; i < cluesDiscovered; i++) {
+            Clue clue = gameData.getAllClues().get(revealed[i]);
+            gameState.addClue(clue);
+            logger.logClueDiscovered(clue.getName(), clue.getDescription());
+            journal.clueDiscovered(clue.getId());
+            clueText.append("\n[New Clue Found: ").append(clue.getName()).append("]");
+
+            // Record clue in database (if available)
+            if (isDatabaseAvailable()) {
+                dbManager.recordClueDiscovered(progressId, clue.getName());
+            }
+        }
+        if (gate.hidden(gameState, suspect.getId()) > 0) {
+            clueText.append("\n").append(suspect.getName()).append(" seems to know more than they are saying.");
+        }
+        if (clueText.length() > 0) {
+            text.append("\n\n").append(clueText);
+        }
+
+        // Record player choice in database (if available)
+        if (isDatabaseAvailable()) {
+            dbManager.recordPlayerChoice(progressId, playerId, suspect.getName(), cluesDiscovered, choiceCounter);
+
+            // Update case progress
+            dbManager.updateCaseProgress(progressId, gameState.getQuestionedSuspectCount(), gameState.getClueCount());
+            saveSnapshot();
+        }
+
+        List<GameView.Option> options = new ArrayList<>();
+        options.add(new GameView.Option("Continue", GameCommand.of(GameCommand.Type.MENU)));
+        return show(GamePhase.QUESTIONING, text.toString(), options);
+    }
+
+    private GameView showClues() {
+        if (phase != GamePhase.MAIN_MENU) return currentView;
+
+        List<Clue> clues = gameState.getClues();
+        logger.logCluesReviewed(clues.size());
+        journal.cluesReviewed();
+
+        StringBuilder text = new StringBuilder("Clues you've gathered:\n\n");
+
+        if (clues.isEmpty()) {
+            text.append("No clues found yet. Question suspects to find clues!");
+        } else {
+            for (Clue clue : clues) {
+                text.append("• ").append(clue.getName()).append("\n");
+                text.append("  ").append(clue.getDescription()).append("\n\n");
+            }
+        }
+
+        List<GameView.Option> options = new ArrayList<>();
+        options.add(new GameView.Option("Back to Menu", GameCommand.of(GameCommand.Type.MENU)));
+        return show(GamePhase.CLUE_REVIEW, text.toString(), options);
+    }
+
+    /**
+     * Ranks what the player has seen so far (the story, found clues and the statements of
+     * questioned suspects) against the query
+     */
+    private GameView searchEvidence(String query) {
+        if (phase != GamePhase.MAIN_MENU && phase != GamePhase.SEARCH_RESULTS) return currentView;
+        if (query == null || query.trim().isEmpty()) {
+            return currentView.withNotice("Enter some words to search the evidence for.", true);
+        }
+
+        CaseSearchIndex index = gameData.getSearchIndex();
+        List<CaseSearchIndex.Hit> hits = index.search(query, MAX_SEARCH_RESULTS, (kind, ref) ->
+            kind == CaseSearchIndex.Kind.STORY
+            || (kind == CaseSearchIndex.Kind.CLUE && gameState.hasClueId(ref))
+            || (kind == CaseSearchIndex.Kind.SUSPECT && gameState.hasQuestionedSuspectId(ref)));
+
+        StringBuilder text = new StringBuilder("Search results for \"").append(query.trim()).append("\":\n\n");
+        if (hits.isEmpty()) {
+            text.append("Nothing in the case file, your clues or the statements you've heard matches.");
+        }
+        for (CaseSearchIndex.Hit hit : hits) {
+            String body;
+            switch (hit.kind) {
+                case CLUE:
+                    Clue clue = gameData.getAllClues().get(hit.ref);
+                    text.append("• Clue: ").append(clue.getName()).append("\n");
+                    body = clue.getDescription();
+                    break;
+                case SUSPECT:
+                    Suspect suspect = gameData.getSuspects().get(hit.ref);
+                    text.append("• Statement: ").append(suspect.getName()).append(" (").append(suspect.getRole()).append(")\n");
+                    body = suspect.getStatement();
+                    break;
+                default:
+                    text.append("• Case file\n");
+                    body = index.getStoryParagraph(hit.ref);
+                    break;
+            }
+            text.append("  ").append(CaseSearchIndex.excerpt(body, query, EXCERPT_WIDTH)).append("\n\n");
+        }
+
+        List<GameView.Option> options = new ArrayList<>();
+        options.add(new GameView.Option("Search Again", GameCommand.search(null)));
+        options.add(new GameView.Option("Back to Menu", GameCommand.of(GameCommand.Type.MENU)));
+        return show(GamePhase.SEARCH_RESULTS, text.toString(), options);
+    }
+
+    private GameView makeAccusation() {
+        if (phase != GamePhase.MAIN_MENU) return currentView;
+
+        List<Suspect> suspects = gameData.getSuspects();
+        List<GameView.Option> options = new ArrayList<>();
+        for (int i = 0; i < suspects.size(); i++) {
+            options.add(new GameView.Option("Accuse " + suspects.get(i).getName(), GameCommand.accuse(i)));
+        }
+        options.add(new GameView.Option("Back to Menu", GameCommand.of(GameCommand.Type.MENU)));
+        return show(GamePhase.ACCUSATION, "Who do you think is the culprit?", options);
+    }
+
+    private GameView checkAccusation(Suspect suspect) {
+        boolean correct = suspect.isGuilty();
+
+        logger.logAccusation(suspect.getName(), correct);
+        journal.accusation(suspect.getId(), correct);
+
+        // Create case summary
+        List<String> clueNames = new ArrayList<>();
+        for (Clue clue : gameState.getClues()) {
+            clueNames.add(clue.getName());
+        }
+        List<String> suspectNames = new ArrayList<>();
+        for (Suspect s : gameState.getQuestionedSuspects()) {
+            suspectNames.add(s.getName());
+        }
+        logger.logCaseSummary(clueNames, suspectNames, correct);
+
+        // Calculate time spent
+        int timeMinutes = (int) ((System.currentTimeMillis() - gameStartTime) / 60000);
+
+        // Save case completion to database (if available)
+        if (isDatabaseAvailable()) {
+            dbManager.completeCase(progressId, correct, suspect.getName(), timeMinutes);
+            dbManager.updatePlayerStats(playerId, correct);
+            dbManager.deleteSessionSnapshot(playerId, gameData.getCaseTitle());
+        }
+
+        String text;
+        if (correct) {
+            text = "Congratulations! You solved the mystery!\n\n" +
+                   suspect.getName() + " was indeed the culprit.\n\n" +
+                   "The evidence all pointed to them. Well done, Detective!";
+        } else {
+            text = "Wrong accusation!\n\n" +
+                   suspect.getName() + " was not the culprit.\n\n" +
+                   "You need more evidence. The case remains unsolved.";
+        }
+
+        List<GameView.Option> options = new ArrayList<>();
+        options.add(new GameView.Option("Save Final Report", GameCommand.of(GameCommand.Type.SAVE_LOG)));
+        options.add(new GameView.Option("Play Again", GameCommand.reset(null)));
+        options.add(new GameView.Option("Exit", GameCommand.of(GameCommand.Type.EXIT)));
+        return show(GamePhase.CASE_CLOSED, text, options);
+    }
+
+    private GameView saveInvestigationLog() {
+        // Streamed logs are already on disk once the appender catches up
+        if (logger.isStreaming()) {
+            logger.flush();
+            return currentView.withNotice("Investigation log saved to: " + logAppender.getCurrentFile(), false);
+        }
+
+        String timestamp = GameClock.shared().now(GameClock.Format.FILE);
+        String fileName = "investigation_log_" + timestamp + ".txt";
+
+        if (logger.saveToFile(fileName)) {
+            return currentView.withNotice("Investigation log saved to: " + fileName, false);
+        }
+        return currentView.withNotice("Failed to save investigation log.", true);
+    }
+
+    private GameView resetGame(CaseDifficulty difficulty) {
+        gameState = gameData.newGameState();
+        gameState.setDifficulty(difficulty != null ? difficulty : gameData.getDifficulty());
+        logger = newLogger();
+        choiceCounter = 0;
+        return start(difficulty);
+    }
+
+    // ==================== STATE ACCESS ====================
+
+    public GamePhase getPhase() {
+        return phase;
+    }
+
+    public GameView getCurrentView() {
+        return currentView;
+    }
+
+    public GameState getGameState() {
+        return gameState;
+    }
+
+    public GameData getGameData() {
+        return gameData;
+    }
+
+    public InvestigationLogger getLogger() {
+        return logger;
+    }
+
+    /**
+     * Every event of the current game (since the last start, reset or resume)
+     */
+    public InvestigationJournal getJournal() {
+        return journal;
+    }
+
+    public int getPlayerId() {
+        return playerId;
+    }
+
+    /**
+     * One latency histogram per command type, named prefix + the lower-case type
+     */
+    static LatencyHistogram[] handlerHistograms(String prefix) {
+        GameCommand.Type[] types = GameCommand.Type.values();
+        LatencyHistogram[] histograms = new LatencyHistogram[types.length];
+        for (GameCommand.Type type : types) {
+            histograms[type.ordinal()] = Metrics.shared().histogram(prefix + type.name().toLowerCase());
+        }
+        return histograms;
+    }
+
+    private InvestigationLogger newLogger() {
+        String caseTitle = gameData.getCaseTitle();
+        return logAppender != null ? new InvestigationLogger(logAppender, "Player " + playerId, caseTitle)
+                                   : new InvestigationLogger(caseTitle);
+    }
+
+    private void saveSnapshot() {
+        dbManager.saveSessionSnapshot(playerId, gameData.getCaseTitle(), snapshot());
+    }
+
+    private boolean isDatabaseAvailable() {
+        return dbManager != null && dbManager.isAvailable();
+    }
+
+    private Suspect suspectAt(int index) {
+        List<Suspect> suspects = gameData.getSuspects();
+        return index >= 0 && index < suspects.size() ? suspects.get(index) : null;
+    }
+
+    private GameView show(GamePhase newPhase, String text, List<GameView.Option> options) {
+        phase = newPhase;
+        currentView = new GameView(newPhase, text, options);
+        return currentView;
+    }
+}
@@ -0,0 +1,69 @@
+package game;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * GameView - What a session shows after handling a command: the story text,
+ * the choices the player can make next, and an optional notice message
+ */
+public class GameView {
+    private final GamePhase phase;
+    private final String text;
+    private final List<Option> options;
+    private final String notice;
+    private final boolean noticeIsError;
+
+    public GameView(GamePhase phase, String text, List<Option> options) {
+        this(phase, text, options, null, false);
+    }
+
+    public GameView(GamePhase phase, String text, List<Option> options, String notice, boolean noticeIsError) {
+        this.phase = phase;
+        this.text = text;
+        this.options = Collections.unmodifiableList(new ArrayList<>(options));
+        this.notice = notice;
+        this.noticeIsError = noticeIsError;
+    }
+
+    /**
+     * Same view with a notice attached (e.g. "log saved")
+     */
+    public GameView withNotice(String notice, boolean isError) {
+        return new GameView(phase, text, options, notice, isError);
+    }
+
+    public GamePhase getPhase() {
+        return phase;
+    }
+
+    public String getText() {
+        return text;
+    }
+
+    public List<Option> getOptions() {
+        return options;
+    }
+
+    public String getNotice() {
+        return notice;
+    }
+
+    public boolean isNoticeError() {
+        return noticeIsError;
+    }
+
+    /**
+     * A labelled choice and the command it sends
+     */
+    public static class Option {
+        public final String label;
+        public final GameCommand command;
+
+        public Option(String label, GameCommand command) {
+            this.label = label;
+            this.command = command;
+        }
+    }
+}
@@ -0,0 +1,496 @@
+package game;
+
+import model.CaseDifficulty;
+import model.Clue;
+import model.GameState;
+import model.Suspect;
+import data.DatabaseManager;
+import data.GameData;
+import data.InvestigationLogger;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * InvestigationJournal - Append-only record of what happened in a session
+ * Every event is one fixed 16-byte record, so a journal can be replayed without parsing
+ * or allocating to rebuild the GameState, the text log or the database rows.
+ *
+ * Record layout (big-endian):
+ *   byte type, byte flag, short reserved, int subjectId, long timeMillis
+ * flag is the difficulty for RESET and 1/0 (correct or not) for ACCUSATION;
+ * subjectId is the suspect or clue id, the game's case_progress id for RESET, or -1.
+ * A saved journal starts with int magic, int version.
+ */
+public class InvestigationJournal {
+    public static final int MAGIC = 0x4D474A4E; // "MGJN"
+    public static final int VERSION = 1;
+    public static final int RECORD_SIZE = 16;
+
+    private static final int FILE_HEADER_SIZE = 8;
+
+    /**
+     * Event types, stored by their code
+     */
+    public enum EventType {
+        RESET(1), SUSPECT_QUESTIONED(2), CLUE_DISCOVERED(3), CLUES_REVIEWED(4), ACCUSATION(5);
+
+        private static final EventType[] BY_CODE = new EventType[6];
+        static {
+            for (EventType type : values()) {
+                BY_CODE[type.code] = type;
+            }
+        }
+
+        final byte code;
+
+        EventType(int code) {
+            this.code = (byte) code;
+        }
+
+        static EventType fromCode(int code) {
+            return code > 0 && code < BY_CODE.length ? BY_CODE[code] : null;
+        }
+    }
+
+    /**
+     * Receives events in journal order during replay
+     */
+    public interface Listener {
+        /**
+         * @param progressId the game's case_progress id, or -1 if it was played without a database
+         */
+        void onReset(CaseDifficulty difficulty, int progressId, long timeMillis);
+        void onSuspectQuestioned(int suspectId, long timeMillis);
+        void onClueDiscovered(int clueId, long timeMillis);
+        void onCluesReviewed(long timeMillis);
+        void onAccusation(int suspectId, boolean correct, long timeMillis);
+    }
+
+    private ByteBuffer records;
+
+    public InvestigationJournal() {
+        this(64);
+    }
+
+    public InvestigationJournal(int initialEvents) {
+        this.records = ByteBuffer.allocate(Math.max(1, initialEvents) * RECORD_SIZE);
+    }
+
+    private InvestigationJournal(ByteBuffer records) {
+        this.records = records;
+    }
+
+    // ==================== APPENDING ====================
+
+    public void reset(CaseDifficulty difficulty) {
+        reset(difficulty, -1);
+    }
+
+    /**
+     * Starts (or resumes) the game recorded in case_progress row progressId
+     */
+    public void reset(CaseDifficulty difficulty, int progressId) {
+        append(EventType.RESET, difficulty.ordinal(), progressId);
+    }
+
+    public void suspectQuestioned(int suspectId) {
+        append(EventType.SUSPECT_QUESTIONED, 0, suspectId);
+    }
+
+    public void clueDiscovered(int clueId) {
+        append(EventType.CLUE_DISCOVERED, 0, clueId);
+    }
+
+    public void cluesReviewed() {
+        append(EventType.CLUES_REVIEWED, 0, -1);
+    }
+
+    public void accusation(int suspectId, boolean correct) {
+        append(EventType.ACCUSATION, correct ? 1 : 0, suspectId);
+    }
+
+    void append(EventType type, int flag, int subjectId, long timeMillis) {
+        if (records.remaining() < RECORD_SIZE) {
+            ByteBuffer grown = ByteBuffer.allocate(records.capacity() * 2);
+            records.flip();
+            grown.put(records);
+            records = grown;
+        }
+        records.put(type.code);
+        records.put((byte) flag);
+        records.putShort((short) 0);
+        records.putInt(subjectId);
+        records.putLong(timeMillis);
+    }
+
+    private void append(EventType type, int flag, int subjectId) {
+        append(type, flag, subjectId, System.currentTimeMillis());
+    }
+
+    /**
+     * Questionings and clue discoveries since the latest RESET, in order: the suspect id
+     * for each questioning and ~clueId for each clue found (see SessionSnapshot)
+     */
+    public int[] getLatestGameEvents() {
+        int start = records.position();
+        while (start > 0 && records.get(start - RECORD_SIZE) != EventType.RESET.code) {
+            start -= RECORD_SIZE;
+        }
+        int count = 0;
+        for (int offset = start; offset < records.position(); offset += RECORD_SIZE) {
+            byte code = records.get(offset);
+            if (code == EventType.SUSPECT_QUESTIONED.code || code == EventType.CLUE_DISCOVERED.code) {
+                count++;
+            }
+        }
+        int[] events = new int[count];
+        int next = 0;
+        for (int offset = start; offset < records.position(); offset += RECORD_SIZE) {
+            byte code = records.get(offset);
+            int subjectId = records.getInt(offset + 4);
+            if (code == EventType.SUSPECT_QUESTIONED.code) {
+                events[next++] = subjectId;
+            } else if (code == EventType.CLUE_DISCOVERED.code) {
+                events[next++] = ~subjectId;
+            }
+        }
+        return events;
+    }
+
+    public int size() {
+        return records.position() / RECORD_SIZE;
+    }
+
+    /**
+     * Drops every event, keeping the storage
+     */
+    public void clear() {
+        records.clear();
+    }
+
+    // ==================== REPLAY ====================
+
+    /**
+     * Feeds the events to the listener in the order they were appended, stopping at the
+     * first record that is not valid for a case with these many clues and suspects (an
+     * unknown type or difficulty, or an id outside the case). Returns the number of events
+     * replayed, which is size() unless the journal is corrupt.
+     */
+    public int replay(Listener listener, int clueCount, int suspectCount) {
+        int end = records.position();
+        CaseDifficulty[] difficulties = CaseDifficulty.values();
+        for (int offset = 0; offset < end; offset += RECORD_SIZE) {
+            int flag = records.get(offset + 1);
+            int subjectId = records.getInt(offset + 4);
+            long timeMillis = records.getLong(offset + 8);
+
+            EventType type = EventType.fromCode(records.get(offset));
+            if (!isValid(type, flag, subjectId, clueCount, suspectCount)) {
+                System.err.println("Journal record " + offset / RECORD_SIZE + " is corrupt; replay stopped there");
+                return offset / RECORD_SIZE;
+            }
+            switch (type) {
+                case RESET:
+                    listener.onReset(difficulties[flag], subjectId, timeMillis);
+                    break;
+                case SUSPECT_QUESTIONED:
+                    listener.onSuspectQuestioned(subjectId, timeMillis);
+                    break;
+                case CLUE_DISCOVERED:
+                    listener.onClueDiscovered(subjectId, timeMillis);
+                    break;
+                case CLUES_REVIEWED:
+                    listener.onCluesReviewed(timeMillis);
+                    break;
+                case ACCUSATION:
+                    listener.onAccusation(subjectId, flag != 0, timeMillis);
+                    break;
+            }
+        }
+        return size();
+    }
+
+    private static boolean isValid(EventType type, int flag, int subjectId, int clueCount, int suspectCount) {
+        if (type == null) {
+            return false;
+        }
+        switch (type) {
+            case RESET:
+                return flag >= 0 && flag < CaseDifficulty.values().length && subjectId >= -1;
+            case SUSPECT_QUESTIONED:
+                return subjectId >= 0 && subjectId < suspectCount;
+            case CLUE_DISCOVERED:
+                return subjectId >= 0 && subjectId < clueCount;
+            case ACCUSATION:
+                return (flag == 0 || flag == 1) && subjectId >= 0 && subjectId < suspectCount;
+            default:
+                return true;
+        }
+    }
+
+    /**
+     * Rebuilds the progress of the latest game in the journal
+     */
+    public GameState rebuildState(GameData gameData) {
+        StateRebuilder rebuilder = new StateRebuilder(gameData);
+        replay(rebuilder, gameData);
+        return rebuilder.state;
+    }
+
+    /**
+     * Rebuilds the text log of every game in the journal
+     */
+    public InvestigationLogger rebuildLog(GameData gameData) {
+        LogRebuilder rebuilder = new LogRebuilder(gameData);
+        replay(rebuilder, gameData);
+        return rebuilder.logger;
+    }
+
+    /**
+     * Writes the case_progress, player_choices and clues_discovered rows for every game in
+     * the journal that the database does not have yet, as the live session would have.
+     * A game is already there if the player has a row for the case with the game's
+     * progress id, or one started at the game's journal time (as rows written by an
+     * earlier rebuild are), so rebuilding twice writes nothing the second time. Other
+     * row timestamps are the replay time.
+     */
+    public void rebuildDatabaseRows(GameData gameData, DatabaseManager dbManager, int playerId, String caseName) {
+        replay(new DatabaseRebuilder(gameData, dbManager, playerId, caseName), gameData);
+        dbManager.flushPendingWrites();
+    }
+
+    private int replay(Listener listener, GameData gameData) {
+        return replay(listener, gameData.getAllClues().size(), gameData.getSuspects().size());
+    }
+
+    // ==================== PERSISTENCE ====================
+
+    public byte[] toBytes() {
+        ByteBuffer out = ByteBuffer.allocate(FILE_HEADER_SIZE + records.position());
+        out.putInt(MAGIC);
+        out.putInt(VERSION);
+        out.put(records.array(), 0, records.position());
+        return out.array();
+    }
+
+    public static InvestigationJournal fromBytes(byte[] data) throws IOException {
+        ByteBuffer in = ByteBuffer.wrap(data);
+        if (data.length < FILE_HEADER_SIZE || in.getInt() != MAGIC) {
+            throw new IOException("Not an investigation journal");
+        }
+        if (in.getInt() != VERSION) {
+            throw new IOException("Unsupported journal version");
+        }
+        int length = (data.length - FILE_HEADER_SIZE) / RECORD_SIZE * RECORD_SIZE;
+        ByteBuffer records = ByteBuffer.allocate(Math.max(length, RECORD_SIZE));
+        records.put(data, FILE_HEADER_SIZE, length);
+        return new InvestigationJournal(records);
+    }
+
+    public void save(Path path) throws IOException {
+        Files.write(path, toBytes());
+    }
+
+    public static InvestigationJournal load(Path path) throws IOException {
+        return fromBytes(Files.readAllBytes(path));
+    }
+
+    // ==================== REPLAY TARGETS ====================
+
+    private static class StateRebuilder implements Listener {
+        private final GameData gameData;
+        private GameState state;
+
+        StateRebuilder(GameData gameData) {
+            this.gameData = gameData;
+            this.state = gameData.newGameState();
+        }
+
+        public void onReset(CaseDifficulty difficulty, int progressId, long timeMillis) {
+            state = gameData.newGameState();
+            state.setDifficulty(difficulty);
+        }
+
+        public void onSuspectQuestioned(int suspectId, long timeMillis) {
+            state.addQuestionedSuspectId(suspectId);
+        }
+
+        public void onClueDiscovered(int clueId, long timeMillis) {
+            state.addClueId(clueId);
+        }
+
+        public void onCluesReviewed(long timeMillis) {
+        }
+
+        public void onAccusation(int suspectId, boolean correct, long timeMillis) {
+        }
+    }
+
+    private static class LogRebuilder implements Listener {
+        private final GameData gameData;
+        private final InvestigationLogger logger;
+        private final List<String> clueNames = new ArrayList<>();
+        private final List<String> suspectNames = new ArrayList<>();
+
+        LogRebuilder(GameData gameData) {
+            this.gameData = gameData;
+            this.logger = new InvestigationLogger(gameData.getCaseTitle());
+        }
+
+        public void onReset(CaseDifficulty difficulty, int progressId, long timeMillis) {
+            clueNames.clear();
+            suspectNames.clear();
+            logger.logGameStart();
+        }
+
+        public void onSuspectQuestioned(int suspectId, long timeMillis) {
+            Suspect suspect = gameData.getSuspects().get(suspectId);
+            logger.logSuspectQuestioned(suspect.getName(), suspect.getRole());
+            if (!suspectNames.contains(suspect.getName())) {
+                suspectNames.add(suspect.getName());
+            }
+        }
+
+        public void onClueDiscovered(int clueId, long timeMillis) {
+            Clue clue = gameData.getAllClues().get(clueId);
+            logger.logClueDiscovered(clue.getName(), clue.getDescription());
+            clueNames.add(clue.getName());
+        }
+
+        public void onCluesReviewed(long timeMillis) {
+            logger.logCluesReviewed(clueNames.size());
+        }
+
+        public void onAccusation(int suspectId, boolean correct, long timeMillis) {
+            logger.logAccusation(gameData.getSuspects().get(suspectId).getName(), correct);
+            logger.logCaseSummary(clueNames, suspectNames, correct);
+        }
+    }
+
+    private static class DatabaseRebuilder implements Listener {
+        private final GameData gameData;
+        private final DatabaseManager dbManager;
+        private final int playerId;
+        private final String caseName;
+        private GameState state;
+        private int progressId = -1;
+        private long startMillis;
+        private int choiceCounter;
+        private int pendingSuspect = -1;
+        private int pendingClues;
+
+        DatabaseRebuilder(GameData gameData, DatabaseManager dbManager, int playerId, String caseName) {
+            this.gameData = gameData;
+            this.dbManager = dbManager;
+            this.playerId = playerId;
+            this.caseName = caseName;
+        }
+
+        public void onReset(CaseDifficulty difficulty, int gameProgressId, long timeMillis) {
+            flushChoice();
+            if (dbManager.findCaseProgress(playerId, caseName, gameProgressId, timeMillis) >= 0) {
+                // Already recorded, live or by an earlier rebuild: skip this game's events
+                state = null;
+                return;
+            }
+            state = gameData.newGameState();
+            progressId = dbManager.startCase(playerId, caseName, difficulty, timeMillis);
+            startMillis = timeMillis;
+            choiceCounter = 0;
+        }
+
+        public void onSuspectQuestioned(int suspectId, long timeMillis) {
+            flushChoice();
+            if (state == null) return;
+            state.addQuestionedSuspectId(suspectId);
+            pendingSuspect = suspectId;
+            pendingClues = 0;
+        }
+
+        public void onClueDiscovered(int clueId, long timeMillis) {
+            if (state == null) return;
+            state.addClueId(clueId);
+            dbManager.recordClueDiscovered(progressId, gameData.getAllClues().get(clueId).getName());
+            pendingClues++;
+        }
+
+        public void onCluesReviewed(long timeMillis) {
+        }
+
+        public void onAccusation(int suspectId, boolean correct, long timeMillis) {
+            flushChoice();
+            if (state == null) return;
+            int timeMinutes = (int) ((timeMillis - startMillis) / 60000);
+            dbManager.completeCase(progressId, correct, gameData.getSuspects().get(suspectId).getName(), timeMinutes);
+            dbManager.updatePlayerStats(playerId, correct);
+        }
+
+        /**
+         * A choice row is written once the clues it uncovered are known
+         */
+        private void flushChoice() {
+            if (pendingSuspect < 0) return;
+            choiceCounter++;
+            String name = gameData.getSuspects().get(pendingSuspect).getName();
+            dbManager.recordPlayerChoice(progressId, playerId, name, pendingClues, choiceCounter);
+            dbManager.updateCaseProgress(progressId, state.getQuestionedSuspectCount(), state.getClueCount());
+            pendingSuspect = -1;
+        }
+    }
+
+    // ==================== THROUGHPUT CHECK ====================
+
+    /**
+     * Replays a synthetic journal and prints events per second
+     * Usage: java game.InvestigationJournal [events]
+     */
+    public static void main(String[] args) {
+        int events = args.length > 0 ? Integer.parseInt(args[0]) : 5_000_000;
+        GameData gameData = new GameData();
+        int suspects = gameData.getSuspects().size();
+        int clues = gameData.getAllClues().size();
+
+        // One game: reset, question every suspect (finding their clues), review, accuse
+        InvestigationJournal journal = new InvestigationJournal(events);
+        long time = System.currentTimeMillis();
+        while (journal.size() < events) {
+            journal.append(EventType.RESET, CaseDifficulty.MEDIUM.ordinal(), -1, time++);
+            for (int i = 0; i < suspects && journal.size() < events; i++) {
+                journal.append(EventType.SUSPECT_QUESTIONED, 0, i, time++);
+                journal.append(EventType.CLUE_DISCOVERED, 0, i % Math.max(1, clues), time++);
+            }
+            journal.append(EventType.CLUES_REVIEWED, 0, -1, time++);
+            journal.append(EventType.ACCUSATION, 1, suspects - 1, time++);
+        }
+
+        long[] counts = new long[1];
+        Listener counter = new Listener() {
+            public void onReset(CaseDifficulty difficulty, int progressId, long timeMillis) { counts[0]++; }
+            public void onSuspectQuestioned(int suspectId, long timeMillis) { counts[0] += suspectId; }
+            public void onClueDiscovered(int clueId, long timeMillis) { counts[0] += clueId; }
+            public void onCluesReviewed(long timeMillis) { counts[0]++; }
+            public void onAccusation(int suspectId, boolean correct, long timeMillis) { counts[0]++; }
+        };
+
+        System.out.println("Journal: " + journal.size() + " events, " + journal.records.position() + " bytes");
+        for (int round = 1; round <= 5; round++) {
+            long start = System.nanoTime();
+            journal.replay(counter, clues, suspects);
+            long decodeNanos = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            GameState state = journal.rebuildState(gameData);
+            long stateNanos = System.nanoTime() - start;
+
+            System.out.printf("Round %d: decode %.1f M events/s | rebuild GameState %.1f M events/s (%d clues)%n",
+                round, journal.size() * 1000.0 / decodeNanos, journal.size() * 1000.0 / stateNanos,
+                state.getClueCount());
+        }
+        System.out.println("Checksum: " + Arrays.hashCode(counts));
+    }
+}
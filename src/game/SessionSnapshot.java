@@ -0,0 +1,179 @@
+package game;
+
+import model.CaseDifficulty;
+import model.GameState;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+
+/**
+ * SessionSnapshot - Compact binary save of an in-progress investigation
+ * Holds everything GameSession needs to carry on where the player left off, so a
+ * session is restored from one stored blob instead of replaying player_choices rows.
+ *
+ * Layout (big-endian):
+ *   short formatVersion, byte difficulty, int scene, int progressId, int choiceCounter,
+ *   long elapsedMillis, long caseFingerprint,
+ *   int eventCount, eventCount x int event
+ * Each event is one questioning (the suspect id) or one clue found (~clueId, so negative),
+ * in the order they happened.
+ *
+ * Version 1 and 2 snapshots (clue ids, then questioned suspect ids and, since version 2,
+ * a question count for each) are still read, with every questioning put before the clues.
+ */
+public class SessionSnapshot {
+    public static final short FORMAT_VERSION = 3;
+
+    // Most questionings of one suspect a version 2 snapshot may claim
+    private static final int MAX_LEGACY_QUESTION_COUNT = 1024;
+
+    private static final int FIXED_SIZE = 2 + 1 + 4 + 4 + 4 + 8 + 8 + 4;
+
+    public final CaseDifficulty difficulty;
+    public final int scene;
+    public final int progressId;
+    public final int choiceCounter;
+    public final long elapsedMillis;
+    public final long caseFingerprint;
+    /** Questionings (suspect id) and found clues (~clueId) in order, as InvestigationJournal.getLatestGameEvents() */
+    public final int[] events;
+
+    public SessionSnapshot(CaseDifficulty difficulty, int scene, int progressId, int choiceCounter,
+                           long elapsedMillis, long caseFingerprint, int[] events) {
+        this.difficulty = difficulty;
+        this.scene = scene;
+        this.progressId = progressId;
+        this.choiceCounter = choiceCounter;
+        this.elapsedMillis = elapsedMillis;
+        this.caseFingerprint = caseFingerprint;
+        this.events = events;
+    }
+
+    public byte[] encode() {
+        ByteBuffer out = ByteBuffer.allocate(FIXED_SIZE + events.length * 4);
+        out.putShort(FORMAT_VERSION);
+        out.put((byte) difficulty.ordinal());
+        out.putInt(scene);
+        out.putInt(progressId);
+        out.putInt(choiceCounter);
+        out.putLong(elapsedMillis);
+        out.putLong(caseFingerprint);
+        out.putInt(events.length);
+        for (int event : events) {
+            out.putInt(event);
+        }
+        return out.array();
+    }
+
+    /**
+     * Decodes a snapshot, or returns null if the data is from another format version or damaged
+     */
+    public static SessionSnapshot decode(byte[] data) {
+        if (data == null || data.length < FIXED_SIZE) {
+            return null;
+        }
+
+        try {
+            ByteBuffer in = ByteBuffer.wrap(data);
+            short version = in.getShort();
+            if (version < 1 || version > FORMAT_VERSION) {
+                return null;
+            }
+            int difficulty = in.get();
+            if (difficulty < 0 || difficulty >= CaseDifficulty.values().length) {
+                return null;
+            }
+            int scene = in.getInt();
+            int progressId = in.getInt();
+            int choiceCounter = in.getInt();
+            long elapsedMillis = in.getLong();
+            long caseFingerprint = in.getLong();
+            int[] events = version == FORMAT_VERSION ? readInts(in) : readLegacyEvents(in, version);
+            if (events == null) {
+                return null;
+            }
+            return new SessionSnapshot(CaseDifficulty.values()[difficulty], scene, progressId, choiceCounter,
+                                       elapsedMillis, caseFingerprint, events);
+        } catch (BufferUnderflowException e) {
+            return null;
+        }
+    }
+
+    private static int[] readInts(ByteBuffer in) {
+        int count = in.getInt();
+        if (count < 0 || count > in.remaining() / 4) {
+            return null;
+        }
+        int[] values = new int[count];
+        for (int i = 0; i < count; i++) {
+            values[i] = in.getInt();
+        }
+        return values;
+    }
+
+    /**
+     * Turns the clue and suspect lists of a version 1 or 2 snapshot into events.
+     * Those versions did not keep the order, so every questioning comes first.
+     */
+    private static int[] readLegacyEvents(ByteBuffer in, int version) {
+        int[] clueIds = readInts(in);
+        int[] suspectIds = readInts(in);
+        if (clueIds == null || suspectIds == null) {
+            return null;
+        }
+        int[] questionCounts = new int[suspectIds.length];
+        int questionings = 0;
+        for (int i = 0; i < questionCounts.length; i++) {
+            questionCounts[i] = version == 1 ? 1 : in.getInt();
+            if (questionCounts[i] < 1 || questionCounts[i] > MAX_LEGACY_QUESTION_COUNT) {
+                return null;
+            }
+            questionings += questionCounts[i];
+        }
+
+        int[] events = new int[questionings + clueIds.length];
+        int next = 0;
+        for (int i = 0; i < suspectIds.length; i++) {
+            if (suspectIds[i] < 0) {
+                return null;
+            }
+            for (int n = 0; n < questionCounts[i]; n++) {
+                events[next++] = suspectIds[i];
+            }
+        }
+        for (int id : clueIds) {
+            if (id < 0) {
+                return null;
+            }
+            events[next++] = ~id;
+        }
+        return events;
+    }
+
+    /**
+     * True if every suspect and clue id in the snapshot exists in a case this size
+     */
+    boolean fitsCase(int caseClues, int caseSuspects) {
+        for (int event : events) {
+            if (event >= caseSuspects || ~event >= caseClues) return false;
+        }
+        return true;
+    }
+
+    /**
+     * Replays the saved progress, in the original order, into a fresh GameState and a
+     * journal that has just been reset. Check fitsCase() first.
+     */
+    void restoreInto(GameState state, InvestigationJournal journal) {
+        state.setDifficulty(difficulty);
+        state.setCurrentScene(scene);
+        for (int event : events) {
+            if (event >= 0) {
+                state.addQuestionedSuspectId(event);
+                journal.suspectQuestioned(event);
+            } else {
+                state.addClueId(~event);
+                journal.clueDiscovered(~event);
+            }
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package game;
+
+import data.CaseCache;
+import data.CaseDefinition;
+import data.CaseLibrary;
+import data.DatabaseManager;
+import data.Metrics;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import javax.swing.SwingUtilities;
+
+/**
+ * StartupPipeline - Prepares the game in the background while Swing starts up
+ * The slow start-up steps run on their own threads as soon as the JVM starts: loading
+ * the SQLite driver and then connecting and migrating the database, and loading the
+ * library's default case (other cases still load when chosen). Meanwhile the event
+ * dispatch thread shows the splash and builds the window. Each phase is timed; the
+ * timings are printed once everything is ready and kept as startup.<phase> histograms.
+ */
+public class StartupPipeline {
+    public static final String SQLITE_DRIVER = "org.sqlite.JDBC";
+
+    private final long startNanos = System.nanoTime();
+    private final Map<String, Long> phaseNanos = new LinkedHashMap<>();
+    private final ExecutorService executor;
+    private final CompletableFuture<DatabaseManager> database;
+    private final CompletableFuture<CaseDefinition> defaultCase;
+
+    private StartupPipeline() {
+        AtomicInteger threads = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(2, task -> {
+            Thread thread = new Thread(task, "startup-" + threads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        // Connecting needs the driver, so the database phase follows it on the same thread
+        this.database = CompletableFuture.supplyAsync(() -> {
+            timed("driver", StartupPipeline::loadDriver);
+            return timed("database", DatabaseManager::new);
+        }, executor);
+        this.defaultCase = CompletableFuture.supplyAsync(
+            () -> timed("case", () -> CaseCache.shared().get(CaseLibrary.shared().getDefaultCase())), executor);
+    }
+
+    /**
+     * Starts the background phases
+     */
+    public static StartupPipeline start() {
+        return new StartupPipeline();
+    }
+
+    /**
+     * Runs a phase on the calling thread and records how long it took
+     */
+    public <T> T timed(String phase, Supplier<T> step) {
+        long start = System.nanoTime();
+        try {
+            return step.get();
+        } finally {
+            long nanos = System.nanoTime() - start;
+            synchronized (phaseNanos) {
+                phaseNanos.put(phase, nanos);
+            }
+            Metrics.shared().histogram("startup." + phase).record(nanos);
+        }
+    }
+
+    /**
+     * Runs onReady on the event dispatch thread once every background phase is done, after
+     * printing the timings. If loading the case failed the game cannot start: the error is
+     * reported and the JVM exits.
+     */
+    public void whenReady(Runnable onReady) {
+        CompletableFuture.allOf(database, defaultCase).whenComplete((done, error) -> {
+            executor.shutdown();
+            SwingUtilities.invokeLater(() -> {
+                if (error != null) {
+                    System.err.println("Could not start the game: " + error.getCause());
+                    System.exit(1);
+                }
+                System.out.println(describeTimings());
+                onReady.run();
+            });
+        });
+    }
+
+    /**
+     * The connected (or unavailable) database; waits for the database phase
+     */
+    public DatabaseManager getDatabase() {
+        return database.join();
+    }
+
+    /**
+     * Milliseconds since the pipeline started
+     */
+    public long getElapsedMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+    }
+
+    /**
+     * One line with each phase's duration and the total so far
+     */
+    public String describeTimings() {
+        StringBuilder text = new StringBuilder("Startup phases:");
+        synchronized (phaseNanos) {
+            for (Map.Entry<String, Long> phase : phaseNanos.entrySet()) {
+                text.append(' ').append(phase.getKey()).append(' ')
+                    .append(TimeUnit.NANOSECONDS.toMillis(phase.getValue())).append(" ms,");
+            }
+        }
+        return text.append(" ready after ").append(getElapsedMillis()).append(" ms").toString();
+    }
+
+    /**
+     * Loads the JDBC driver class; without it the game still runs, just without the database
+     */
+    private static Boolean loadDriver() {
+        try {
+            Class.forName(SQLITE_DRIVER);
+            return true;
+        } catch (ClassNotFoundException e) {
+            System.err.println("SQLite JDBC driver not found: " + e.getMessage());
+            return false;
+        }
+    }
+}
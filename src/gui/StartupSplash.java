@@ -0,0 +1,36 @@
+package gui;
+
+import javax.swing.*;
+import java.awt.*;
+
+/**
+ * StartupSplash - Undecorated window shown while the game loads in the background
+ */
+public class StartupSplash extends JWindow {
+    private static final long serialVersionUID = 1L;
+
+    public StartupSplash() {
+        JPanel content = new JPanel(new BorderLayout(10, 10));
+        content.setBorder(BorderFactory.createCompoundBorder(
+            BorderFactory.createLineBorder(Color.DARK_GRAY),
+            BorderFactory.createEmptyBorder(20, 30, 20, 30)));
+
+        JLabel title = new JLabel("Mystery Game", SwingConstants.CENTER);
+        title.setFont(new Font("Arial", Font.BOLD, 24));
+        content.add(title, BorderLayout.CENTER);
+
+        JLabel status = new JLabel("Opening the case files...", SwingConstants.CENTER);
+        status.setFont(new Font("Arial", Font.PLAIN, 14));
+        JProgressBar progress = new JProgressBar();
+        progress.setIndeterminate(true);
+        JPanel footer = new JPanel(new BorderLayout(5, 5));
+        footer.setOpaque(false);
+        footer.add(status, BorderLayout.NORTH);
+        footer.add(progress, BorderLayout.SOUTH);
+        content.add(footer, BorderLayout.SOUTH);
+
+        setContentPane(content);
+        setSize(360, 160);
+        setLocationRelativeTo(null);
+    }
+}
@@ -1,21 +1,33 @@
 package model;
 
 public class Clue {
+    private int id;
     private String name;
     private String description;
     private String location;
     
     public Clue(String name, String description) {
-        this.name = name;
-        this.description = description;
+        this(-1, name, description, null);
     }
     
     public Clue(String name, String description, String location) {
+        this(-1, name, description, location);
+    }
+    
+    /**
+     * @param id dense index of the clue within its case, or -1 if it belongs to no case
+     */
+    public Clue(int id, String name, String description, String location) {
+        this.id = id;
         this.name = name;
         this.description = description;
         this.location = location;
     }
     
+    public int getId() {
+        return id;
+    }
+    
     public String getName() {
         return name;
     }
@@ -1,62 +1,220 @@
 package model;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 
+/**
+ * GameState - One player's progress through a case
+ * Progress is kept as clue and suspect ids (see Clue.getId and Suspect.getId): a bit mask
+ * of found clues, how often each suspect was questioned, and the order things were found
+ * in. The case's own clue and suspect lists are shared, not copied, so a session costs
+ * only a few words of state.
+ */
 public class GameState {
-    private List<Clue> clues;
-    private List<Suspect> questionedSuspects;
+    private static final int[] NO_IDS = new int[0];
+
+    private final List<Clue> caseClues;
+    private final List<Suspect> caseSuspects;
+    private final long[] clueWords;
+    private final int[] questionCounts;
+    private int[] clueOrder;
+    private int clueCount;
+    private int[] questionedOrder;
+    private int questionedCount;
     private int currentScene;
     private CaseDifficulty difficulty;
-    
-    public GameState() {
-        this.clues = new ArrayList<>();
-        this.questionedSuspects = new ArrayList<>();
+
+    /**
+     * @param caseClues the case's clues, indexed by clue id
+     * @param caseSuspects the case's suspects, indexed by suspect id
+     */
+    public GameState(List<Clue> caseClues, List<Suspect> caseSuspects) {
+        this.caseClues = caseClues;
+        this.caseSuspects = caseSuspects;
+        this.clueWords = new long[(caseClues.size() + 63) >>> 6];
+        this.questionCounts = new int[caseSuspects.size()];
+        this.clueOrder = NO_IDS;
+        this.questionedOrder = NO_IDS;
         this.currentScene = 0;
         this.difficulty = CaseDifficulty.MEDIUM;
     }
-    
+
+    /**
+     * Clues in the order they were discovered
+     */
     public List<Clue> getClues() {
-        return clues;
+        List<Clue> clues = new ArrayList<>(clueCount);
+        for (int i = 0; i < clueCount; i++) {
+            clues.add(caseClues.get(clueOrder[i]));
+        }
+        return Collections.unmodifiableList(clues);
+    }
+
+    public int getClueCount() {
+        return clueCount;
     }
-    
+
+    /**
+     * Ids of the discovered clues, in discovery order
+     */
+    public int[] getClueIds() {
+        return Arrays.copyOf(clueOrder, clueCount);
+    }
+
+    /**
+     * @throws IllegalArgumentException if the clue is not one of this case's clues
+     */
     public void addClue(Clue clue) {
-        if (!clues.contains(clue)) {
-            clues.add(clue);
+        if (!isClueId(clue.getId())) {
+            throw new IllegalArgumentException("Clue " + clue.getName() + " is not part of this case");
+        }
+        addClueId(clue.getId());
+    }
+
+    /**
+     * @throws IllegalArgumentException if clueId is not a clue id of this case
+     */
+    public void addClueId(int clueId) {
+        if (!isClueId(clueId)) {
+            throw new IllegalArgumentException("No clue with id " + clueId + " in this case");
+        }
+        if (!hasClueId(clueId)) {
+            clueWords[clueId >>> 6] |= 1L << clueId;
+            clueOrder = append(clueOrder, clueCount++, clueId);
         }
     }
-    
+
     public boolean hasClue(Clue clue) {
-        return clues.contains(clue);
+        return hasClueId(clue.getId());
+    }
+
+    /**
+     * False for ids outside this case (they can never be found)
+     */
+    public boolean hasClueId(int clueId) {
+        return isClueId(clueId) && (clueWords[clueId >>> 6] & (1L << clueId)) != 0;
+    }
+
+    /**
+     * True if every clue in the mask (64 clue ids per word, like clueWords) has been found
+     */
+    public boolean hasAllClueIds(long[] mask) {
+        for (int i = 0; i < mask.length; i++) {
+            long found = i < clueWords.length ? clueWords[i] : 0;
+            if ((mask[i] & ~found) != 0) {
+                return false;
+            }
+        }
+        return true;
     }
-    
+
+    /**
+     * Suspects in the order they were first questioned
+     */
     public List<Suspect> getQuestionedSuspects() {
-        return questionedSuspects;
+        List<Suspect> suspects = new ArrayList<>(questionedCount);
+        for (int i = 0; i < questionedCount; i++) {
+            suspects.add(caseSuspects.get(questionedOrder[i]));
+        }
+        return Collections.unmodifiableList(suspects);
+    }
+
+    public int getQuestionedSuspectCount() {
+        return questionedCount;
+    }
+
+    /**
+     * Ids of the questioned suspects, in the order they were first questioned
+     */
+    public int[] getQuestionedSuspectIds() {
+        return Arrays.copyOf(questionedOrder, questionedCount);
     }
-    
+
+    /**
+     * @throws IllegalArgumentException if the suspect is not one of this case's suspects
+     */
     public void addQuestionedSuspect(Suspect suspect) {
-        if (!questionedSuspects.contains(suspect)) {
-            questionedSuspects.add(suspect);
+        if (!isSuspectId(suspect.getId())) {
+            throw new IllegalArgumentException("Suspect " + suspect.getName() + " is not part of this case");
+        }
+        addQuestionedSuspectId(suspect.getId());
+    }
+
+    /**
+     * Counts one questioning of the suspect
+     * @throws IllegalArgumentException if suspectId is not a suspect id of this case
+     */
+    public void addQuestionedSuspectId(int suspectId) {
+        if (!isSuspectId(suspectId)) {
+            throw new IllegalArgumentException("No suspect with id " + suspectId + " in this case");
+        }
+        if (questionCounts[suspectId]++ == 0) {
+            questionedOrder = append(questionedOrder, questionedCount++, suspectId);
         }
     }
-    
+
+    /**
+     * How many times the suspect has been questioned (0 for ids outside this case)
+     */
+    public int getQuestionCount(int suspectId) {
+        return isSuspectId(suspectId) ? questionCounts[suspectId] : 0;
+    }
+
     public boolean hasQuestionedSuspect(Suspect suspect) {
-        return questionedSuspects.contains(suspect);
+        return hasQuestionedSuspectId(suspect.getId());
+    }
+
+    /**
+     * False for ids outside this case
+     */
+    public boolean hasQuestionedSuspectId(int suspectId) {
+        return getQuestionCount(suspectId) > 0;
+    }
+
+    /**
+     * Forgets all progress but keeps the difficulty and the storage already allocated,
+     * so one state can be replayed many times without allocating
+     */
+    public void reset() {
+        Arrays.fill(clueWords, 0);
+        Arrays.fill(questionCounts, 0);
+        clueCount = 0;
+        questionedCount = 0;
+        currentScene = 0;
     }
-    
+
     public int getCurrentScene() {
         return currentScene;
     }
-    
+
     public void setCurrentScene(int scene) {
         this.currentScene = scene;
     }
-    
+
     public CaseDifficulty getDifficulty() {
         return difficulty;
     }
-    
+
     public void setDifficulty(CaseDifficulty difficulty) {
         this.difficulty = difficulty;
     }
+
+    // Objects built without a case id have id -1
+    private boolean isClueId(int clueId) {
+        return clueId >= 0 && clueId < caseClues.size();
+    }
+
+    private boolean isSuspectId(int suspectId) {
+        return suspectId >= 0 && suspectId < questionCounts.length;
+    }
+
+    private static int[] append(int[] ids, int count, int id) {
+        if (count == ids.length) {
+            ids = Arrays.copyOf(ids, Math.max(4, count * 2));
+        }
+        ids[count] = id;
+        return ids;
+    }
 }
@@ -0,0 +1,80 @@
+package model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * GameStateTest - Checks how GameState handles clues and suspects from outside its case
+ */
+public class GameStateTest {
+
+    public static void main(String[] args) {
+        System.out.println("=== GAME STATE TEST ===\n");
+
+        List<Clue> clues = new ArrayList<>();
+        clues.add(new Clue(0, "Torn Red Fabric", "A scrap of red silk", "Display case"));
+        clues.add(new Clue(1, "Muddy Footprints", "Prints leading to the back door", "Hallway"));
+        List<Suspect> suspects = new ArrayList<>();
+        suspects.add(new Suspect(0, "Marcus Cole", "Security Guard", "I was on duty..."));
+
+        // Test 1: Case clues and suspects are recorded
+        System.out.println("TEST 1: Adding Case Clues and Suspects");
+        System.out.println("--------------------------------------");
+        GameState state = new GameState(clues, suspects);
+        state.addClue(clues.get(1));
+        state.addQuestionedSuspect(suspects.get(0));
+        check(state.hasClue(clues.get(1)) && state.getClueCount() == 1, "clue recorded");
+        check(state.getQuestionCount(0) == 1, "questioning recorded");
+        System.out.println();
+
+        // Test 2: Objects built without a case id (id -1) are rejected, not stored
+        System.out.println("TEST 2: Rejecting Clues and Suspects Without a Case Id");
+        System.out.println("------------------------------------------------------");
+        Clue looseClue = new Clue("Broken Window", "Glass on the floor");
+        Suspect looseSuspect = new Suspect("Sarah Mitchell", "Assistant Curator", "I left at 6 PM...");
+        check(rejects(() -> state.addClue(looseClue)), "addClue rejects id -1");
+        check(rejects(() -> state.addQuestionedSuspect(looseSuspect)), "addQuestionedSuspect rejects id -1");
+        check(!state.hasClue(looseClue) && !state.hasQuestionedSuspect(looseSuspect), "has* is false for id -1");
+        System.out.println();
+
+        // Test 3: Ids past the end of the case are rejected too
+        System.out.println("TEST 3: Rejecting Ids Outside the Case");
+        System.out.println("--------------------------------------");
+        check(rejects(() -> state.addClueId(clues.size())), "addClueId rejects an id past the last clue");
+        check(rejects(() -> state.addClueId(64)), "addClueId rejects an id past the bit mask");
+        check(rejects(() -> state.addQuestionedSuspectId(suspects.size())), "addQuestionedSuspectId rejects an id past the last suspect");
+        check(state.getClueCount() == 1 && state.getQuestionedSuspectCount() == 1, "progress unchanged");
+        System.out.println();
+
+        // Test 4: Lookups of ids outside the case answer "not found" instead of throwing
+        System.out.println("TEST 4: Looking Up Ids Outside the Case");
+        System.out.println("---------------------------------------");
+        check(!state.hasClueId(-1) && !state.hasClueId(clues.size()) && !state.hasClueId(70),
+              "hasClueId is false for -1, past the last clue and past the bit mask");
+        check(state.getQuestionCount(-1) == 0 && state.getQuestionCount(suspects.size()) == 0,
+              "getQuestionCount is 0 for -1 and past the last suspect");
+        check(!state.hasQuestionedSuspectId(-1) && !state.hasQuestionedSuspectId(suspects.size()),
+              "hasQuestionedSuspectId is false for -1 and past the last suspect");
+        check(!state.hasAllClueIds(new long[] { 0, 1L }), "hasAllClueIds is false for a mask past the case's clues");
+        System.out.println();
+
+        System.out.println("=== ALL TESTS COMPLETED SUCCESSFULLY ===");
+    }
+
+    private static boolean rejects(Runnable action) {
+        try {
+            action.run();
+            return false;
+        } catch (IllegalArgumentException e) {
+            System.out.println("Rejected: " + e.getMessage());
+            return true;
+        }
+    }
+
+    private static void check(boolean passed, String what) {
+        if (!passed) {
+            throw new AssertionError("FAILED: " + what);
+        }
+        System.out.println("OK: " + what);
+    }
+}
@@ -1,23 +1,40 @@
 package model;
 
 import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
 import java.util.List;
 
 public class Suspect {
+    private int id;
     private String name;
     private String role;
     private String statement;
     private List<Clue> clues;
+    private BitSet clueIds;
     private boolean isGuilty;
     
     public Suspect(String name, String role, String statement) {
+        this(-1, name, role, statement);
+    }
+    
+    /**
+     * @param id dense index of the suspect within its case, or -1 if it belongs to no case
+     */
+    public Suspect(int id, String name, String role, String statement) {
+        this.id = id;
         this.name = name;
         this.role = role;
         this.statement = statement;
         this.clues = new ArrayList<>();
+        this.clueIds = new BitSet();
         this.isGuilty = false;
     }
     
+    public int getId() {
+        return id;
+    }
+    
     public String getName() {
         return name;
     }
@@ -43,11 +60,19 @@ public class Suspect {
     }
     
     public List<Clue> getClues() {
-        return clues;
+        return Collections.unmodifiableList(clues);
     }
     
     public void setClue(Clue clue) {
-        if (clue != null && !this.clues.contains(clue)) {
+        if (clue == null) {
+            return;
+        }
+        // Clues without a case id fall back to a list scan
+        boolean known = clue.getId() >= 0 ? clueIds.get(clue.getId()) : clues.contains(clue);
+        if (!known) {
+            if (clue.getId() >= 0) {
+                clueIds.set(clue.getId());
+            }
             this.clues.add(clue);
         }
     }
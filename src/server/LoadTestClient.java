@@ -0,0 +1,181 @@
+package server;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * LoadTestClient - Plays many scripted investigations against a SessionServer
+ * and reports p50/p99 latency per action
+ *
+ * Usage: java server.LoadTestClient [host] [port] [detectives] [maxConnections]
+ */
+public class LoadTestClient {
+
+    // A complete playthrough: question everyone, review clues, accuse
+    private static final String[] SCRIPT = {
+        "START MEDIUM", "BEGIN",
+        "SUSPECTS", "QUESTION 1", "MENU",
+        "SUSPECTS", "QUESTION 2", "MENU",
+        "SUSPECTS", "QUESTION 3", "MENU",
+        "CLUES", "MENU",
+        "ACCUSE_MENU", "ACCUSE 3"
+    };
+
+    private final String host;
+    private final int port;
+    private final Map<String, LatencyLog> latencies = new ConcurrentHashMap<>();
+    private final AtomicInteger completed = new AtomicInteger();
+    private final AtomicInteger failed = new AtomicInteger();
+
+    public LoadTestClient(String host, int port) {
+        this.host = host;
+        this.port = port;
+    }
+
+    /**
+     * Runs the given number of detectives, at most maxConnections at a time
+     */
+    public void run(int detectives, int maxConnections) throws InterruptedException {
+        Semaphore connections = new Semaphore(maxConnections);
+        CountDownLatch done = new CountDownLatch(detectives);
+        ExecutorService executor = SessionExecutors.newPerTaskExecutor("detective");
+
+        long start = System.nanoTime();
+        for (int i = 0; i < detectives; i++) {
+            String name = "LoadTest Detective " + i;
+            executor.execute(() -> {
+                try {
+                    connections.acquire();
+                    try {
+                        playInvestigation(name);
+                        completed.incrementAndGet();
+                    } finally {
+                        connections.release();
+                    }
+                } catch (IOException e) {
+                    failed.incrementAndGet();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    done.countDown();
+                }
+            });
+        }
+        done.await();
+        executor.shutdown();
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+        report(detectives, elapsedMillis);
+    }
+
+    private void playInvestigation(String name) throws IOException {
+        try (Socket socket = new Socket(host, port);
+             BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+             Writer out = new BufferedWriter(new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8))) {
+            socket.setTcpNoDelay(true);
+
+            send(in, out, "LOGIN " + name);
+            for (String command : SCRIPT) {
+                send(in, out, command);
+            }
+            send(in, out, "QUIT");
+        }
+    }
+
+    /**
+     * Sends one command, reads the reply up to END and records the round trip
+     */
+    private void send(BufferedReader in, Writer out, String command) throws IOException {
+        long start = System.nanoTime();
+        out.write(command);
+        out.write('\n');
+        out.flush();
+
+        String line;
+        while ((line = in.readLine()) != null && !line.equals(SessionServer.END)) {
+            if (line.startsWith("ERROR")) {
+                throw new IOException(line);
+            }
+        }
+        if (line == null) {
+            throw new IOException("Connection closed during " + command);
+        }
+
+        String action = command.split(" ")[0];
+        latencies.computeIfAbsent(action, key -> new LatencyLog()).record(System.nanoTime() - start);
+    }
+
+    private void report(int detectives, long elapsedMillis) {
+        System.out.println();
+        System.out.println("=== LOAD TEST RESULTS ===");
+        System.out.printf("Detectives: %d | Completed: %d | Failed: %d | Wall time: %d ms%n",
+            detectives, completed.get(), failed.get(), elapsedMillis);
+        System.out.println();
+        System.out.printf("%-12s %10s %12s %12s %12s%n", "Action", "Count", "p50 (us)", "p99 (us)", "max (us)");
+
+        for (Map.Entry<String, LatencyLog> entry : new TreeMap<>(latencies).entrySet()) {
+            long[] sorted = entry.getValue().sorted();
+            System.out.printf("%-12s %10d %12d %12d %12d%n",
+                entry.getKey(), sorted.length,
+                percentile(sorted, 0.50) / 1000,
+                percentile(sorted, 0.99) / 1000,
+                sorted.length > 0 ? sorted[sorted.length - 1] / 1000 : 0);
+        }
+    }
+
+    private static long percentile(long[] sorted, double fraction) {
+        if (sorted.length == 0) return 0;
+        int index = (int) Math.ceil(fraction * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(index, sorted.length - 1))];
+    }
+
+    // ==================== INNER CLASS ====================
+
+    /**
+     * Growable list of latency samples in nanoseconds
+     */
+    private static class LatencyLog {
+        private long[] samples = new long[1024];
+        private int count = 0;
+
+        synchronized void record(long nanos) {
+            if (count == samples.length) {
+                samples = Arrays.copyOf(samples, count * 2);
+            }
+            samples[count++] = nanos;
+        }
+
+        synchronized long[] sorted() {
+            long[] copy = Arrays.copyOf(samples, count);
+            Arrays.sort(copy);
+            return copy;
+        }
+    }
+
+    // ==================== ENTRY POINT ====================
+
+    public static void main(String[] args) throws InterruptedException {
+        String host = args.length > 0 ? args[0] : "localhost";
+        int port = args.length > 1 ? Integer.parseInt(args[1]) : SessionServer.DEFAULT_PORT;
+        int detectives = args.length > 2 ? Integer.parseInt(args[2]) : 10_000;
+        int maxConnections = args.length > 3 ? Integer.parseInt(args[3]) : 1_000;
+
+        System.out.println("Starting " + detectives + " detectives against " + host + ":" + port +
+                           " (" + maxConnections + " concurrent)");
+        new LoadTestClient(host, port).run(detectives, maxConnections);
+    }
+}
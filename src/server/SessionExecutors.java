@@ -0,0 +1,46 @@
+package server;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * SessionExecutors - Creates the one-thread-per-task executor used for player sessions
+ * Uses virtual threads when the JVM provides them (Java 21+) and falls back to
+ * daemon platform threads otherwise, so the server still runs on older JDKs.
+ */
+public final class SessionExecutors {
+
+    private SessionExecutors() {
+    }
+
+    public static ExecutorService newPerTaskExecutor(String namePrefix) {
+        try {
+            Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) factory.invoke(null);
+        } catch (ReflectiveOperationException e) {
+            // Virtual threads not available on this JVM
+            return Executors.newCachedThreadPool(daemonThreads(namePrefix));
+        }
+    }
+
+    public static boolean virtualThreadsAvailable() {
+        try {
+            Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return true;
+        } catch (NoSuchMethodException e) {
+            return false;
+        }
+    }
+
+    private static ThreadFactory daemonThreads(String namePrefix) {
+        AtomicInteger counter = new AtomicInteger();
+        return task -> {
+            Thread thread = new Thread(null, task, namePrefix + "-" + counter.incrementAndGet(), 256 * 1024);
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
@@ -0,0 +1,306 @@
+package server;
+
+import game.GameCommand;
+import game.GameSession;
+import game.GameView;
+import model.CaseDifficulty;
+import data.CaseLibrary;
+import data.CaseSource;
+import data.DatabaseManager;
+import data.GameData;
+import data.Metrics;
+import data.RotatingLogAppender;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * SessionServer - Serves GameSessions to many players over a line protocol on localhost
+ * Each connection runs on its own thread (virtual when available) and all sessions
+ * share one DatabaseManager.
+ *
+ * Protocol (one command per line, every reply ends with a line "END"):
+ *   LOGIN name             -> OK playerId     (plays the library's default case)
+ *   CASES                  -> "CASE id title" per case in the library
+ *   CASE id                -> OK id           (switches to that case, loading it on first use)
+ *   START [EASY|MEDIUM|HARD]
+ *   RESUME                 (continue the player's unfinished investigation)
+ *   BEGIN | MENU | SUSPECTS | CLUES | ACCUSE_MENU | SAVE
+ *   SEARCH words           (ranks the evidence seen so far)
+ *   QUESTION n | ACCUSE n  (n = suspect number, starting at 1)
+ *   CHOOSE n               (n = option number of the last view, starting at 1)
+ *   RESET [difficulty] | QUIT
+ * A view reply is "VIEW phase", the text as "| " lines, "OPTION n label" lines
+ * and an optional "NOTICE message" line.
+ */
+public class SessionServer {
+    public static final int DEFAULT_PORT = 7070;
+    public static final String END = "END";
+
+    private final int port;
+    private final DatabaseManager dbManager;
+    private final RotatingLogAppender logAppender;
+    private final AtomicInteger activeSessions = new AtomicInteger();
+    private final AtomicInteger totalSessions = new AtomicInteger();
+    private ServerSocket serverSocket;
+    private ExecutorService sessions;
+    private Thread acceptThread;
+    private volatile boolean running;
+
+    public SessionServer(int port, DatabaseManager dbManager) {
+        this(port, dbManager, null);
+    }
+
+    /**
+     * @param logAppender shared appender for every session's investigation log, or null
+     */
+    public SessionServer(int port, DatabaseManager dbManager, RotatingLogAppender logAppender) {
+        this.port = port;
+        this.dbManager = dbManager;
+        this.logAppender = logAppender;
+    }
+
+    /**
+     * Binds to localhost and starts accepting players
+     */
+    public void start() throws IOException {
+        serverSocket = new ServerSocket(port, 4096, InetAddress.getLoopbackAddress());
+        sessions = SessionExecutors.newPerTaskExecutor("session");
+        running = true;
+
+        acceptThread = new Thread(this::acceptLoop, "session-accept");
+        acceptThread.start();
+        System.out.println("Session server listening on " + serverSocket.getLocalSocketAddress() +
+                           (SessionExecutors.virtualThreadsAvailable() ? " (virtual threads)" : " (platform threads)"));
+    }
+
+    public int getPort() {
+        return serverSocket != null ? serverSocket.getLocalPort() : port;
+    }
+
+    public int getActiveSessions() {
+        return activeSessions.get();
+    }
+
+    /**
+     * Stops accepting players and waits briefly for open sessions to finish
+     */
+    public void stop() {
+        running = false;
+        try {
+            if (serverSocket != null) {
+                serverSocket.close();
+            }
+        } catch (IOException e) {
+            System.err.println("Error closing server socket: " + e.getMessage());
+        }
+
+        if (sessions != null) {
+            sessions.shutdown();
+            try {
+                sessions.awaitTermination(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        System.out.println("Session server stopped after " + totalSessions.get() + " sessions");
+    }
+
+    private void acceptLoop() {
+        while (running) {
+            try {
+                Socket socket = serverSocket.accept();
+                socket.setTcpNoDelay(true);
+                sessions.execute(() -> serve(socket));
+            } catch (IOException e) {
+                if (running) {
+                    System.err.println("Error accepting connection: " + e.getMessage());
+                }
+            }
+        }
+    }
+
+    // ==================== PER-PLAYER SESSION ====================
+
+    private void serve(Socket socket) {
+        activeSessions.incrementAndGet();
+        totalSessions.incrementAndGet();
+
+        try (Socket s = socket;
+             BufferedReader in = new BufferedReader(new InputStreamReader(s.getInputStream(), StandardCharsets.UTF_8));
+             Writer out = new BufferedWriter(new OutputStreamWriter(s.getOutputStream(), StandardCharsets.UTF_8))) {
+
+            GameSession session = null;
+            String line;
+            while ((line = in.readLine()) != null) {
+                String[] parts = line.trim().split("\\s+", 2);
+                String verb = parts[0].toUpperCase();
+                String arg = parts.length > 1 ? parts[1].trim() : "";
+
+                if (verb.equals("QUIT")) {
+                    writeLine(out, "BYE");
+                    writeLine(out, END);
+                    out.flush();
+                    break;
+                }
+
+                if (verb.equals("LOGIN")) {
+                    int playerId = login(arg.isEmpty() ? "Detective" : arg);
+                    session = new GameSession(new GameData(), dbManager, playerId, logAppender);
+                    writeLine(out, "OK " + playerId);
+                } else if (verb.equals("CASES")) {
+                    for (CaseSource source : CaseLibrary.shared().getCases()) {
+                        writeLine(out, "CASE " + source.caseId + " " + source.title);
+                    }
+                } else if (session == null) {
+                    writeLine(out, "ERROR Send LOGIN first");
+                } else if (verb.equals("CASE")) {
+                    CaseSource source = CaseLibrary.shared().find(arg);
+                    if (source != null) {
+                        session = new GameSession(new GameData(source), dbManager, session.getPlayerId(), logAppender);
+                        writeLine(out, "OK " + source.caseId);
+                    } else {
+                        writeLine(out, "ERROR No such case: " + arg);
+                    }
+                } else if (verb.equals("START")) {
+                    writeView(out, session.start(parseDifficulty(arg)));
+                } else if (verb.equals("RESUME")) {
+                    GameView resumed = session.resume();
+                    if (resumed != null) {
+                        writeView(out, resumed);
+                    } else {
+                        writeLine(out, "ERROR No saved investigation");
+                    }
+                } else {
+                    GameCommand command = parseCommand(verb, arg, session.getCurrentView());
+                    if (command == null) {
+                        writeLine(out, "ERROR Unknown command: " + line);
+                    } else {
+                        writeView(out, session.handle(command));
+                    }
+                }
+                writeLine(out, END);
+                out.flush();
+            }
+        } catch (SocketException e) {
+            // Client went away
+        } catch (IOException e) {
+            System.err.println("Session error: " + e.getMessage());
+        } finally {
+            activeSessions.decrementAndGet();
+        }
+    }
+
+    private int login(String username) {
+        if (dbManager == null || !dbManager.isAvailable()) return -1;
+
+        int playerId = dbManager.getPlayerId(username);
+        if (playerId == -1) {
+            playerId = dbManager.createPlayer(username);
+        }
+        // Another session may have created the same player first
+        if (playerId == -1) {
+            playerId = dbManager.getPlayerId(username);
+        }
+        return playerId;
+    }
+
+    static GameCommand parseCommand(String verb, String arg, GameView current) {
+        switch (verb) {
+            case "BEGIN":
+                return GameCommand.of(GameCommand.Type.BEGIN);
+            case "MENU":
+                return GameCommand.of(GameCommand.Type.MENU);
+            case "SUSPECTS":
+                return GameCommand.of(GameCommand.Type.LIST_SUSPECTS);
+            case "CLUES":
+                return GameCommand.of(GameCommand.Type.REVIEW_CLUES);
+            case "ACCUSE_MENU":
+                return GameCommand.of(GameCommand.Type.CHOOSE_ACCUSED);
+            case "SAVE":
+                return GameCommand.of(GameCommand.Type.SAVE_LOG);
+            case "SEARCH":
+                return GameCommand.search(arg);
+            case "RESET":
+                return GameCommand.reset(parseDifficulty(arg));
+            case "QUESTION":
+                return GameCommand.question(parseNumber(arg) - 1);
+            case "ACCUSE":
+                return GameCommand.accuse(parseNumber(arg) - 1);
+            case "CHOOSE":
+                int choice = parseNumber(arg) - 1;
+                List<GameView.Option> options = current != null ? current.getOptions() : List.of();
+                return choice >= 0 && choice < options.size() ? options.get(choice).command : null;
+            default:
+                return null;
+        }
+    }
+
+    private static CaseDifficulty parseDifficulty(String arg) {
+        for (CaseDifficulty difficulty : CaseDifficulty.values()) {
+            if (difficulty.name().equalsIgnoreCase(arg)) {
+                return difficulty;
+            }
+        }
+        return null;
+    }
+
+    private static int parseNumber(String arg) {
+        try {
+            return Integer.parseInt(arg);
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private static void writeView(Writer out, GameView view) throws IOException {
+        writeLine(out, "VIEW " + view.getPhase());
+        for (String textLine : view.getText().split("\n", -1)) {
+            writeLine(out, "| " + textLine);
+        }
+        List<GameView.Option> options = view.getOptions();
+        for (int i = 0; i < options.size(); i++) {
+            writeLine(out, "OPTION " + (i + 1) + " " + options.get(i).label);
+        }
+        if (view.getNotice() != null) {
+            writeLine(out, "NOTICE " + view.getNotice());
+        }
+    }
+
+    private static void writeLine(Writer out, String line) throws IOException {
+        out.write(line);
+        out.write('\n');
+    }
+
+    // ==================== ENTRY POINT ====================
+
+    public static void main(String[] args) throws IOException {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_PORT;
+
+        DatabaseManager dbManager = new DatabaseManager();
+        RotatingLogAppender logAppender = RotatingLogAppender.fromSystemProperties();
+        Metrics.Reporter metricsReporter = Metrics.startReporterFromSystemProperties();
+        SessionServer server = new SessionServer(port, dbManager, logAppender);
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            server.stop();
+            if (metricsReporter != null) {
+                metricsReporter.close();
+            }
+            logAppender.close();
+            dbManager.close();
+        }, "server-shutdown"));
+        server.start();
+    }
+}